@@ -29,6 +29,17 @@
  */
 package br.com.wfcreations.sannmf;
 
+import java.util.Iterator;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import br.com.wfcreations.sannmf.kernel.IKernel;
+import br.com.wfcreations.sannmf.kernel.ScalarKernel;
+import br.com.wfcreations.sannmf.kernel.UnrolledKernel;
+
 public class SANNMF {
 
 	public static final String VERSION = "1.0.0-dev";
@@ -38,4 +49,105 @@ public class SANNMF {
 	public static final short MINOR = 0;
 
 	public static final short REVISION = 0;
+
+	public static final String KERNEL_PROPERTY = "sannmf.kernel";
+
+	protected static final int PROBE_LENGTH = 13;
+
+	private static volatile ForkJoinPool forkJoinPool = ForkJoinPool.commonPool();
+
+	private static volatile IKernel kernel = configuredKernel();
+
+	public static ForkJoinPool getForkJoinPool() {
+		return forkJoinPool;
+	}
+
+	public static void setForkJoinPool(ForkJoinPool forkJoinPool) {
+		if (forkJoinPool == null)
+			throw new IllegalArgumentException("Fork join pool can't be null");
+		SANNMF.forkJoinPool = forkJoinPool;
+	}
+
+	public static IKernel getKernel() {
+		return kernel;
+	}
+
+	public static void setKernel(IKernel kernel) {
+		if (kernel == null)
+			throw new IllegalArgumentException("Kernel can't be null");
+		if (!isUsable(kernel))
+			throw new IllegalArgumentException("Kernel is not supported by this runtime: " + kernel.getName());
+		SANNMF.kernel = kernel;
+	}
+
+	public static String getKernelName() {
+		return kernel.getName();
+	}
+
+	public static IKernel createKernel(String name) {
+		if (name == null)
+			return detectKernel();
+		IKernel kernel;
+		if (name.equals(UnrolledKernel.NAME))
+			kernel = new UnrolledKernel();
+		else if (name.equals(ScalarKernel.NAME))
+			kernel = new ScalarKernel();
+		else
+			try {
+				kernel = (IKernel) Class.forName(name).getDeclaredConstructor().newInstance();
+			} catch (ReflectiveOperationException | ClassCastException | LinkageError e) {
+				throw new IllegalArgumentException("Invalid kernel: " + name, e);
+			}
+		if (!isUsable(kernel))
+			throw new IllegalArgumentException("Kernel is not supported by this runtime: " + name);
+		return kernel;
+	}
+
+	// a bad kernel property must not fail class initialization, so it falls back to detection
+	protected static IKernel configuredKernel() {
+		String name = System.getProperty(KERNEL_PROPERTY);
+		try {
+			return createKernel(name);
+		} catch (IllegalArgumentException e) {
+			Logger.getLogger(SANNMF.class.getName()).log(Level.WARNING, "Ignoring " + KERNEL_PROPERTY + "=" + name, e);
+			return detectKernel();
+		}
+	}
+
+	// kernels registered as services are preferred over the built-in ones when this runtime supports them
+	protected static IKernel detectKernel() {
+		Iterator<IKernel> kernels = ServiceLoader.load(IKernel.class).iterator();
+		while (true)
+			try {
+				if (!kernels.hasNext())
+					break;
+				IKernel kernel = kernels.next();
+				if (isUsable(kernel))
+					return kernel;
+			} catch (ServiceConfigurationError | LinkageError e) {
+				continue;
+			}
+		return new UnrolledKernel();
+	}
+
+	protected static boolean isUsable(IKernel kernel) {
+		if (!kernel.isSupported())
+			return false;
+		double[] x = new double[PROBE_LENGTH];
+		double[] y = new double[PROBE_LENGTH];
+		float[] floatX = new float[PROBE_LENGTH];
+		double expected = 0;
+		for (int i = 0; i < PROBE_LENGTH; i++) {
+			x[i] = floatX[i] = i + 1;
+			y[i] = PROBE_LENGTH - i;
+			expected += x[i] * y[i];
+		}
+		if (kernel.dot(x, 0, y, 0, PROBE_LENGTH) != expected || kernel.dot(floatX, 0, y, 0, PROBE_LENGTH) != expected)
+			return false;
+		kernel.axpy(2, x, 0, y, 0, PROBE_LENGTH);
+		for (int i = 0; i < PROBE_LENGTH; i++)
+			if (y[i] != PROBE_LENGTH + i + 2)
+				return false;
+		return true;
+	}
 }
\ No newline at end of file
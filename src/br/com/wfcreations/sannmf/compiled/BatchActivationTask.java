@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.compiled;
+
+import java.util.concurrent.RecursiveAction;
+
+public class BatchActivationTask extends RecursiveAction {
+
+	private static final long serialVersionUID = 1L;
+
+	protected final CompiledNetwork network;
+
+	protected final double[] inputs;
+
+	protected final double[] outputs;
+
+	protected final float[] floatInputs;
+
+	protected final float[] floatOutputs;
+
+	protected final int from;
+
+	protected final int to;
+
+	public BatchActivationTask(CompiledNetwork network, double[] inputs, double[] outputs, int from, int to) {
+		this(network, inputs, outputs, null, null, from, to);
+	}
+
+	public BatchActivationTask(CompiledNetwork network, float[] inputs, float[] outputs, int from, int to) {
+		this(network, null, null, inputs, outputs, from, to);
+	}
+
+	protected BatchActivationTask(CompiledNetwork network, double[] inputs, double[] outputs, float[] floatInputs, float[] floatOutputs, int from, int to) {
+		this.network = network;
+		this.inputs = inputs;
+		this.outputs = outputs;
+		this.floatInputs = floatInputs;
+		this.floatOutputs = floatOutputs;
+		this.from = from;
+		this.to = to;
+	}
+
+	@Override
+	protected void compute() {
+		if (this.to - this.from > CompiledNetwork.PARALLEL_GRAIN) {
+			int blocks = (this.to - this.from + CompiledNetwork.BATCH_BLOCK - 1) / CompiledNetwork.BATCH_BLOCK;
+			int middle = this.from + (blocks / 2) * CompiledNetwork.BATCH_BLOCK;
+			invokeAll(new BatchActivationTask(this.network, this.inputs, this.outputs, this.floatInputs, this.floatOutputs, this.from, middle), new BatchActivationTask(this.network, this.inputs, this.outputs, this.floatInputs, this.floatOutputs, middle, this.to));
+			return;
+		}
+		try (InferenceSession session = this.network.getSessionPool().borrow()) {
+			if (this.inputs != null)
+				this.network.activateBatch(this.inputs, this.outputs, this.from, this.to, session);
+			else
+				this.network.activateBatch(this.floatInputs, this.floatOutputs, this.from, this.to, session);
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.compiled;
+
+import java.io.Serializable;
+
+import br.com.wfcreations.sannmf.function.activation.HardLimit;
+import br.com.wfcreations.sannmf.function.activation.IActivationFunction;
+import br.com.wfcreations.sannmf.function.activation.IDerivativeActivationFunction;
+import br.com.wfcreations.sannmf.function.activation.Linear;
+import br.com.wfcreations.sannmf.function.activation.PositiveLinear;
+import br.com.wfcreations.sannmf.function.activation.SaturatingLinear;
+import br.com.wfcreations.sannmf.function.activation.Sigmoid;
+import br.com.wfcreations.sannmf.function.activation.SymetricalHardLimit;
+import br.com.wfcreations.sannmf.function.activation.SymetricalSaturatingLinear;
+import br.com.wfcreations.sannmf.function.activation.Tanh;
+
+public class CompiledActivation implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final int LINEAR = 0;
+
+	public static final int SIGMOID = 1;
+
+	public static final int TANH = 2;
+
+	public static final int HARD_LIMIT = 3;
+
+	public static final int SYMETRICAL_HARD_LIMIT = 4;
+
+	public static final int SATURATING_LINEAR = 5;
+
+	public static final int SYMETRICAL_SATURATING_LINEAR = 6;
+
+	public static final int POSITIVE_LINEAR = 7;
+
+	public static final int CUSTOM = 8;
+
+	protected final int kind;
+
+	protected final double slope;
+
+	protected final IActivationFunction function;
+
+	public CompiledActivation(IActivationFunction function) {
+		if (function == null)
+			throw new IllegalArgumentException("Activation function can't be null");
+		Class<?> type = function.getClass();
+		if (type == Linear.class) {
+			this.kind = LINEAR;
+			this.slope = ((Linear) function).getSlope();
+		} else if (type == Sigmoid.class) {
+			this.kind = SIGMOID;
+			this.slope = ((Sigmoid) function).getSlope();
+		} else if (type == Tanh.class) {
+			this.kind = TANH;
+			this.slope = ((Tanh) function).getSlope();
+		} else {
+			if (type == HardLimit.class)
+				this.kind = HARD_LIMIT;
+			else if (type == SymetricalHardLimit.class)
+				this.kind = SYMETRICAL_HARD_LIMIT;
+			else if (type == SaturatingLinear.class)
+				this.kind = SATURATING_LINEAR;
+			else if (type == SymetricalSaturatingLinear.class)
+				this.kind = SYMETRICAL_SATURATING_LINEAR;
+			else if (type == PositiveLinear.class)
+				this.kind = POSITIVE_LINEAR;
+			else
+				this.kind = CUSTOM;
+			this.slope = 1;
+		}
+		this.function = this.kind == CUSTOM ? function : null;
+	}
+
+	public double output(double x) {
+		switch (this.kind) {
+		case LINEAR:
+			return this.slope * x;
+		case SIGMOID:
+			return 1 / (1 + Math.exp(-this.slope * x));
+		case TANH:
+			return Math.tanh(this.slope * x);
+		case HARD_LIMIT:
+			return x < 0 ? 0 : 1;
+		case SYMETRICAL_HARD_LIMIT:
+			return x < 0 ? -1 : 1;
+		case SATURATING_LINEAR:
+			return x > 1 ? 1 : x < 0 ? 0 : x;
+		case SYMETRICAL_SATURATING_LINEAR:
+			return x > 1 ? 1 : x < -1 ? -1 : x;
+		case POSITIVE_LINEAR:
+			return x < 0 ? 0 : x;
+		default:
+			return this.function.output(x);
+		}
+	}
+
+	public void output(double[] values, int offset, int length) {
+		int end = offset + length;
+		switch (this.kind) {
+		case LINEAR:
+			if (this.slope != 1)
+				for (int i = offset; i < end; i++)
+					values[i] *= this.slope;
+			break;
+		case SIGMOID:
+			for (int i = offset; i < end; i++)
+				values[i] = 1 / (1 + Math.exp(-this.slope * values[i]));
+			break;
+		case TANH:
+			for (int i = offset; i < end; i++)
+				values[i] = Math.tanh(this.slope * values[i]);
+			break;
+		default:
+			for (int i = offset; i < end; i++)
+				values[i] = this.output(values[i]);
+		}
+	}
+
+	public void output(float[] values, int offset, int length) {
+		int end = offset + length;
+		switch (this.kind) {
+		case LINEAR:
+			if (this.slope != 1)
+				for (int i = offset; i < end; i++)
+					values[i] *= (float) this.slope;
+			break;
+		case SIGMOID:
+			for (int i = offset; i < end; i++)
+				values[i] = (float) (1 / (1 + Math.exp(-this.slope * values[i])));
+			break;
+		case TANH:
+			for (int i = offset; i < end; i++)
+				values[i] = (float) Math.tanh(this.slope * values[i]);
+			break;
+		default:
+			for (int i = offset; i < end; i++)
+				values[i] = (float) this.output(values[i]);
+		}
+	}
+
+	public double derivative(double x, double y) {
+		switch (this.kind) {
+		case LINEAR:
+			return this.slope;
+		case SIGMOID:
+			return this.slope * y * (1d - y);
+		case TANH:
+			return this.slope * (1 - y * y);
+		default:
+			if (this.function instanceof IDerivativeActivationFunction)
+				return ((IDerivativeActivationFunction) this.function).derivative(x);
+			throw new IllegalStateException("Activation function is not differentiable");
+		}
+	}
+
+	public boolean isDifferentiable() {
+		return this.kind == LINEAR || this.kind == SIGMOID || this.kind == TANH || this.function instanceof IDerivativeActivationFunction;
+	}
+
+	public int getKind() {
+		return this.kind;
+	}
+
+	public double getSlope() {
+		return this.slope;
+	}
+
+	public boolean isCompatible(CompiledActivation activation) {
+		if (this.kind == CUSTOM)
+			return activation.function == this.function;
+		return activation.kind == this.kind && activation.slope == this.slope;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.compiled;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+public class CompiledLayer implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	protected final int inputsNum;
+
+	protected final int outputsNum;
+
+	protected final int[] sources;
+
+	protected final int sourceOffset;
+
+	protected final int outputOffset;
+
+	protected final int weightOffset;
+
+	protected final int biasOffset;
+
+	protected final int[] absentWeights;
+
+	protected final CompiledActivation activation;
+
+	protected CompiledLayer(int[] sources, int outputsNum, int outputOffset, int weightOffset, int[] absentWeights, CompiledActivation activation) {
+		this.inputsNum = sources.length;
+		this.outputsNum = outputsNum;
+		this.outputOffset = outputOffset;
+		this.weightOffset = weightOffset;
+		this.biasOffset = weightOffset + this.inputsNum * outputsNum;
+		this.absentWeights = absentWeights;
+		this.activation = activation;
+
+		boolean contiguous = true;
+		for (int i = 1; i < sources.length && contiguous; i++)
+			contiguous = sources[i] == sources[0] + i;
+		this.sourceOffset = sources.length > 0 ? sources[0] : 0;
+		this.sources = contiguous ? null : sources;
+	}
+
+	public int getInputsNum() {
+		return this.inputsNum;
+	}
+
+	public int getOutputsNum() {
+		return this.outputsNum;
+	}
+
+	public int getParametersNum() {
+		return this.inputsNum * this.outputsNum + this.outputsNum;
+	}
+
+	public int getWeightOffset() {
+		return this.weightOffset;
+	}
+
+	public int getBiasOffset() {
+		return this.biasOffset;
+	}
+
+	public int getOutputOffset() {
+		return this.outputOffset;
+	}
+
+	public boolean isContiguous() {
+		return this.sources == null;
+	}
+
+	public boolean isFullyConnected() {
+		return this.absentWeights == null;
+	}
+
+	public int getSourceAt(int index) {
+		return this.sources == null ? this.sourceOffset + index : this.sources[index];
+	}
+
+	public CompiledActivation getActivation() {
+		return this.activation;
+	}
+
+	protected int columnOf(int stateIndex) {
+		if (this.sources == null)
+			return stateIndex - this.sourceOffset;
+		return Arrays.binarySearch(this.sources, stateIndex);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,733 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.compiled;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import br.com.wfcreations.sannmf.SANNMF;
+import br.com.wfcreations.sannmf.function.input.WeightedSum;
+import br.com.wfcreations.sannmf.kernel.IKernel;
+import br.com.wfcreations.sannmf.structure.ILayer;
+import br.com.wfcreations.sannmf.structure.INeuron;
+import br.com.wfcreations.sannmf.structure.ISynapse;
+import br.com.wfcreations.sannmf.structure.feedforward.BiasNeuron;
+import br.com.wfcreations.sannmf.structure.feedforward.FeedforwardNeuralNetwork;
+import br.com.wfcreations.sannmf.structure.feedforward.IOutputtedNeuron;
+import br.com.wfcreations.sannmf.structure.feedforward.InputNeuron;
+import br.com.wfcreations.sannmf.structure.feedforward.ProcessorNeuron;
+import br.com.wfcreations.sannmf.utils.LayerUtils;
+import br.com.wfcreations.sannmf.utils.MatrixUtils;
+
+public class CompiledNetwork implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final int BATCH_BLOCK = 64;
+
+	public static final int BATCH_CHUNK = 16384;
+
+	public static final int PARALLEL_GRAIN = 4 * BATCH_BLOCK;
+
+	public static final long PARALLEL_THRESHOLD = 1L << 20;
+
+	protected final CompiledLayer[] layers;
+
+	protected final Precision precision;
+
+	protected final int parametersNum;
+
+	protected final double[] parameters;
+
+	protected final float[] floatParameters;
+
+	protected final int inputsNum;
+
+	protected final int[] outputIndices;
+
+	protected final int stateSize;
+
+	protected final int gatherSize;
+
+	protected transient FeedforwardNeuralNetwork network;
+
+	protected transient Map<INeuron, Integer> stateIndices;
+
+	protected transient ProcessorNeuron[][] neurons;
+
+	protected transient int[][] biasCounts;
+
+	protected transient volatile InferenceSessionPool sessionPool;
+
+	public CompiledNetwork(FeedforwardNeuralNetwork network) {
+		this(network, Precision.DOUBLE);
+	}
+
+	public CompiledNetwork(FeedforwardNeuralNetwork network, Precision precision) {
+		if (network == null)
+			throw new IllegalArgumentException("Neural network can't be null");
+		if (precision == null)
+			throw new IllegalArgumentException("Precision can't be null");
+
+		Map<INeuron, Integer> stateIndices = new IdentityHashMap<INeuron, Integer>();
+		InputNeuron[] inputNeurons = network.getInputNeurons();
+		for (int i = 0; i < inputNeurons.length; i++)
+			stateIndices.put(inputNeurons[i], i);
+
+		List<CompiledLayer> layers = new ArrayList<CompiledLayer>();
+		List<ProcessorNeuron[]> neurons = new ArrayList<ProcessorNeuron[]>();
+		int stateSize = inputNeurons.length;
+		int parametersNum = 0;
+		int gatherSize = 0;
+
+		for (ILayer layer : network.getLayers()) {
+			List<ProcessorNeuron> rows = LayerUtils.getProcessorNeurons(layer);
+			if (rows.isEmpty())
+				continue;
+
+			CompiledActivation activation = null;
+			TreeSet<Integer> sourceSet = new TreeSet<Integer>();
+			for (ProcessorNeuron neuron : rows) {
+				if (neuron.getInputFunction() == null || neuron.getInputFunction().getClass() != WeightedSum.class)
+					throw new IllegalArgumentException("Only weighted sum neurons can be compiled");
+				CompiledActivation neuronActivation = new CompiledActivation(neuron.getActivationFunction());
+				if (activation == null)
+					activation = neuronActivation;
+				else if (!activation.isCompatible(neuronActivation))
+					throw new IllegalArgumentException("Layer neurons must share the same activation function");
+				for (ISynapse synapse : neuron.getInputConnections()) {
+					INeuron presynaptic = synapse.getPresynaptic();
+					if (presynaptic instanceof BiasNeuron)
+						continue;
+					Integer index = stateIndices.get(presynaptic);
+					if (index == null)
+						throw new IllegalArgumentException("Presynaptic neurons must belong to a previous layer");
+					sourceSet.add(index);
+				}
+			}
+
+			int[] sources = new int[sourceSet.size()];
+			int column = 0;
+			for (Integer source : sourceSet)
+				sources[column++] = source;
+
+			boolean[] connected = new boolean[rows.size() * sources.length];
+			int present = 0;
+			for (int row = 0; row < rows.size(); row++)
+				for (ISynapse synapse : rows.get(row).getInputConnections())
+					if (!(synapse.getPresynaptic() instanceof BiasNeuron)) {
+						connected[row * sources.length + Arrays.binarySearch(sources, stateIndices.get(synapse.getPresynaptic()))] = true;
+						present++;
+					}
+
+			int[] absentWeights = null;
+			if (present < connected.length) {
+				absentWeights = new int[connected.length - present];
+				int absent = 0;
+				for (int i = 0; i < connected.length; i++)
+					if (!connected[i])
+						absentWeights[absent++] = parametersNum + i;
+			}
+
+			CompiledLayer compiledLayer = new CompiledLayer(sources, rows.size(), stateSize, parametersNum, absentWeights, activation);
+			if (!compiledLayer.isContiguous())
+				gatherSize = Math.max(gatherSize, sources.length);
+			parametersNum += compiledLayer.getParametersNum();
+
+			for (ProcessorNeuron neuron : rows)
+				stateIndices.put(neuron, stateSize++);
+
+			layers.add(compiledLayer);
+			neurons.add(rows.toArray(new ProcessorNeuron[rows.size()]));
+		}
+
+		IOutputtedNeuron[] outputNeurons = network.getOutputNeurons();
+		this.outputIndices = new int[outputNeurons.length];
+		for (int i = 0; i < outputNeurons.length; i++) {
+			Integer index = stateIndices.get(outputNeurons[i]);
+			if (index == null)
+				throw new IllegalArgumentException("Output neurons must be input or processor neurons");
+			this.outputIndices[i] = index;
+		}
+
+		this.layers = layers.toArray(new CompiledLayer[layers.size()]);
+		this.neurons = neurons.toArray(new ProcessorNeuron[neurons.size()][]);
+		this.precision = precision;
+		this.parametersNum = parametersNum;
+		this.parameters = precision.hasFloatParameters() ? null : new double[parametersNum];
+		this.floatParameters = precision.hasFloatParameters() ? new float[parametersNum] : null;
+		this.inputsNum = inputNeurons.length;
+		this.stateSize = stateSize;
+		this.gatherSize = gatherSize;
+		this.network = network;
+		this.stateIndices = stateIndices;
+		this.update();
+	}
+
+	public CompiledNetwork update() {
+		this.checkAttached();
+		if (this.parameters != null)
+			Arrays.fill(this.parameters, 0);
+		else
+			Arrays.fill(this.floatParameters, 0);
+		int[][] biasCounts = new int[this.layers.length][];
+		for (int l = 0; l < this.layers.length; l++) {
+			biasCounts[l] = new int[this.neurons[l].length];
+			for (int row = 0; row < this.neurons[l].length; row++)
+				for (ISynapse synapse : this.neurons[l][row].getInputConnections()) {
+					int index = this.parameterIndexOf(l, row, synapse.getPresynaptic());
+					double weight = synapse.getWeight();
+					if (synapse.getPresynaptic() instanceof BiasNeuron) {
+						weight += this.getParameter(index);
+						biasCounts[l][row]++;
+					}
+					this.setParameter(index, weight);
+				}
+		}
+		this.biasCounts = biasCounts;
+		return this;
+	}
+
+	public CompiledNetwork writeBack() {
+		this.checkAttached();
+		for (int l = 0; l < this.layers.length; l++)
+			for (int row = 0; row < this.neurons[l].length; row++) {
+				List<ISynapse> synapses = this.neurons[l][row].getInputConnections();
+				double biasSum = 0;
+				int biasCount = 0;
+				for (ISynapse synapse : synapses)
+					if (synapse.getPresynaptic() instanceof BiasNeuron) {
+						biasSum += synapse.getWeight();
+						biasCount++;
+					} else
+						synapse.setWeight(this.getParameter(this.parameterIndexOf(l, row, synapse.getPresynaptic())));
+				if (biasCount == 0)
+					continue;
+				double biasChange = (this.getParameter(this.layers[l].biasOffset + row) - biasSum) / biasCount;
+				for (ISynapse synapse : synapses)
+					if (synapse.getPresynaptic() instanceof BiasNeuron)
+						synapse.incrementWeight(biasChange);
+			}
+		return this;
+	}
+
+	public CompiledNetwork applyWeightChanges(double[] weightChanges, double factor) {
+		if (weightChanges.length != this.parametersNum)
+			throw new IllegalArgumentException("Weight changes size does not match parameters number");
+		if (this.parameters == null) {
+			this.applyFloatWeightChanges(weightChanges, factor, false);
+			return this;
+		}
+		IKernel kernel = SANNMF.getKernel();
+		for (int l = 0; l < this.layers.length; l++) {
+			CompiledLayer layer = this.layers[l];
+			kernel.axpy(factor, weightChanges, layer.weightOffset, this.parameters, layer.weightOffset, layer.biasOffset - layer.weightOffset);
+			if (layer.absentWeights != null)
+				for (int absent : layer.absentWeights)
+					this.parameters[absent] = 0;
+			for (int row = 0; row < layer.outputsNum; row++) {
+				int biasCount = this.biasCounts == null ? 1 : this.biasCounts[l][row];
+				this.parameters[layer.biasOffset + row] += factor * weightChanges[layer.biasOffset + row] * biasCount;
+			}
+		}
+		return this;
+	}
+
+	public CompiledNetwork drainWeightChanges(double[] weightChanges, double factor) {
+		if (weightChanges.length != this.parametersNum)
+			throw new IllegalArgumentException("Weight changes size does not match parameters number");
+		if (this.parameters == null) {
+			this.applyFloatWeightChanges(weightChanges, factor, true);
+			return this;
+		}
+		double[] parameters = this.parameters;
+		this.maskAbsentWeights(weightChanges);
+		for (int l = 0; l < this.layers.length; l++) {
+			CompiledLayer layer = this.layers[l];
+			for (int i = layer.weightOffset; i < layer.biasOffset; i++)
+				if (weightChanges[i] != 0) {
+					parameters[i] += factor * weightChanges[i];
+					weightChanges[i] = 0;
+				}
+			for (int row = 0; row < layer.outputsNum; row++) {
+				int i = layer.biasOffset + row;
+				if (weightChanges[i] != 0) {
+					parameters[i] += factor * weightChanges[i] * (this.biasCounts == null ? 1 : this.biasCounts[l][row]);
+					weightChanges[i] = 0;
+				}
+			}
+		}
+		return this;
+	}
+
+	protected void applyFloatWeightChanges(double[] weightChanges, double factor, boolean drain) {
+		float[] parameters = this.floatParameters;
+		this.maskAbsentWeights(weightChanges);
+		for (int l = 0; l < this.layers.length; l++) {
+			CompiledLayer layer = this.layers[l];
+			for (int i = layer.weightOffset; i < layer.biasOffset; i++)
+				if (weightChanges[i] != 0) {
+					parameters[i] = (float) (parameters[i] + factor * weightChanges[i]);
+					if (drain)
+						weightChanges[i] = 0;
+				}
+			for (int row = 0; row < layer.outputsNum; row++) {
+				int i = layer.biasOffset + row;
+				if (weightChanges[i] != 0) {
+					parameters[i] = (float) (parameters[i] + factor * weightChanges[i] * (this.biasCounts == null ? 1 : this.biasCounts[l][row]));
+					if (drain)
+						weightChanges[i] = 0;
+				}
+			}
+		}
+	}
+
+	public CompiledNetwork maskAbsentWeights(double[] values) {
+		for (CompiledLayer layer : this.layers)
+			if (layer.absentWeights != null)
+				for (int absent : layer.absentWeights)
+					values[absent] = 0;
+		return this;
+	}
+
+	public double getParameter(int index) {
+		return this.parameters != null ? this.parameters[index] : this.floatParameters[index];
+	}
+
+	public CompiledNetwork setParameter(int index, double value) {
+		if (this.parameters != null)
+			this.parameters[index] = value;
+		else
+			this.floatParameters[index] = (float) value;
+		return this;
+	}
+
+	public double[] activate(double... inputs) {
+		double[] outputs = new double[this.outputIndices.length];
+		this.activate(inputs, outputs);
+		return outputs;
+	}
+
+	public CompiledNetwork activate(double[] inputs, double[] outputs) {
+		try (InferenceSession session = this.getSessionPool().borrow()) {
+			session.activate(inputs, outputs);
+		}
+		return this;
+	}
+
+	public float[] activate(float... inputs) {
+		float[] outputs = new float[this.outputIndices.length];
+		this.activate(inputs, outputs);
+		return outputs;
+	}
+
+	public CompiledNetwork activate(float[] inputs, float[] outputs) {
+		try (InferenceSession session = this.getSessionPool().borrow()) {
+			session.activate(inputs, outputs);
+		}
+		return this;
+	}
+
+	public InferenceSession newSession() {
+		return new InferenceSession(this);
+	}
+
+	public InferenceSessionPool getSessionPool() {
+		InferenceSessionPool sessionPool = this.sessionPool;
+		if (sessionPool == null)
+			synchronized (this) {
+				sessionPool = this.sessionPool;
+				if (sessionPool == null)
+					this.sessionPool = sessionPool = new InferenceSessionPool(this);
+			}
+		return sessionPool;
+	}
+
+	public CompiledNetwork activateBatch(double[][] inputs, double[][] outputs) {
+		if (inputs.length != outputs.length)
+			throw new IllegalArgumentException("Inputs and outputs must have the same number of rows");
+		int outputsNum = this.outputIndices.length;
+		for (int start = 0; start < inputs.length; start += BATCH_CHUNK) {
+			int rows = Math.min(BATCH_CHUNK, inputs.length - start);
+			double[] chunkInputs = new double[rows * this.inputsNum];
+			double[] chunkOutputs = new double[rows * outputsNum];
+			for (int row = 0; row < rows; row++) {
+				if (inputs[start + row].length != this.inputsNum)
+					throw new IllegalArgumentException("Input vector size does not match network input dimension");
+				if (outputs[start + row].length != outputsNum)
+					throw new IllegalArgumentException("Output vector size does not match network output dimension");
+				System.arraycopy(inputs[start + row], 0, chunkInputs, row * this.inputsNum, this.inputsNum);
+			}
+			this.activateBatch(chunkInputs, chunkOutputs);
+			for (int row = 0; row < rows; row++)
+				System.arraycopy(chunkOutputs, row * outputsNum, outputs[start + row], 0, outputsNum);
+		}
+		return this;
+	}
+
+	public CompiledNetwork activateBatch(double[] inputs, double[] outputs) {
+		int rows = this.checkBatchDimensions(inputs.length, outputs.length);
+		if (this.isParallel(rows))
+			SANNMF.getForkJoinPool().invoke(new BatchActivationTask(this, inputs, outputs, 0, rows));
+		else
+			try (InferenceSession session = this.getSessionPool().borrow()) {
+				session.activateBatch(inputs, outputs);
+			}
+		return this;
+	}
+
+	public CompiledNetwork activateBatch(float[] inputs, float[] outputs) {
+		int rows = this.checkBatchDimensions(inputs.length, outputs.length);
+		if (this.isParallel(rows))
+			SANNMF.getForkJoinPool().invoke(new BatchActivationTask(this, inputs, outputs, 0, rows));
+		else
+			try (InferenceSession session = this.getSessionPool().borrow()) {
+				session.activateBatch(inputs, outputs);
+			}
+		return this;
+	}
+
+	protected boolean isParallel(int rows) {
+		return rows > PARALLEL_GRAIN && (long) rows * this.parametersNum >= PARALLEL_THRESHOLD;
+	}
+
+	protected void checkDimensions(int inputsLength, int outputsLength) {
+		if (inputsLength != this.inputsNum)
+			throw new IllegalArgumentException("Input vector size does not match network input dimension");
+		if (outputsLength != this.outputIndices.length)
+			throw new IllegalArgumentException("Output vector size does not match network output dimension");
+	}
+
+	protected int checkBatchDimensions(int inputsLength, int outputsLength) {
+		if (inputsLength % this.inputsNum != 0)
+			throw new IllegalArgumentException("Input matrix size does not match network input dimension");
+		int rows = inputsLength / this.inputsNum;
+		if (outputsLength != rows * this.outputIndices.length)
+			throw new IllegalArgumentException("Output matrix size does not match network output dimension");
+		return rows;
+	}
+
+	protected void activateBatch(double[] inputs, double[] outputs, int from, int to, InferenceSession session) {
+		int stateSize = this.stateSize;
+		int inputsNum = this.inputsNum;
+		int outputsNum = this.outputIndices.length;
+		for (int block = from; block < to; block += BATCH_BLOCK) {
+			int rows = Math.min(BATCH_BLOCK, to - block);
+			if (this.precision.hasFloatActivations()) {
+				float[] state = session.getFloatBatchState();
+				for (int row = 0; row < rows; row++)
+					for (int i = 0; i < inputsNum; i++)
+						state[row * stateSize + i] = (float) inputs[(block + row) * inputsNum + i];
+				this.forwardBlock(rows, state, session.getFloatBatchGather());
+				for (int row = 0; row < rows; row++)
+					for (int i = 0; i < outputsNum; i++)
+						outputs[(block + row) * outputsNum + i] = state[row * stateSize + this.outputIndices[i]];
+			} else {
+				double[] state = session.getBatchState();
+				for (int row = 0; row < rows; row++)
+					System.arraycopy(inputs, (block + row) * inputsNum, state, row * stateSize, inputsNum);
+				this.forwardBlock(rows, state, session.getBatchGather());
+				for (int row = 0; row < rows; row++)
+					for (int i = 0; i < outputsNum; i++)
+						outputs[(block + row) * outputsNum + i] = state[row * stateSize + this.outputIndices[i]];
+			}
+		}
+	}
+
+	protected void activateBatch(float[] inputs, float[] outputs, int from, int to, InferenceSession session) {
+		int stateSize = this.stateSize;
+		int inputsNum = this.inputsNum;
+		int outputsNum = this.outputIndices.length;
+		for (int block = from; block < to; block += BATCH_BLOCK) {
+			int rows = Math.min(BATCH_BLOCK, to - block);
+			if (this.precision.hasFloatActivations()) {
+				float[] state = session.getFloatBatchState();
+				for (int row = 0; row < rows; row++)
+					System.arraycopy(inputs, (block + row) * inputsNum, state, row * stateSize, inputsNum);
+				this.forwardBlock(rows, state, session.getFloatBatchGather());
+				for (int row = 0; row < rows; row++)
+					for (int i = 0; i < outputsNum; i++)
+						outputs[(block + row) * outputsNum + i] = state[row * stateSize + this.outputIndices[i]];
+			} else {
+				double[] state = session.getBatchState();
+				for (int row = 0; row < rows; row++)
+					for (int i = 0; i < inputsNum; i++)
+						state[row * stateSize + i] = inputs[(block + row) * inputsNum + i];
+				this.forwardBlock(rows, state, session.getBatchGather());
+				for (int row = 0; row < rows; row++)
+					for (int i = 0; i < outputsNum; i++)
+						outputs[(block + row) * outputsNum + i] = (float) state[row * stateSize + this.outputIndices[i]];
+			}
+		}
+	}
+
+	protected void forwardBlock(int rows, double[] state, double[] gather) {
+		int stateSize = this.stateSize;
+		for (CompiledLayer layer : this.layers) {
+			int inputsNum = layer.inputsNum;
+			double[] layerInputs = state;
+			int inputOffset = layer.sourceOffset;
+			int inputStride = stateSize;
+			if (layer.sources != null) {
+				for (int row = 0; row < rows; row++)
+					for (int column = 0; column < inputsNum; column++)
+						gather[row * inputsNum + column] = state[row * stateSize + layer.sources[column]];
+				layerInputs = gather;
+				inputOffset = 0;
+				inputStride = inputsNum;
+			}
+			if (this.parameters != null) {
+				for (int row = 0; row < rows; row++)
+					System.arraycopy(this.parameters, layer.biasOffset, state, row * stateSize + layer.outputOffset, layer.outputsNum);
+				MatrixUtils.multiplyTransposed(rows, layer.outputsNum, inputsNum, layerInputs, inputOffset, inputStride, this.parameters, layer.weightOffset, inputsNum, state, layer.outputOffset, stateSize);
+			} else {
+				for (int row = 0; row < rows; row++)
+					for (int i = 0; i < layer.outputsNum; i++)
+						state[row * stateSize + layer.outputOffset + i] = this.floatParameters[layer.biasOffset + i];
+				MatrixUtils.multiplyTransposed(rows, layer.outputsNum, inputsNum, layerInputs, inputOffset, inputStride, this.floatParameters, layer.weightOffset, inputsNum, state, layer.outputOffset, stateSize);
+			}
+			for (int row = 0; row < rows; row++)
+				layer.activation.output(state, row * stateSize + layer.outputOffset, layer.outputsNum);
+		}
+	}
+
+	protected void forwardBlock(int rows, float[] state, float[] gather) {
+		int stateSize = this.stateSize;
+		for (CompiledLayer layer : this.layers) {
+			int inputsNum = layer.inputsNum;
+			float[] layerInputs = state;
+			int inputOffset = layer.sourceOffset;
+			int inputStride = stateSize;
+			if (layer.sources != null) {
+				for (int row = 0; row < rows; row++)
+					for (int column = 0; column < inputsNum; column++)
+						gather[row * inputsNum + column] = state[row * stateSize + layer.sources[column]];
+				layerInputs = gather;
+				inputOffset = 0;
+				inputStride = inputsNum;
+			}
+			for (int row = 0; row < rows; row++)
+				System.arraycopy(this.floatParameters, layer.biasOffset, state, row * stateSize + layer.outputOffset, layer.outputsNum);
+			MatrixUtils.multiplyTransposed(rows, layer.outputsNum, inputsNum, layerInputs, inputOffset, inputStride, this.floatParameters, layer.weightOffset, inputsNum, state, layer.outputOffset, stateSize);
+			for (int row = 0; row < rows; row++)
+				layer.activation.output(state, row * stateSize + layer.outputOffset, layer.outputsNum);
+		}
+	}
+
+	protected void forward(double[] state, double[] gather) {
+		IKernel kernel = SANNMF.getKernel();
+		for (CompiledLayer layer : this.layers) {
+			int inputsNum = layer.inputsNum;
+			double[] inputs = state;
+			int inputOffset = layer.sourceOffset;
+			if (layer.sources != null) {
+				for (int column = 0; column < inputsNum; column++)
+					gather[column] = state[layer.sources[column]];
+				inputs = gather;
+				inputOffset = 0;
+			}
+			int weight = layer.weightOffset;
+			int bias = layer.biasOffset;
+			int output = layer.outputOffset;
+			if (this.parameters != null) {
+				double[] parameters = this.parameters;
+				for (int row = 0; row < layer.outputsNum; row++) {
+					state[output + row] = parameters[bias + row] + kernel.dot(parameters, weight, inputs, inputOffset, inputsNum);
+					weight += inputsNum;
+				}
+			} else {
+				float[] parameters = this.floatParameters;
+				for (int row = 0; row < layer.outputsNum; row++) {
+					state[output + row] = parameters[bias + row] + kernel.dot(parameters, weight, inputs, inputOffset, inputsNum);
+					weight += inputsNum;
+				}
+			}
+			layer.activation.output(state, output, layer.outputsNum);
+		}
+	}
+
+	protected void forward(float[] state, float[] gather) {
+		IKernel kernel = SANNMF.getKernel();
+		float[] parameters = this.floatParameters;
+		for (CompiledLayer layer : this.layers) {
+			int inputsNum = layer.inputsNum;
+			float[] inputs = state;
+			int inputOffset = layer.sourceOffset;
+			if (layer.sources != null) {
+				for (int column = 0; column < inputsNum; column++)
+					gather[column] = state[layer.sources[column]];
+				inputs = gather;
+				inputOffset = 0;
+			}
+			int weight = layer.weightOffset;
+			int bias = layer.biasOffset;
+			int output = layer.outputOffset;
+			for (int row = 0; row < layer.outputsNum; row++) {
+				state[output + row] = parameters[bias + row] + kernel.dot(parameters, weight, inputs, inputOffset, inputsNum);
+				weight += inputsNum;
+			}
+			layer.activation.output(state, output, layer.outputsNum);
+		}
+	}
+
+	protected void forward(double[] state, double[] fields, double[] gather) {
+		IKernel kernel = SANNMF.getKernel();
+		double[] parameters = this.parameters;
+		float[] floatParameters = this.floatParameters;
+		for (CompiledLayer layer : this.layers) {
+			int inputsNum = layer.inputsNum;
+			double[] inputs = state;
+			int inputOffset = layer.sourceOffset;
+			if (layer.sources != null) {
+				for (int column = 0; column < inputsNum; column++)
+					gather[column] = state[layer.sources[column]];
+				inputs = gather;
+				inputOffset = 0;
+			}
+			int weight = layer.weightOffset;
+			int output = layer.outputOffset;
+			if (parameters != null)
+				for (int row = 0; row < layer.outputsNum; row++) {
+					fields[output + row] = parameters[layer.biasOffset + row] + kernel.dot(parameters, weight, inputs, inputOffset, inputsNum);
+					weight += inputsNum;
+				}
+			else
+				for (int row = 0; row < layer.outputsNum; row++) {
+					fields[output + row] = floatParameters[layer.biasOffset + row] + kernel.dot(floatParameters, weight, inputs, inputOffset, inputsNum);
+					weight += inputsNum;
+				}
+			System.arraycopy(fields, output, state, output, layer.outputsNum);
+			layer.activation.output(state, output, layer.outputsNum);
+		}
+	}
+
+	protected void backward(double[] state, double[] fields, double[] deltas, double[] gather, double[] weightChanges) {
+		IKernel kernel = SANNMF.getKernel();
+		double[] parameters = this.parameters;
+		float[] floatParameters = this.floatParameters;
+		for (int l = this.layers.length - 1; l >= 0; l--) {
+			CompiledLayer layer = this.layers[l];
+			int inputsNum = layer.inputsNum;
+			double[] inputs = state;
+			int inputOffset = layer.sourceOffset;
+			if (layer.sources != null) {
+				for (int column = 0; column < inputsNum; column++)
+					gather[column] = state[layer.sources[column]];
+				inputs = gather;
+				inputOffset = 0;
+			}
+			int weight = layer.weightOffset;
+			for (int row = 0; row < layer.outputsNum; row++) {
+				int index = layer.outputOffset + row;
+				double delta = deltas[index] * layer.activation.derivative(fields[index], state[index]);
+				deltas[index] = delta;
+				if (delta != 0) {
+					kernel.axpy(delta, inputs, inputOffset, weightChanges, weight, inputsNum);
+					weightChanges[layer.biasOffset + row] += delta;
+					if (l > 0) {
+						if (layer.sources == null) {
+							if (parameters != null)
+								kernel.axpy(delta, parameters, weight, deltas, layer.sourceOffset, inputsNum);
+							else
+								kernel.axpy(delta, floatParameters, weight, deltas, layer.sourceOffset, inputsNum);
+						} else
+							for (int column = 0; column < inputsNum; column++)
+								deltas[layer.sources[column]] += delta * this.getParameter(weight + column);
+					}
+				}
+				weight += inputsNum;
+			}
+		}
+	}
+
+	protected int parameterIndexOf(int layerIndex, int row, INeuron presynaptic) {
+		CompiledLayer layer = this.layers[layerIndex];
+		if (presynaptic instanceof BiasNeuron)
+			return layer.biasOffset + row;
+		Integer stateIndex = this.stateIndices.get(presynaptic);
+		int column = stateIndex == null ? -1 : layer.columnOf(stateIndex);
+		if (column < 0 || column >= layer.inputsNum)
+			throw new IllegalStateException("Network topology has changed since compilation");
+		int index = layer.weightOffset + row * layer.inputsNum + column;
+		if (layer.absentWeights != null && Arrays.binarySearch(layer.absentWeights, index) >= 0)
+			throw new IllegalStateException("Network topology has changed since compilation");
+		return index;
+	}
+
+	protected void checkAttached() {
+		if (this.network == null)
+			throw new IllegalStateException("Compiled network is detached from its source network");
+	}
+
+	public FeedforwardNeuralNetwork getNetwork() {
+		return this.network;
+	}
+
+	public CompiledLayer[] getLayers() {
+		return this.layers;
+	}
+
+	public CompiledLayer getLayerAt(int index) {
+		return this.layers[index];
+	}
+
+	public int getLayersNum() {
+		return this.layers.length;
+	}
+
+	public Precision getPrecision() {
+		return this.precision;
+	}
+
+	public double[] getParameters() {
+		return this.parameters;
+	}
+
+	public float[] getFloatParameters() {
+		return this.floatParameters;
+	}
+
+	public int getParametersNum() {
+		return this.parametersNum;
+	}
+
+	public int getInputsNum() {
+		return this.inputsNum;
+	}
+
+	public int getOutputsNum() {
+		return this.outputIndices.length;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.compiled;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class InferenceSession implements AutoCloseable {
+
+	protected final CompiledNetwork network;
+
+	protected final InferenceSessionPool pool;
+
+	protected final AtomicBoolean idle = new AtomicBoolean(false);
+
+	protected final double[] state;
+
+	protected final double[] gather;
+
+	protected final float[] floatState;
+
+	protected final float[] floatGather;
+
+	protected double[] batchState;
+
+	protected double[] batchGather;
+
+	protected float[] floatBatchState;
+
+	protected float[] floatBatchGather;
+
+	public InferenceSession(CompiledNetwork network) {
+		this(network, null);
+	}
+
+	protected InferenceSession(CompiledNetwork network, InferenceSessionPool pool) {
+		if (network == null)
+			throw new IllegalArgumentException("Compiled network can't be null");
+		this.network = network;
+		this.pool = pool;
+		if (network.precision.hasFloatActivations()) {
+			this.state = null;
+			this.gather = null;
+			this.floatState = new float[network.stateSize];
+			this.floatGather = new float[network.gatherSize];
+		} else {
+			this.state = new double[network.stateSize];
+			this.gather = new double[network.gatherSize];
+			this.floatState = null;
+			this.floatGather = null;
+		}
+	}
+
+	public double[] activate(double... inputs) {
+		double[] outputs = new double[this.network.getOutputsNum()];
+		this.activate(inputs, outputs);
+		return outputs;
+	}
+
+	public InferenceSession activate(double[] inputs, double[] outputs) {
+		this.network.checkDimensions(inputs.length, outputs.length);
+		int[] outputIndices = this.network.outputIndices;
+		if (this.floatState != null) {
+			for (int i = 0; i < inputs.length; i++)
+				this.floatState[i] = (float) inputs[i];
+			this.network.forward(this.floatState, this.floatGather);
+			for (int i = 0; i < outputs.length; i++)
+				outputs[i] = this.floatState[outputIndices[i]];
+		} else {
+			System.arraycopy(inputs, 0, this.state, 0, inputs.length);
+			this.network.forward(this.state, this.gather);
+			for (int i = 0; i < outputs.length; i++)
+				outputs[i] = this.state[outputIndices[i]];
+		}
+		return this;
+	}
+
+	public InferenceSession activate(float[] inputs, float[] outputs) {
+		this.network.checkDimensions(inputs.length, outputs.length);
+		int[] outputIndices = this.network.outputIndices;
+		if (this.floatState != null) {
+			System.arraycopy(inputs, 0, this.floatState, 0, inputs.length);
+			this.network.forward(this.floatState, this.floatGather);
+			for (int i = 0; i < outputs.length; i++)
+				outputs[i] = this.floatState[outputIndices[i]];
+		} else {
+			for (int i = 0; i < inputs.length; i++)
+				this.state[i] = inputs[i];
+			this.network.forward(this.state, this.gather);
+			for (int i = 0; i < outputs.length; i++)
+				outputs[i] = (float) this.state[outputIndices[i]];
+		}
+		return this;
+	}
+
+	public InferenceSession activateBatch(double[] inputs, double[] outputs) {
+		int rows = this.network.checkBatchDimensions(inputs.length, outputs.length);
+		this.network.activateBatch(inputs, outputs, 0, rows, this);
+		return this;
+	}
+
+	public InferenceSession activateBatch(float[] inputs, float[] outputs) {
+		int rows = this.network.checkBatchDimensions(inputs.length, outputs.length);
+		this.network.activateBatch(inputs, outputs, 0, rows, this);
+		return this;
+	}
+
+	protected double[] getBatchState() {
+		if (this.batchState == null)
+			this.batchState = new double[CompiledNetwork.BATCH_BLOCK * this.network.stateSize];
+		return this.batchState;
+	}
+
+	protected double[] getBatchGather() {
+		if (this.batchGather == null)
+			this.batchGather = new double[CompiledNetwork.BATCH_BLOCK * this.network.gatherSize];
+		return this.batchGather;
+	}
+
+	protected float[] getFloatBatchState() {
+		if (this.floatBatchState == null)
+			this.floatBatchState = new float[CompiledNetwork.BATCH_BLOCK * this.network.stateSize];
+		return this.floatBatchState;
+	}
+
+	protected float[] getFloatBatchGather() {
+		if (this.floatBatchGather == null)
+			this.floatBatchGather = new float[CompiledNetwork.BATCH_BLOCK * this.network.gatherSize];
+		return this.floatBatchGather;
+	}
+
+	public CompiledNetwork getNetwork() {
+		return this.network;
+	}
+
+	public InferenceSessionPool getPool() {
+		return this.pool;
+	}
+
+	@Override
+	public void close() {
+		if (this.pool != null)
+			this.pool.release(this);
+	}
+}
\ No newline at end of file
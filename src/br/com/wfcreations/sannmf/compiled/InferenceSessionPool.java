@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.compiled;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class InferenceSessionPool {
+
+	public static final int DEFAULT_MAXIMUM_IDLE = 4 * Runtime.getRuntime().availableProcessors();
+
+	protected final CompiledNetwork network;
+
+	protected final int maximumIdle;
+
+	protected final Queue<InferenceSession> sessions = new ConcurrentLinkedQueue<InferenceSession>();
+
+	protected final AtomicInteger idleNum = new AtomicInteger();
+
+	public InferenceSessionPool(CompiledNetwork network) {
+		this(network, DEFAULT_MAXIMUM_IDLE);
+	}
+
+	public InferenceSessionPool(CompiledNetwork network, int maximumIdle) {
+		if (network == null)
+			throw new IllegalArgumentException("Compiled network can't be null");
+		if (maximumIdle < 0)
+			throw new IllegalArgumentException("Maximum idle sessions can't be negative");
+		this.network = network;
+		this.maximumIdle = maximumIdle;
+	}
+
+	public InferenceSession borrow() {
+		InferenceSession session = this.sessions.poll();
+		if (session == null)
+			return new InferenceSession(this.network, this);
+		this.idleNum.decrementAndGet();
+		session.idle.set(false);
+		return session;
+	}
+
+	public void release(InferenceSession session) {
+		if (session == null)
+			throw new IllegalArgumentException("Session can't be null");
+		if (session.pool != this)
+			throw new IllegalArgumentException("Session does not belong to this pool");
+		if (!session.idle.compareAndSet(false, true))
+			return;
+		if (this.idleNum.incrementAndGet() <= this.maximumIdle)
+			this.sessions.offer(session);
+		else
+			this.idleNum.decrementAndGet();
+	}
+
+	public CompiledNetwork getNetwork() {
+		return this.network;
+	}
+
+	public int getMaximumIdle() {
+		return this.maximumIdle;
+	}
+
+	public int getIdleNum() {
+		return this.idleNum.get();
+	}
+}
\ No newline at end of file
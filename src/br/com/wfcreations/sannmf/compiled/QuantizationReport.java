@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.compiled;
+
+import java.io.Serializable;
+
+public class QuantizationReport implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	protected final int patternsNum;
+
+	protected final double originalError;
+
+	protected final double quantizedError;
+
+	protected final double maximumDeviation;
+
+	protected final double meanDeviation;
+
+	public QuantizationReport(int patternsNum, double originalError, double quantizedError, double maximumDeviation, double meanDeviation) {
+		this.patternsNum = patternsNum;
+		this.originalError = originalError;
+		this.quantizedError = quantizedError;
+		this.maximumDeviation = maximumDeviation;
+		this.meanDeviation = meanDeviation;
+	}
+
+	public int getPatternsNum() {
+		return this.patternsNum;
+	}
+
+	public double getOriginalError() {
+		return this.originalError;
+	}
+
+	public double getQuantizedError() {
+		return this.quantizedError;
+	}
+
+	public double getErrorDelta() {
+		return this.quantizedError - this.originalError;
+	}
+
+	public double getMaximumDeviation() {
+		return this.maximumDeviation;
+	}
+
+	public double getMeanDeviation() {
+		return this.meanDeviation;
+	}
+
+	@Override
+	public String toString() {
+		return "QuantizationReport [patternsNum=" + this.patternsNum + ", originalError=" + this.originalError + ", quantizedError=" + this.quantizedError + ", maximumDeviation=" + this.maximumDeviation + ", meanDeviation=" + this.meanDeviation + "]";
+	}
+}
\ No newline at end of file
@@ -0,0 +1,296 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.compiled;
+
+import java.io.Serializable;
+
+import br.com.wfcreations.sannmf.SANNMF;
+import br.com.wfcreations.sannmf.data.SupervisedPattern;
+import br.com.wfcreations.sannmf.data.SupervisedSet;
+import br.com.wfcreations.sannmf.function.error.IErrorFunction;
+import br.com.wfcreations.sannmf.kernel.IKernel;
+
+public class QuantizedNetwork implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final int QUANTIZATION_LEVELS = 127;
+
+	protected static final int MAXIMUM_INPUTS = Integer.MAX_VALUE / (QUANTIZATION_LEVELS * QUANTIZATION_LEVELS);
+
+	protected final CompiledLayer[] layers;
+
+	protected final byte[][] weights;
+
+	protected final double[][] weightScales;
+
+	protected final double[][] outputScales;
+
+	protected final double[][] biases;
+
+	protected final double[] inputScales;
+
+	protected final int inputsNum;
+
+	protected final int[] outputIndices;
+
+	protected final int stateSize;
+
+	protected final int gatherSize;
+
+	protected final int quantizedSize;
+
+	protected transient volatile QuantizedSessionPool sessionPool;
+
+	public QuantizedNetwork(CompiledNetwork network, SupervisedSet calibrationSet) {
+		if (network == null)
+			throw new IllegalArgumentException("Compiled network can't be null");
+		if (calibrationSet == null)
+			throw new IllegalArgumentException("Calibration Set can't be null");
+		if (calibrationSet.isEmpty())
+			throw new IllegalArgumentException("Calibration Set can't be empty");
+		if (calibrationSet.inputsNum() != network.getInputsNum())
+			throw new IllegalArgumentException("Calibration Set dimensions do not match network dimensions");
+
+		this.layers = network.layers;
+		this.inputsNum = network.inputsNum;
+		this.outputIndices = network.outputIndices;
+		this.stateSize = network.stateSize;
+		this.gatherSize = network.gatherSize;
+		this.weights = new byte[this.layers.length][];
+		this.weightScales = new double[this.layers.length][];
+		this.outputScales = new double[this.layers.length][];
+		this.biases = new double[this.layers.length][];
+		this.inputScales = new double[this.layers.length];
+
+		int quantizedSize = 0;
+		for (int l = 0; l < this.layers.length; l++) {
+			CompiledLayer layer = this.layers[l];
+			if (layer.inputsNum > MAXIMUM_INPUTS)
+				throw new IllegalArgumentException("Layer has too many inputs for int32 accumulation");
+			quantizedSize = Math.max(quantizedSize, layer.inputsNum);
+			this.weights[l] = new byte[layer.inputsNum * layer.outputsNum];
+			this.weightScales[l] = new double[layer.outputsNum];
+			this.biases[l] = new double[layer.outputsNum];
+			for (int row = 0; row < layer.outputsNum; row++) {
+				int offset = layer.weightOffset + row * layer.inputsNum;
+				double maximum = 0;
+				for (int column = 0; column < layer.inputsNum; column++)
+					maximum = Math.max(maximum, Math.abs(network.getParameter(offset + column)));
+				double scale = maximum > 0 ? maximum / QUANTIZATION_LEVELS : 1;
+				for (int column = 0; column < layer.inputsNum; column++)
+					this.weights[l][row * layer.inputsNum + column] = (byte) quantize(network.getParameter(offset + column), 1 / scale);
+				this.weightScales[l][row] = scale;
+				this.biases[l][row] = network.getParameter(layer.biasOffset + row);
+			}
+		}
+
+		this.quantizedSize = quantizedSize;
+		this.calibrate(network, calibrationSet);
+		for (int l = 0; l < this.layers.length; l++) {
+			this.outputScales[l] = new double[this.layers[l].outputsNum];
+			for (int row = 0; row < this.layers[l].outputsNum; row++)
+				this.outputScales[l][row] = this.weightScales[l][row] * this.inputScales[l];
+		}
+	}
+
+	protected void calibrate(CompiledNetwork network, SupervisedSet calibrationSet) {
+		double[] state = new double[this.stateSize];
+		double[] gather = new double[this.gatherSize];
+		double[] maximums = new double[this.layers.length];
+		for (int p = 0; p < calibrationSet.lenght(); p++) {
+			calibrationSet.copyInputs(p, p + 1, state, 0);
+			network.forward(state, gather);
+			for (int l = 0; l < this.layers.length; l++) {
+				CompiledLayer layer = this.layers[l];
+				for (int column = 0; column < layer.inputsNum; column++)
+					maximums[l] = Math.max(maximums[l], Math.abs(state[layer.getSourceAt(column)]));
+			}
+		}
+		for (int l = 0; l < this.layers.length; l++)
+			this.inputScales[l] = maximums[l] > 0 ? maximums[l] / QUANTIZATION_LEVELS : 1;
+	}
+
+	protected static int quantize(double value, double inverseScale) {
+		long level = Math.round(value * inverseScale);
+		if (level > QUANTIZATION_LEVELS)
+			return QUANTIZATION_LEVELS;
+		if (level < -QUANTIZATION_LEVELS)
+			return -QUANTIZATION_LEVELS;
+		return (int) level;
+	}
+
+	public double[] activate(double... inputs) {
+		double[] outputs = new double[this.outputIndices.length];
+		this.activate(inputs, outputs);
+		return outputs;
+	}
+
+	public QuantizedNetwork activate(double[] inputs, double[] outputs) {
+		try (QuantizedSession session = this.getSessionPool().borrow()) {
+			session.activate(inputs, outputs);
+		}
+		return this;
+	}
+
+	public QuantizedNetwork activateBatch(double[] inputs, double[] outputs) {
+		try (QuantizedSession session = this.getSessionPool().borrow()) {
+			session.activateBatch(inputs, outputs);
+		}
+		return this;
+	}
+
+	public QuantizedSession newSession() {
+		return new QuantizedSession(this);
+	}
+
+	public QuantizedSessionPool getSessionPool() {
+		QuantizedSessionPool sessionPool = this.sessionPool;
+		if (sessionPool == null)
+			synchronized (this) {
+				sessionPool = this.sessionPool;
+				if (sessionPool == null)
+					this.sessionPool = sessionPool = new QuantizedSessionPool(this);
+			}
+		return sessionPool;
+	}
+
+	protected void checkDimensions(int inputsLength, int outputsLength) {
+		if (inputsLength != this.inputsNum)
+			throw new IllegalArgumentException("Input vector size does not match network input dimension");
+		if (outputsLength != this.outputIndices.length)
+			throw new IllegalArgumentException("Output vector size does not match network output dimension");
+	}
+
+	protected int checkBatchDimensions(int inputsLength, int outputsLength) {
+		if (inputsLength % this.inputsNum != 0)
+			throw new IllegalArgumentException("Input matrix size does not match network input dimension");
+		int rows = inputsLength / this.inputsNum;
+		if (outputsLength != rows * this.outputIndices.length)
+			throw new IllegalArgumentException("Output matrix size does not match network output dimension");
+		return rows;
+	}
+
+	protected void forward(double[] state, byte[] quantized) {
+		IKernel kernel = SANNMF.getKernel();
+		for (int l = 0; l < this.layers.length; l++) {
+			CompiledLayer layer = this.layers[l];
+			int inputsNum = layer.inputsNum;
+			double inverseScale = 1 / this.inputScales[l];
+			for (int column = 0; column < inputsNum; column++)
+				quantized[column] = (byte) quantize(state[layer.getSourceAt(column)], inverseScale);
+
+			byte[] weights = this.weights[l];
+			double[] outputScales = this.outputScales[l];
+			double[] biases = this.biases[l];
+			int weight = 0;
+			for (int row = 0; row < layer.outputsNum; row++) {
+				state[layer.outputOffset + row] = kernel.dot(weights, weight, quantized, 0, inputsNum) * outputScales[row] + biases[row];
+				weight += inputsNum;
+			}
+			layer.activation.output(state, layer.outputOffset, layer.outputsNum);
+		}
+	}
+
+	public QuantizationReport evaluate(CompiledNetwork original, SupervisedSet testSet, IErrorFunction errorFunction) {
+		if (original == null)
+			throw new IllegalArgumentException("Compiled network can't be null");
+		if (testSet == null)
+			throw new IllegalArgumentException("Test Set can't be null");
+		if (errorFunction == null)
+			throw new IllegalArgumentException("Error function can't be null");
+		int outputsNum = this.outputIndices.length;
+		if (original.getInputsNum() != this.inputsNum || original.getOutputsNum() != outputsNum)
+			throw new IllegalArgumentException("Compiled network dimensions do not match quantized network dimensions");
+		if (testSet.inputsNum() != this.inputsNum || testSet.outputsNum() != outputsNum)
+			throw new IllegalArgumentException("Test Set dimensions do not match network dimensions");
+
+		double[] originalOutputs = new double[outputsNum];
+		double[] quantizedOutputs = new double[outputsNum];
+		double[] outputError = new double[outputsNum];
+		double originalError = 0;
+		double quantizedError = 0;
+		double maximumDeviation = 0;
+		double deviationSum = 0;
+		int patternsNum = testSet.lenght();
+		try (InferenceSession originalSession = original.getSessionPool().borrow(); QuantizedSession quantizedSession = this.getSessionPool().borrow()) {
+			for (int p = 0; p < patternsNum; p++) {
+				SupervisedPattern pattern = testSet.getPatternAt(p);
+				double[] desiredOutput = pattern.getOutputs();
+				originalSession.activate(pattern.getInputs(), originalOutputs);
+				quantizedSession.activate(pattern.getInputs(), quantizedOutputs);
+				for (int i = 0; i < outputsNum; i++)
+					outputError[i] = desiredOutput[i] - originalOutputs[i];
+				originalError += errorFunction.getOutputError(outputError);
+				for (int i = 0; i < outputsNum; i++) {
+					outputError[i] = desiredOutput[i] - quantizedOutputs[i];
+					double deviation = Math.abs(quantizedOutputs[i] - originalOutputs[i]);
+					maximumDeviation = Math.max(maximumDeviation, deviation);
+					deviationSum += deviation;
+				}
+				quantizedError += errorFunction.getOutputError(outputError);
+			}
+		}
+		if (patternsNum == 0)
+			return new QuantizationReport(0, 0, 0, 0, 0);
+		return new QuantizationReport(patternsNum, originalError / patternsNum, quantizedError / patternsNum, maximumDeviation, deviationSum / ((double) patternsNum * outputsNum));
+	}
+
+	public CompiledLayer[] getLayers() {
+		return this.layers;
+	}
+
+	public int getLayersNum() {
+		return this.layers.length;
+	}
+
+	public int getInputsNum() {
+		return this.inputsNum;
+	}
+
+	public int getOutputsNum() {
+		return this.outputIndices.length;
+	}
+
+	public double getInputScaleAt(int layerIndex) {
+		return this.inputScales[layerIndex];
+	}
+
+	public double getWeightScaleAt(int layerIndex, int row) {
+		return this.weightScales[layerIndex][row];
+	}
+
+	public int getWeightsNum() {
+		int weightsNum = 0;
+		for (byte[] layerWeights : this.weights)
+			weightsNum += layerWeights.length;
+		return weightsNum;
+	}
+}
\ No newline at end of file
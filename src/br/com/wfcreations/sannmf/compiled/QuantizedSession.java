@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.compiled;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class QuantizedSession implements AutoCloseable {
+
+	protected final QuantizedNetwork network;
+
+	protected final QuantizedSessionPool pool;
+
+	protected final AtomicBoolean idle = new AtomicBoolean(false);
+
+	protected final double[] state;
+
+	protected final byte[] quantized;
+
+	public QuantizedSession(QuantizedNetwork network) {
+		this(network, null);
+	}
+
+	protected QuantizedSession(QuantizedNetwork network, QuantizedSessionPool pool) {
+		if (network == null)
+			throw new IllegalArgumentException("Quantized network can't be null");
+		this.network = network;
+		this.pool = pool;
+		this.state = new double[network.stateSize];
+		this.quantized = new byte[network.quantizedSize];
+	}
+
+	public double[] activate(double... inputs) {
+		double[] outputs = new double[this.network.getOutputsNum()];
+		this.activate(inputs, outputs);
+		return outputs;
+	}
+
+	public QuantizedSession activate(double[] inputs, double[] outputs) {
+		this.network.checkDimensions(inputs.length, outputs.length);
+		System.arraycopy(inputs, 0, this.state, 0, inputs.length);
+		this.network.forward(this.state, this.quantized);
+		int[] outputIndices = this.network.outputIndices;
+		for (int i = 0; i < outputs.length; i++)
+			outputs[i] = this.state[outputIndices[i]];
+		return this;
+	}
+
+	public QuantizedSession activateBatch(double[] inputs, double[] outputs) {
+		int rows = this.network.checkBatchDimensions(inputs.length, outputs.length);
+		int inputsNum = this.network.inputsNum;
+		int[] outputIndices = this.network.outputIndices;
+		int outputsNum = outputIndices.length;
+		for (int row = 0; row < rows; row++) {
+			System.arraycopy(inputs, row * inputsNum, this.state, 0, inputsNum);
+			this.network.forward(this.state, this.quantized);
+			for (int i = 0; i < outputsNum; i++)
+				outputs[row * outputsNum + i] = this.state[outputIndices[i]];
+		}
+		return this;
+	}
+
+	public QuantizedNetwork getNetwork() {
+		return this.network;
+	}
+
+	public QuantizedSessionPool getPool() {
+		return this.pool;
+	}
+
+	@Override
+	public void close() {
+		if (this.pool != null)
+			this.pool.release(this);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.compiled;
+
+import java.util.Arrays;
+
+import br.com.wfcreations.sannmf.data.SupervisedSet;
+
+public class TrainingSession {
+
+	protected final CompiledNetwork network;
+
+	protected final double[] state;
+
+	protected final double[] fields;
+
+	protected final double[] deltas;
+
+	protected final double[] gather;
+
+	protected final double[] weightChanges;
+
+	public TrainingSession(CompiledNetwork network) {
+		if (network == null)
+			throw new IllegalArgumentException("Compiled network can't be null");
+		if (network.getPrecision().hasFloatActivations())
+			throw new IllegalArgumentException("Training requires double precision activations");
+		for (CompiledLayer layer : network.layers)
+			if (!layer.activation.isDifferentiable())
+				throw new IllegalArgumentException("Activation functions must be differentiable");
+		this.network = network;
+		this.state = new double[network.stateSize];
+		this.fields = new double[network.stateSize];
+		this.deltas = new double[network.stateSize];
+		this.gather = new double[network.gatherSize];
+		this.weightChanges = new double[network.parametersNum];
+	}
+
+	public double[] accumulate(double[] inputs, double[] desiredOutputs) {
+		double[] outputError = new double[desiredOutputs.length];
+		this.accumulate(inputs, desiredOutputs, outputError);
+		return outputError;
+	}
+
+	public TrainingSession accumulate(double[] inputs, double[] desiredOutputs, double[] outputError) {
+		return this.accumulate(inputs, 0, desiredOutputs, 0, outputError, 0);
+	}
+
+	public TrainingSession accumulate(double[] inputs, int inputOffset, double[] desiredOutputs, int desiredOffset, double[] outputError, int errorOffset) {
+		int[] outputIndices = this.network.outputIndices;
+		System.arraycopy(inputs, inputOffset, this.state, 0, this.network.inputsNum);
+		this.network.forward(this.state, this.fields, this.gather);
+		Arrays.fill(this.deltas, 0);
+		for (int i = 0; i < outputIndices.length; i++) {
+			double error = desiredOutputs[desiredOffset + i] - this.state[outputIndices[i]];
+			outputError[errorOffset + i] = error;
+			this.deltas[outputIndices[i]] += error;
+		}
+		this.network.backward(this.state, this.fields, this.deltas, this.gather, this.weightChanges);
+		return this;
+	}
+
+	public TrainingSession accumulate(SupervisedSet set, int index, double[] outputError, int errorOffset) {
+		return this.accumulate(set.getInputsArray(index), set.getInputsOffset(index), set.getOutputsArray(index), set.getOutputsOffset(index), outputError, errorOffset);
+	}
+
+	public TrainingSession activate(double[] inputs, double[] outputs) {
+		return this.activate(inputs, 0, outputs);
+	}
+
+	public TrainingSession activate(double[] inputs, int inputOffset, double[] outputs) {
+		int[] outputIndices = this.network.outputIndices;
+		System.arraycopy(inputs, inputOffset, this.state, 0, this.network.inputsNum);
+		this.network.forward(this.state, this.fields, this.gather);
+		for (int i = 0; i < outputIndices.length; i++)
+			outputs[i] = this.state[outputIndices[i]];
+		return this;
+	}
+
+	public TrainingSession outputGradient(int output, double[] gradient) {
+		Arrays.fill(this.deltas, 0);
+		Arrays.fill(gradient, 0);
+		this.deltas[this.network.outputIndices[output]] = 1;
+		this.network.backward(this.state, this.fields, this.deltas, this.gather, gradient);
+		this.network.maskAbsentWeights(gradient);
+		return this;
+	}
+
+	public TrainingSession clear() {
+		Arrays.fill(this.weightChanges, 0);
+		return this;
+	}
+
+	public double[] getWeightChanges() {
+		return this.weightChanges;
+	}
+
+	public CompiledNetwork getNetwork() {
+		return this.network;
+	}
+}
\ No newline at end of file
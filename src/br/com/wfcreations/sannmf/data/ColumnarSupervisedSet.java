@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.data;
+
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.List;
+
+public class ColumnarSupervisedSet extends SupervisedSet {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final int DEFAULT_CHUNK_ROWS = 65536;
+
+	protected final RowChunks inputs;
+
+	protected final RowChunks outputs;
+
+	protected boolean frozen;
+
+	public ColumnarSupervisedSet(int inputsNum, int outputsNum) {
+		this(inputsNum, outputsNum, DEFAULT_CHUNK_ROWS);
+	}
+
+	public ColumnarSupervisedSet(int inputsNum, int outputsNum, int chunkRows) {
+		super(inputsNum, outputsNum);
+		this.inputs = new RowChunks(inputsNum, chunkRows);
+		this.outputs = new RowChunks(outputsNum, chunkRows);
+	}
+
+	public ColumnarSupervisedSet(SupervisedSet set) {
+		this(set.inputsNum(), set.outputsNum());
+		for (int index = 0; index < set.lenght(); index++)
+			this.addPattern(set.getPatternAt(index));
+	}
+
+	@Override
+	public boolean addPattern(SupervisedPattern pattern) {
+		if (pattern == null)
+			throw new IllegalArgumentException("Supervised Pattern can't be null");
+		return this.addPattern(pattern.getInputs(), pattern.getOutputs());
+	}
+
+	@Override
+	public boolean addPattern(double[] inputs, double[] outputs) {
+		if (inputs == null)
+			throw new IllegalArgumentException("Inputs can't be null");
+		if (outputs == null)
+			throw new IllegalArgumentException("Outputs can't be null");
+		if (inputs.length != inputsNum)
+			throw new IllegalArgumentException("Invalid input lenght");
+		if (outputs.length != outputsNum)
+			throw new IllegalArgumentException("Invalid output lenght");
+		this.checkMutable();
+		this.inputs.add(inputs);
+		this.outputs.add(outputs);
+		return true;
+	}
+
+	@Override
+	public SupervisedPattern removePatternAt(int index) {
+		SupervisedPattern pattern = this.getPatternAt(index);
+		this.checkMutable();
+		this.inputs.remove(index);
+		this.outputs.remove(index);
+		return pattern;
+	}
+
+	@Override
+	public Iterator<SupervisedPattern> iterator() {
+		return this.getPatterns().iterator();
+	}
+
+	@Override
+	public SupervisedPattern getPatternAt(int index) {
+		return new SupervisedPattern(this.inputs.get(index), this.outputs.get(index));
+	}
+
+	public ColumnarSupervisedSet setPatternAt(int index, double[] inputs, double[] outputs) {
+		if (inputs == null || inputs.length != inputsNum)
+			throw new IllegalArgumentException("Invalid input lenght");
+		if (outputs == null || outputs.length != outputsNum)
+			throw new IllegalArgumentException("Invalid output lenght");
+		this.checkMutable();
+		this.inputs.set(index, inputs);
+		this.outputs.set(index, outputs);
+		return this;
+	}
+
+	@Override
+	public ColumnarSupervisedSet clear() {
+		this.checkMutable();
+		this.inputs.clear();
+		this.outputs.clear();
+		return this;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return this.inputs.size() == 0;
+	}
+
+	@Override
+	public int lenght() {
+		return this.inputs.size();
+	}
+
+	@Override
+	public ColumnarSupervisedSet freeze() {
+		this.frozen = true;
+		return this;
+	}
+
+	@Override
+	public boolean isFrozen() {
+		return this.frozen;
+	}
+
+	@Override
+	public List<SupervisedPattern> getPatterns() {
+		return new AbstractList<SupervisedPattern>() {
+			@Override
+			public SupervisedPattern get(int index) {
+				return getPatternAt(index);
+			}
+
+			@Override
+			public int size() {
+				return lenght();
+			}
+		};
+	}
+
+	@Override
+	public double[] getInputsArray(int index) {
+		return this.inputs.chunkOf(index);
+	}
+
+	@Override
+	public int getInputsOffset(int index) {
+		return this.inputs.offsetOf(index);
+	}
+
+	@Override
+	public double[] getOutputsArray(int index) {
+		return this.outputs.chunkOf(index);
+	}
+
+	@Override
+	public int getOutputsOffset(int index) {
+		return this.outputs.offsetOf(index);
+	}
+
+	@Override
+	public ColumnarSupervisedSet copyInputs(int from, int to, double[] destination, int offset) {
+		this.inputs.copy(from, to, destination, offset);
+		return this;
+	}
+
+	@Override
+	public ColumnarSupervisedSet copyOutputs(int from, int to, double[] destination, int offset) {
+		this.outputs.copy(from, to, destination, offset);
+		return this;
+	}
+
+	public int getChunkRows() {
+		return this.inputs.chunkRows;
+	}
+
+	protected void checkMutable() {
+		if (this.frozen)
+			throw new IllegalStateException("Set is frozen");
+	}
+}
\ No newline at end of file
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.data;
+
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.List;
+
+public class ColumnarUnsupervisedSet extends UnsupervisedSet {
+
+	private static final long serialVersionUID = 1L;
+
+	protected final RowChunks inputs;
+
+	protected boolean frozen;
+
+	public ColumnarUnsupervisedSet(int inputsNum) {
+		this(inputsNum, ColumnarSupervisedSet.DEFAULT_CHUNK_ROWS);
+	}
+
+	public ColumnarUnsupervisedSet(int inputsNum, int chunkRows) {
+		super(inputsNum);
+		this.inputs = new RowChunks(inputsNum, chunkRows);
+	}
+
+	public ColumnarUnsupervisedSet(UnsupervisedSet set) {
+		this(set.inputsNum());
+		for (int index = 0; index < set.lenght(); index++)
+			this.addPattern(set.getPatternAt(index));
+	}
+
+	@Override
+	public boolean addPattern(UnsupervisedPattern pattern) {
+		if (pattern == null)
+			throw new IllegalArgumentException("Unsupervised Pattern can't be null");
+		return this.addPattern(pattern.getInputs());
+	}
+
+	@Override
+	public boolean addPattern(double[] inputs) {
+		if (inputs == null)
+			throw new IllegalArgumentException("Inputs can't be null");
+		if (inputs.length != inputsNum)
+			throw new IllegalArgumentException("Invalid input lenght");
+		this.checkMutable();
+		this.inputs.add(inputs);
+		return true;
+	}
+
+	@Override
+	public UnsupervisedPattern removePatternAt(int index) {
+		UnsupervisedPattern pattern = this.getPatternAt(index);
+		this.checkMutable();
+		this.inputs.remove(index);
+		return pattern;
+	}
+
+	@Override
+	public Iterator<UnsupervisedPattern> iterator() {
+		return this.getPatterns().iterator();
+	}
+
+	@Override
+	public UnsupervisedPattern getPatternAt(int index) {
+		return new UnsupervisedPattern(this.inputs.get(index));
+	}
+
+	public ColumnarUnsupervisedSet setPatternAt(int index, double[] inputs) {
+		if (inputs == null || inputs.length != inputsNum)
+			throw new IllegalArgumentException("Invalid input lenght");
+		this.checkMutable();
+		this.inputs.set(index, inputs);
+		return this;
+	}
+
+	@Override
+	public ColumnarUnsupervisedSet clear() {
+		this.checkMutable();
+		this.inputs.clear();
+		return this;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return this.inputs.size() == 0;
+	}
+
+	@Override
+	public int lenght() {
+		return this.inputs.size();
+	}
+
+	@Override
+	public ColumnarUnsupervisedSet freeze() {
+		this.frozen = true;
+		return this;
+	}
+
+	@Override
+	public boolean isFrozen() {
+		return this.frozen;
+	}
+
+	@Override
+	public List<UnsupervisedPattern> getPatterns() {
+		return new AbstractList<UnsupervisedPattern>() {
+			@Override
+			public UnsupervisedPattern get(int index) {
+				return getPatternAt(index);
+			}
+
+			@Override
+			public int size() {
+				return lenght();
+			}
+		};
+	}
+
+	@Override
+	public double[] getInputsArray(int index) {
+		return this.inputs.chunkOf(index);
+	}
+
+	@Override
+	public int getInputsOffset(int index) {
+		return this.inputs.offsetOf(index);
+	}
+
+	@Override
+	public ColumnarUnsupervisedSet copyInputs(int from, int to, double[] destination, int offset) {
+		this.inputs.copy(from, to, destination, offset);
+		return this;
+	}
+
+	public int getChunkRows() {
+		return this.inputs.chunkRows;
+	}
+
+	protected void checkMutable() {
+		if (this.frozen)
+			throw new IllegalStateException("Set is frozen");
+	}
+}
\ No newline at end of file
@@ -0,0 +1,321 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.data;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import br.com.wfcreations.sannmf.SANNMF;
+
+public class CsvLoader {
+
+	public static final int DEFAULT_PIECE_BYTES = 1 << 25;
+
+	protected static final double[] POWERS_OF_TEN = new double[23];
+
+	static {
+		POWERS_OF_TEN[0] = 1;
+		for (int i = 1; i < POWERS_OF_TEN.length; i++)
+			POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+	}
+
+	protected final int[] inputColumns;
+
+	protected final int[] outputColumns;
+
+	protected final int[] targets;
+
+	protected byte delimiter = ',';
+
+	protected boolean header;
+
+	protected int pieceBytes = DEFAULT_PIECE_BYTES;
+
+	protected int chunkRows = ColumnarSupervisedSet.DEFAULT_CHUNK_ROWS;
+
+	public CsvLoader(int[] inputColumns, int[] outputColumns) {
+		if (inputColumns == null || inputColumns.length == 0)
+			throw new IllegalArgumentException("Input columns can't be empty");
+		if (outputColumns == null || outputColumns.length == 0)
+			throw new IllegalArgumentException("Output columns can't be empty");
+		this.inputColumns = inputColumns.clone();
+		this.outputColumns = outputColumns.clone();
+		int columnsNum = 0;
+		for (int column : this.inputColumns)
+			columnsNum = Math.max(columnsNum, column + 1);
+		for (int column : this.outputColumns)
+			columnsNum = Math.max(columnsNum, column + 1);
+		this.targets = new int[columnsNum];
+		Arrays.fill(this.targets, -1);
+		for (int i = 0; i < this.inputColumns.length + this.outputColumns.length; i++) {
+			int column = i < this.inputColumns.length ? this.inputColumns[i] : this.outputColumns[i - this.inputColumns.length];
+			if (column < 0)
+				throw new IllegalArgumentException("Column can't be negative");
+			if (this.targets[column] >= 0)
+				throw new IllegalArgumentException("Column " + column + " is selected twice");
+			this.targets[column] = i;
+		}
+	}
+
+	public ColumnarSupervisedSet load(File file) throws IOException {
+		if (file == null)
+			throw new IllegalArgumentException("File can't be null");
+		RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = randomAccessFile.getChannel();
+			long[] bounds = this.split(channel);
+			ColumnarSupervisedSet[] pieces = new ColumnarSupervisedSet[bounds.length - 1];
+			try {
+				if (pieces.length == 1)
+					pieces[0] = this.parse(channel, bounds[0], bounds[1]);
+				else if (pieces.length > 1)
+					SANNMF.getForkJoinPool().invoke(new CsvPieceTask(this, channel, bounds, pieces, 0, pieces.length));
+			} catch (UncheckedIOException e) {
+				throw e.getCause();
+			}
+			if (pieces.length == 0)
+				return new ColumnarSupervisedSet(this.inputColumns.length, this.outputColumns.length, this.chunkRows);
+			ColumnarSupervisedSet set = pieces[0];
+			for (int i = 1; i < pieces.length; i++) {
+				set.inputs.moveAll(pieces[i].inputs);
+				set.outputs.moveAll(pieces[i].outputs);
+				pieces[i] = null;
+			}
+			return set;
+		} finally {
+			randomAccessFile.close();
+		}
+	}
+
+	protected long[] split(FileChannel channel) throws IOException {
+		long size = channel.size();
+		long start = this.header ? nextLineStart(channel, 1, size) : 0;
+		if (start >= size)
+			return new long[] { start };
+		long[] bounds = new long[(int) ((size - start + this.pieceBytes - 1) / this.pieceBytes) + 1];
+		int boundsNum = 0;
+		bounds[boundsNum++] = start;
+		for (long position = start + this.pieceBytes; position < size; position += this.pieceBytes) {
+			long lineStart = nextLineStart(channel, position, size);
+			if (lineStart > bounds[boundsNum - 1] && lineStart < size)
+				bounds[boundsNum++] = lineStart;
+		}
+		bounds[boundsNum++] = size;
+		return Arrays.copyOf(bounds, boundsNum);
+	}
+
+	protected static long nextLineStart(FileChannel channel, long position, long size) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(4096);
+		long offset = position - 1;
+		while (offset < size) {
+			buffer.clear();
+			int read = channel.read(buffer, offset);
+			if (read <= 0)
+				break;
+			for (int i = 0; i < read; i++)
+				if (buffer.get(i) == '\n')
+					return offset + i + 1;
+			offset += read;
+		}
+		return size;
+	}
+
+	protected ColumnarSupervisedSet parse(FileChannel channel, long start, long end) {
+		ColumnarSupervisedSet set = new ColumnarSupervisedSet(this.inputColumns.length, this.outputColumns.length, this.chunkRows);
+		MappedByteBuffer buffer;
+		try {
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		int limit = buffer.limit();
+		double[] inputs = new double[this.inputColumns.length];
+		double[] outputs = new double[this.outputColumns.length];
+		int selectedNum = inputs.length + outputs.length;
+		byte[] scratch = new byte[64];
+		int position = 0;
+		while (position < limit) {
+			int lineEnd = position;
+			while (lineEnd < limit && buffer.get(lineEnd) != '\n')
+				lineEnd++;
+			int contentEnd = lineEnd > position && buffer.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+			if (contentEnd > position) {
+				int column = 0;
+				int found = 0;
+				int fieldStart = position;
+				for (int i = position; i <= contentEnd; i++)
+					if (i == contentEnd || buffer.get(i) == this.delimiter) {
+						int target = column < this.targets.length ? this.targets[column] : -1;
+						if (target >= 0) {
+							double value = parseDouble(buffer, fieldStart, i, scratch, start);
+							if (target < inputs.length)
+								inputs[target] = value;
+							else
+								outputs[target - inputs.length] = value;
+							found++;
+						}
+						column++;
+						fieldStart = i + 1;
+					}
+				if (found != selectedNum)
+					throw new IllegalArgumentException("Line at byte " + (start + position) + " has fewer columns than selected");
+				set.addPattern(inputs, outputs);
+			}
+			position = lineEnd + 1;
+		}
+		return set;
+	}
+
+	protected static double parseDouble(ByteBuffer buffer, int start, int end, byte[] scratch, long base) {
+		int from = start;
+		int to = end;
+		while (from < to && buffer.get(from) == ' ')
+			from++;
+		while (to > from && buffer.get(to - 1) == ' ')
+			to--;
+		int position = from;
+		boolean negative = false;
+		if (position < to && (buffer.get(position) == '-' || buffer.get(position) == '+'))
+			negative = buffer.get(position++) == '-';
+		long mantissa = 0;
+		int digitsNum = 0;
+		int exponent = 0;
+		boolean hasDigits = false;
+		boolean fraction = false;
+		for (; position < to; position++) {
+			byte b = buffer.get(position);
+			if (b >= '0' && b <= '9') {
+				hasDigits = true;
+				if (mantissa != 0 || b != '0')
+					digitsNum++;
+				if (digitsNum <= 18) {
+					mantissa = mantissa * 10 + (b - '0');
+					if (fraction)
+						exponent--;
+				} else if (!fraction)
+					exponent++;
+			} else if (b == '.' && !fraction)
+				fraction = true;
+			else
+				break;
+		}
+		if (hasDigits && position < to && (buffer.get(position) == 'e' || buffer.get(position) == 'E')) {
+			position++;
+			boolean negativeExponent = false;
+			if (position < to && (buffer.get(position) == '-' || buffer.get(position) == '+'))
+				negativeExponent = buffer.get(position++) == '-';
+			int explicit = 0;
+			boolean hasExponent = false;
+			for (; position < to && buffer.get(position) >= '0' && buffer.get(position) <= '9'; position++) {
+				hasExponent = true;
+				if (explicit < 100000)
+					explicit = explicit * 10 + (buffer.get(position) - '0');
+			}
+			if (!hasExponent)
+				hasDigits = false;
+			exponent += negativeExponent ? -explicit : explicit;
+		}
+		if (hasDigits && position == to) {
+			if (mantissa == 0)
+				return negative ? -0d : 0d;
+			if (mantissa < (1L << 53) && exponent >= -22 && exponent <= 22) {
+				double value = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+				return negative ? -value : value;
+			}
+		}
+		int length = to - from;
+		if (scratch.length < length)
+			scratch = new byte[length];
+		for (int i = 0; i < length; i++)
+			scratch[i] = buffer.get(from + i);
+		try {
+			return Double.parseDouble(new String(scratch, 0, length, StandardCharsets.US_ASCII));
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid number at byte " + (base + start));
+		}
+	}
+
+	public int[] getInputColumns() {
+		return this.inputColumns.clone();
+	}
+
+	public int[] getOutputColumns() {
+		return this.outputColumns.clone();
+	}
+
+	public char getDelimiter() {
+		return (char) this.delimiter;
+	}
+
+	public CsvLoader setDelimiter(char delimiter) {
+		if (delimiter == '\n' || delimiter == '\r' || delimiter > 127)
+			throw new IllegalArgumentException("Delimiter must be a single-byte character");
+		this.delimiter = (byte) delimiter;
+		return this;
+	}
+
+	public boolean hasHeader() {
+		return this.header;
+	}
+
+	public CsvLoader setHeader(boolean header) {
+		this.header = header;
+		return this;
+	}
+
+	public int getPieceBytes() {
+		return this.pieceBytes;
+	}
+
+	public CsvLoader setPieceBytes(int pieceBytes) {
+		if (pieceBytes <= 0)
+			throw new IllegalArgumentException("Must be greater than 0");
+		this.pieceBytes = pieceBytes;
+		return this;
+	}
+
+	public int getChunkRows() {
+		return this.chunkRows;
+	}
+
+	public CsvLoader setChunkRows(int chunkRows) {
+		if (chunkRows <= 0)
+			throw new IllegalArgumentException("Must be greater than 0");
+		this.chunkRows = chunkRows;
+		return this;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,324 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.data;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.List;
+
+public class MappedSupervisedSet extends SupervisedSet {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final int MAGIC = 0x534E4D46;
+
+	public static final int VERSION = 1;
+
+	public static final int HEADER_BYTES = 32;
+
+	protected final File file;
+
+	protected final int regionRows;
+
+	protected transient DataType dataType;
+
+	protected transient int rowsNum;
+
+	protected transient int rowBytes;
+
+	protected transient int mappedRegionRows;
+
+	protected transient ByteBuffer[] regions;
+
+	protected transient ThreadLocal<double[][]> rows;
+
+	public MappedSupervisedSet(File file) throws IOException {
+		this(file, 0);
+	}
+
+	public MappedSupervisedSet(File file, int regionRows) throws IOException {
+		this(file, regionRows, readHeader(file));
+	}
+
+	private MappedSupervisedSet(File file, int regionRows, ByteBuffer header) throws IOException {
+		super(header.getInt(8), header.getInt(12));
+		if (regionRows < 0)
+			throw new IllegalArgumentException("Region rows can't be negative");
+		this.file = file;
+		this.regionRows = regionRows;
+		this.map(header);
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		this.map(readHeader(this.file));
+	}
+
+	protected static ByteBuffer readHeader(File file) throws IOException {
+		if (file == null)
+			throw new IllegalArgumentException("File can't be null");
+		RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+		try {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+			FileChannel channel = randomAccessFile.getChannel();
+			while (header.hasRemaining())
+				if (channel.read(header) < 0)
+					throw new IOException("Truncated header");
+			header.flip();
+			if (header.getInt(0) != MAGIC)
+				throw new IOException("Not a supervised set file");
+			if (header.getInt(4) != VERSION)
+				throw new IOException("Unsupported version " + header.getInt(4));
+			return header;
+		} finally {
+			randomAccessFile.close();
+		}
+	}
+
+	protected void map(ByteBuffer header) throws IOException {
+		if (header.getInt(8) != this.inputsNum || header.getInt(12) != this.outputsNum)
+			throw new IOException("File dimensions do not match set dimensions");
+		if (header.getInt(16) < 0 || header.getInt(16) >= DataType.values().length)
+			throw new IOException("Unknown data type " + header.getInt(16));
+		this.dataType = DataType.values()[header.getInt(16)];
+		long rowsNum = header.getLong(24);
+		if (rowsNum < 0 || rowsNum > Integer.MAX_VALUE)
+			throw new IOException("Invalid rows number " + rowsNum);
+		this.rowsNum = (int) rowsNum;
+		this.rowBytes = rowBytes(this.inputsNum, this.outputsNum, this.dataType);
+		int regionRows = Integer.MAX_VALUE / this.rowBytes;
+		if (this.regionRows > 0)
+			regionRows = Math.min(regionRows, this.regionRows);
+		this.mappedRegionRows = regionRows;
+		RandomAccessFile randomAccessFile = new RandomAccessFile(this.file, "r");
+		try {
+			FileChannel channel = randomAccessFile.getChannel();
+			if (channel.size() < HEADER_BYTES + rowsNum * this.rowBytes)
+				throw new IOException("Truncated rows");
+			this.regions = new ByteBuffer[(int) ((rowsNum + regionRows - 1) / regionRows)];
+			for (int region = 0; region < this.regions.length; region++) {
+				long start = (long) region * regionRows;
+				long length = Math.min(regionRows, rowsNum - start) * this.rowBytes;
+				this.regions[region] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES + start * this.rowBytes, length).order(ByteOrder.LITTLE_ENDIAN);
+			}
+		} finally {
+			randomAccessFile.close();
+		}
+		this.rows = new ThreadLocal<double[][]>() {
+			@Override
+			protected double[][] initialValue() {
+				return new double[][] { new double[inputsNum], new double[outputsNum] };
+			}
+		};
+	}
+
+	public static void write(SupervisedSet set, File file, DataType dataType) throws IOException {
+		if (set == null)
+			throw new IllegalArgumentException("Supervised Set can't be null");
+		if (file == null)
+			throw new IllegalArgumentException("File can't be null");
+		if (dataType == null)
+			throw new IllegalArgumentException("Data type can't be null");
+		int inputsNum = set.inputsNum();
+		int outputsNum = set.outputsNum();
+		int rowBytes = rowBytes(inputsNum, outputsNum, dataType);
+		// about 1 MiB of whole rows, but always room for the header and one row
+		ByteBuffer buffer = ByteBuffer.allocateDirect(Math.max(Math.max(HEADER_BYTES, rowBytes), (1 << 20) / rowBytes * rowBytes)).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.putInt(MAGIC).putInt(VERSION).putInt(inputsNum).putInt(outputsNum).putInt(dataType.ordinal()).putInt(0).putLong(set.lenght());
+		RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+		try {
+			randomAccessFile.setLength(0);
+			FileChannel channel = randomAccessFile.getChannel();
+			buffer.flip();
+			writeFully(channel, buffer);
+			for (int index = 0; index < set.lenght(); index++) {
+				if (buffer.remaining() < rowBytes) {
+					buffer.flip();
+					writeFully(channel, buffer);
+				}
+				put(buffer, dataType, set.getInputsArray(index), set.getInputsOffset(index), inputsNum);
+				put(buffer, dataType, set.getOutputsArray(index), set.getOutputsOffset(index), outputsNum);
+			}
+			buffer.flip();
+			writeFully(channel, buffer);
+		} finally {
+			randomAccessFile.close();
+		}
+	}
+
+	protected static int rowBytes(int inputsNum, int outputsNum, DataType dataType) {
+		long rowBytes = ((long) inputsNum + outputsNum) * dataType.getBytes();
+		if (rowBytes <= 0)
+			throw new IllegalArgumentException("Row size must be greater than 0");
+		if (rowBytes > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("Row size must fit in a mapped region");
+		return (int) rowBytes;
+	}
+
+	protected static void put(ByteBuffer buffer, DataType dataType, double[] values, int offset, int length) {
+		if (dataType == DataType.FLOAT64)
+			for (int i = offset; i < offset + length; i++)
+				buffer.putDouble(values[i]);
+		else
+			for (int i = offset; i < offset + length; i++)
+				buffer.putFloat((float) values[i]);
+	}
+
+	protected static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining())
+			channel.write(buffer);
+		buffer.clear();
+	}
+
+	protected void read(int index, int column, double[] destination, int offset, int length) {
+		if (index < 0 || index >= this.rowsNum)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.rowsNum);
+		ByteBuffer region = this.regions[index / this.mappedRegionRows];
+		int position = (index % this.mappedRegionRows) * this.rowBytes + column * this.dataType.getBytes();
+		if (this.dataType == DataType.FLOAT64)
+			for (int i = 0; i < length; i++, position += 8)
+				destination[offset + i] = region.getDouble(position);
+		else
+			for (int i = 0; i < length; i++, position += 4)
+				destination[offset + i] = region.getFloat(position);
+	}
+
+	@Override
+	public boolean addPattern(SupervisedPattern pattern) {
+		throw new UnsupportedOperationException("Memory-mapped set is read-only");
+	}
+
+	@Override
+	public boolean addPattern(double[] inputs, double[] outputs) {
+		throw new UnsupportedOperationException("Memory-mapped set is read-only");
+	}
+
+	@Override
+	public SupervisedPattern removePatternAt(int index) {
+		throw new UnsupportedOperationException("Memory-mapped set is read-only");
+	}
+
+	@Override
+	public MappedSupervisedSet clear() {
+		throw new UnsupportedOperationException("Memory-mapped set is read-only");
+	}
+
+	@Override
+	public Iterator<SupervisedPattern> iterator() {
+		return this.getPatterns().iterator();
+	}
+
+	@Override
+	public SupervisedPattern getPatternAt(int index) {
+		double[] inputs = new double[this.inputsNum];
+		double[] outputs = new double[this.outputsNum];
+		this.read(index, 0, inputs, 0, this.inputsNum);
+		this.read(index, this.inputsNum, outputs, 0, this.outputsNum);
+		return new SupervisedPattern(inputs, outputs);
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return this.rowsNum == 0;
+	}
+
+	@Override
+	public int lenght() {
+		return this.rowsNum;
+	}
+
+	@Override
+	public MappedSupervisedSet freeze() {
+		return this;
+	}
+
+	@Override
+	public boolean isFrozen() {
+		return true;
+	}
+
+	@Override
+	public List<SupervisedPattern> getPatterns() {
+		return new AbstractList<SupervisedPattern>() {
+			@Override
+			public SupervisedPattern get(int index) {
+				return getPatternAt(index);
+			}
+
+			@Override
+			public int size() {
+				return lenght();
+			}
+		};
+	}
+
+	@Override
+	public double[] getInputsArray(int index) {
+		double[] inputs = this.rows.get()[0];
+		this.read(index, 0, inputs, 0, this.inputsNum);
+		return inputs;
+	}
+
+	@Override
+	public double[] getOutputsArray(int index) {
+		double[] outputs = this.rows.get()[1];
+		this.read(index, this.inputsNum, outputs, 0, this.outputsNum);
+		return outputs;
+	}
+
+	@Override
+	public MappedSupervisedSet copyInputs(int from, int to, double[] destination, int offset) {
+		for (int index = from; index < to; index++, offset += this.inputsNum)
+			this.read(index, 0, destination, offset, this.inputsNum);
+		return this;
+	}
+
+	@Override
+	public MappedSupervisedSet copyOutputs(int from, int to, double[] destination, int offset) {
+		for (int index = from; index < to; index++, offset += this.outputsNum)
+			this.read(index, this.inputsNum, destination, offset, this.outputsNum);
+		return this;
+	}
+
+	public File getFile() {
+		return this.file;
+	}
+
+	public DataType getDataType() {
+		return this.dataType;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.data;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+class RowChunks implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	protected static final int INITIAL_ROWS = 16;
+
+	protected final int columnsNum;
+
+	protected final int chunkRows;
+
+	protected double[][] chunks = new double[0][];
+
+	protected int rowsNum;
+
+	RowChunks(int columnsNum, int chunkRows) {
+		if (chunkRows < 1)
+			throw new IllegalArgumentException("Must be greater than 0");
+		this.columnsNum = columnsNum;
+		this.chunkRows = chunkRows;
+	}
+
+	void add(double[] row) {
+		this.add(row, 0);
+	}
+
+	void add(double[] values, int valuesOffset) {
+		int chunk = this.rowsNum / this.chunkRows;
+		int offset = this.offsetOf(this.rowsNum);
+		if (chunk == this.chunks.length) {
+			this.chunks = Arrays.copyOf(this.chunks, chunk + 1);
+			this.chunks[chunk] = new double[Math.min(INITIAL_ROWS, this.chunkRows) * this.columnsNum];
+		} else if (offset == this.chunks[chunk].length)
+			this.chunks[chunk] = Arrays.copyOf(this.chunks[chunk], Math.min(this.chunks[chunk].length * 2, this.chunkRows * this.columnsNum));
+		System.arraycopy(values, valuesOffset, this.chunks[chunk], offset, this.columnsNum);
+		this.rowsNum++;
+	}
+
+	void moveAll(RowChunks rows) {
+		if (rows.columnsNum != this.columnsNum)
+			throw new IllegalArgumentException("Columns number does not match");
+		if (rows.chunkRows == this.chunkRows && this.rowsNum % this.chunkRows == 0) {
+			int chunksNum = (rows.rowsNum + rows.chunkRows - 1) / rows.chunkRows;
+			int start = this.rowsNum / this.chunkRows;
+			this.chunks = Arrays.copyOf(this.chunks, start + chunksNum);
+			System.arraycopy(rows.chunks, 0, this.chunks, start, chunksNum);
+			this.rowsNum += rows.rowsNum;
+		} else
+			for (int row = 0; row < rows.rowsNum; row++) {
+				int chunk = row / rows.chunkRows;
+				this.add(rows.chunks[chunk], rows.offsetOf(row));
+				if (row + 1 == rows.rowsNum || (row + 1) % rows.chunkRows == 0)
+					rows.chunks[chunk] = null;
+			}
+		rows.clear();
+	}
+
+	double[] get(int row) {
+		double[] values = new double[this.columnsNum];
+		System.arraycopy(this.chunkOf(row), this.offsetOf(row), values, 0, this.columnsNum);
+		return values;
+	}
+
+	void set(int row, double[] values) {
+		System.arraycopy(values, 0, this.chunkOf(row), this.offsetOf(row), this.columnsNum);
+	}
+
+	void remove(int row) {
+		this.checkIndex(row);
+		for (int next = row + 1; next < this.rowsNum; next++)
+			System.arraycopy(this.chunks[next / this.chunkRows], this.offsetOf(next), this.chunks[(next - 1) / this.chunkRows], this.offsetOf(next - 1), this.columnsNum);
+		this.rowsNum--;
+	}
+
+	void copy(int from, int to, double[] destination, int offset) {
+		if (from < 0 || to > this.rowsNum || from > to)
+			throw new IndexOutOfBoundsException("From: " + from + ", To: " + to + ", Size: " + this.rowsNum);
+		while (from < to) {
+			int end = Math.min(to, (from / this.chunkRows + 1) * this.chunkRows);
+			int length = (end - from) * this.columnsNum;
+			System.arraycopy(this.chunks[from / this.chunkRows], this.offsetOf(from), destination, offset, length);
+			offset += length;
+			from = end;
+		}
+	}
+
+	void clear() {
+		this.chunks = new double[0][];
+		this.rowsNum = 0;
+	}
+
+	double[] chunkOf(int row) {
+		this.checkIndex(row);
+		return this.chunks[row / this.chunkRows];
+	}
+
+	int offsetOf(int row) {
+		return (row % this.chunkRows) * this.columnsNum;
+	}
+
+	int size() {
+		return this.rowsNum;
+	}
+
+	protected void checkIndex(int row) {
+		if (row < 0 || row >= this.rowsNum)
+			throw new IndexOutOfBoundsException("Index: " + row + ", Size: " + this.rowsNum);
+	}
+}
\ No newline at end of file
@@ -29,10 +29,13 @@
  */
 package br.com.wfcreations.sannmf.data;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Vector;
+
+import br.com.wfcreations.sannmf.utils.FreezableList;
 
 public class SupervisedSet implements Serializable {
 
@@ -42,7 +45,7 @@ public class SupervisedSet implements Serializable {
 
 	protected int outputsNum;
 
-	protected List<SupervisedPattern> patterns = new Vector<SupervisedPattern>();
+	protected FreezableList<SupervisedPattern> patterns = new FreezableList<SupervisedPattern>(10, true);
 
 	public SupervisedSet(int inputsNum, int outputsNum) {
 		if (inputsNum < 1)
@@ -79,6 +82,34 @@ public class SupervisedSet implements Serializable {
 		return this.patterns.get(index);
 	}
 
+	public double[] getInputsArray(int index) {
+		return this.getPatternAt(index).getInputs();
+	}
+
+	public int getInputsOffset(int index) {
+		return 0;
+	}
+
+	public double[] getOutputsArray(int index) {
+		return this.getPatternAt(index).getOutputs();
+	}
+
+	public int getOutputsOffset(int index) {
+		return 0;
+	}
+
+	public SupervisedSet copyInputs(int from, int to, double[] destination, int offset) {
+		for (int index = from; index < to; index++, offset += this.inputsNum)
+			System.arraycopy(this.getInputsArray(index), this.getInputsOffset(index), destination, offset, this.inputsNum);
+		return this;
+	}
+
+	public SupervisedSet copyOutputs(int from, int to, double[] destination, int offset) {
+		for (int index = from; index < to; index++, offset += this.outputsNum)
+			System.arraycopy(this.getOutputsArray(index), this.getOutputsOffset(index), destination, offset, this.outputsNum);
+		return this;
+	}
+
 	public SupervisedSet clear() {
 		this.patterns.clear();
 		return this;
@@ -92,6 +123,15 @@ public class SupervisedSet implements Serializable {
 		return this.patterns.size();
 	}
 
+	public SupervisedSet freeze() {
+		this.patterns.freeze();
+		return this;
+	}
+
+	public boolean isFrozen() {
+		return this.patterns.isFrozen();
+	}
+
 	public int inputsNum() {
 		return inputsNum;
 	}
@@ -103,4 +143,11 @@ public class SupervisedSet implements Serializable {
 	public List<SupervisedPattern> getPatterns() {
 		return patterns;
 	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		ObjectInputStream.GetField fields = in.readFields();
+		this.inputsNum = fields.get("inputsNum", 0);
+		this.outputsNum = fields.get("outputsNum", 0);
+		this.patterns = FreezableList.valueOf(fields.get("patterns", null), true);
+	}
 }
\ No newline at end of file
@@ -29,10 +29,13 @@
  */
 package br.com.wfcreations.sannmf.data;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Vector;
+
+import br.com.wfcreations.sannmf.utils.FreezableList;
 
 public class UnsupervisedSet implements Serializable {
 
@@ -40,7 +43,7 @@ public class UnsupervisedSet implements Serializable {
 
 	protected int inputsNum;
 
-	protected List<UnsupervisedPattern> patterns = new Vector<UnsupervisedPattern>();
+	protected FreezableList<UnsupervisedPattern> patterns = new FreezableList<UnsupervisedPattern>(10, true);
 
 	public UnsupervisedSet(int inputsNum) {
 		if (inputsNum < 1)
@@ -72,6 +75,20 @@ public class UnsupervisedSet implements Serializable {
 		return this.patterns.get(index);
 	}
 
+	public double[] getInputsArray(int index) {
+		return this.getPatternAt(index).getInputs();
+	}
+
+	public int getInputsOffset(int index) {
+		return 0;
+	}
+
+	public UnsupervisedSet copyInputs(int from, int to, double[] destination, int offset) {
+		for (int index = from; index < to; index++, offset += this.inputsNum)
+			System.arraycopy(this.getInputsArray(index), this.getInputsOffset(index), destination, offset, this.inputsNum);
+		return this;
+	}
+
 	public UnsupervisedSet clear() {
 		this.patterns.clear();
 		return this;
@@ -85,6 +102,15 @@ public class UnsupervisedSet implements Serializable {
 		return this.patterns.size();
 	}
 
+	public UnsupervisedSet freeze() {
+		this.patterns.freeze();
+		return this;
+	}
+
+	public boolean isFrozen() {
+		return this.patterns.isFrozen();
+	}
+
 	public int inputsNum() {
 		return inputsNum;
 	}
@@ -92,4 +118,10 @@ public class UnsupervisedSet implements Serializable {
 	public List<UnsupervisedPattern> getPatterns() {
 		return patterns;
 	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		ObjectInputStream.GetField fields = in.readFields();
+		this.inputsNum = fields.get("inputsNum", 0);
+		this.patterns = FreezableList.valueOf(fields.get("patterns", null), true);
+	}
 }
\ No newline at end of file
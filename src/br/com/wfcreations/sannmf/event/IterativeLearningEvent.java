@@ -45,6 +45,8 @@ public class IterativeLearningEvent extends LearningEvent {
 
 	public static final String ITERATION = "iteration";
 
+	public static final String ITERATION_SUMMARY = "iterationSummary";
+
 	public IterativeLearningEvent(String type, IterativeLearning learRule) {
 		super(type, learRule);
 	}
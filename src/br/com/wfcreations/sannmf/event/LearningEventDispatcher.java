@@ -0,0 +1,288 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.event;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import br.com.wfcreations.observer.dispatcher.Event;
+import br.com.wfcreations.observer.dispatcher.EventDispatcher;
+import br.com.wfcreations.observer.dispatcher.IEventListener;
+import br.com.wfcreations.sannmf.learning.IterativeLearning;
+
+public class LearningEventDispatcher extends EventDispatcher {
+
+	protected static final Event WAKE_UP = new Event("wakeUp");
+
+	protected final Map<String, int[]> samplings = new HashMap<String, int[]>();
+
+	protected boolean coalescing;
+
+	protected int coalescedNum;
+
+	protected final Object listenersLock = new Object();
+
+	protected volatile Set<String> listenedTypes = Collections.emptySet();
+
+	protected volatile int bufferCapacity;
+
+	protected volatile BlockingQueue<Event> buffer;
+
+	protected Thread drainer;
+
+	protected final AtomicInteger pending = new AtomicInteger();
+
+	protected final AtomicLong droppedNum = new AtomicLong();
+
+	@Override
+	public void dispatchEvent(Event event) {
+		if (this.coalescing) {
+			if (IterativeLearningEvent.ITERATION.equals(event.type)) {
+				this.coalescedNum++;
+				return;
+			}
+			if (this.coalescedNum > 0 && isEpochBoundary(event.type) && event instanceof LearningEvent) {
+				int iterationsNum = this.coalescedNum;
+				this.coalescedNum = 0;
+				this.dispatchEvent(new IterationSummaryEvent((IterativeLearning) ((LearningEvent) event).getLearRule(), iterationsNum));
+			}
+		}
+		int[] sampling = this.samplings.get(event.type);
+		if (sampling != null && ++sampling[1] < sampling[0])
+			return;
+		if (sampling != null)
+			sampling[1] = 0;
+		if (this.bufferCapacity == 0)
+			this.dispatchToListeners(event);
+		else {
+			if (this.listenedTypes.contains(event.type)) {
+				BlockingQueue<Event> buffer = this.startDrainer();
+				this.pending.incrementAndGet();
+				if (!buffer.offer(event)) {
+					this.pending.decrementAndGet();
+					this.droppedNum.incrementAndGet();
+				}
+			}
+			if (LearningEvent.COMPLETE_LEARNING.equals(event.type))
+				this.releaseDrainer();
+		}
+	}
+
+	protected void dispatchToListeners(Event event) {
+		synchronized (this.listenersLock) {
+			super.dispatchEvent(event);
+		}
+	}
+
+	protected static boolean isEpochBoundary(String type) {
+		return IterativeLearningEvent.END_EPOCH.equals(type) || IterativeLearningEvent.STOP_LEARNING.equals(type) || LearningEvent.COMPLETE_LEARNING.equals(type);
+	}
+
+	protected static boolean isLifecycle(String type) {
+		return LearningEvent.INIT_LEARNING.equals(type) || LearningEvent.COMPLETE_LEARNING.equals(type) || IterativeLearningEvent.STOP_LEARNING.equals(type) || IterativeLearningEvent.PAUSE_LEARNING.equals(type) || IterativeLearningEvent.RESUME_LEARNING.equals(type);
+	}
+
+	@Override
+	public void addEventListener(String type, IEventListener listener, boolean useCapture, int priority) {
+		synchronized (this.listenersLock) {
+			super.addEventListener(type, listener, useCapture, priority);
+			this.updateListenedType(type);
+		}
+	}
+
+	@Override
+	public void removeEventListener(String type, IEventListener listener, boolean useCapture) {
+		synchronized (this.listenersLock) {
+			super.removeEventListener(type, listener, useCapture);
+			this.updateListenedType(type);
+		}
+	}
+
+	protected void updateListenedType(String type) {
+		Set<String> listenedTypes = new HashSet<String>(this.listenedTypes);
+		if (super.hasEventListener(type))
+			listenedTypes.add(type);
+		else
+			listenedTypes.remove(type);
+		this.listenedTypes = Collections.unmodifiableSet(listenedTypes);
+	}
+
+	@Override
+	public boolean hasEventListener(String type) {
+		Set<String> listenedTypes = this.listenedTypes;
+		if (listenedTypes.contains(type))
+			return true;
+		if (IterativeLearningEvent.ITERATION.equals(type))
+			return this.coalescing && listenedTypes.contains(IterativeLearningEvent.ITERATION_SUMMARY);
+		return false;
+	}
+
+	@Override
+	public boolean willTrigger(String type) {
+		synchronized (this.listenersLock) {
+			return super.willTrigger(type);
+		}
+	}
+
+	public int getSampling(String type) {
+		int[] sampling = this.samplings.get(type);
+		return sampling == null ? 1 : sampling[0];
+	}
+
+	public LearningEventDispatcher setSampling(String type, int interval) {
+		if (type == null)
+			throw new IllegalArgumentException("Event type can't be null");
+		if (interval <= 0)
+			throw new IllegalArgumentException("Must be greater than 0");
+		if (isLifecycle(type))
+			throw new IllegalArgumentException("Lifecycle events can't be sampled");
+		if (interval == 1)
+			this.samplings.remove(type);
+		else
+			this.samplings.put(type, new int[] { interval, 0 });
+		return this;
+	}
+
+	public boolean isCoalescing() {
+		return this.coalescing;
+	}
+
+	public LearningEventDispatcher setCoalescing(boolean coalescing) {
+		this.coalescing = coalescing;
+		this.coalescedNum = 0;
+		return this;
+	}
+
+	public boolean isAsynchronous() {
+		return this.bufferCapacity > 0;
+	}
+
+	public int getBufferCapacity() {
+		return this.bufferCapacity;
+	}
+
+	public synchronized LearningEventDispatcher setAsynchronous(int bufferCapacity) {
+		if (bufferCapacity < 0)
+			throw new IllegalArgumentException("Buffer capacity can't be negative");
+		this.releaseDrainer();
+		this.flush();
+		this.bufferCapacity = bufferCapacity;
+		return this;
+	}
+
+	public LearningEventDispatcher close() {
+		return this.setAsynchronous(0);
+	}
+
+	protected synchronized BlockingQueue<Event> startDrainer() {
+		if (this.buffer != null)
+			return this.buffer;
+		final BlockingQueue<Event> buffer = new ArrayBlockingQueue<Event>(this.bufferCapacity);
+		this.drainer = new Thread("SANNMF-event-dispatcher") {
+
+			// the previous run's drainer finishes first, so the trainer never waits for it
+			Thread previous = LearningEventDispatcher.this.drainer;
+
+			@Override
+			public void run() {
+				try {
+					if (this.previous != null)
+						this.previous.join();
+				} catch (InterruptedException e) {
+					return;
+				}
+				this.previous = null;
+				drain(buffer);
+			}
+		};
+		this.drainer.setDaemon(true);
+		this.buffer = buffer;
+		this.drainer.start();
+		return buffer;
+	}
+
+	protected synchronized void releaseDrainer() {
+		BlockingQueue<Event> buffer = this.buffer;
+		if (buffer == null)
+			return;
+		this.buffer = null;
+		buffer.offer(WAKE_UP);
+	}
+
+	protected void drain(BlockingQueue<Event> buffer) {
+		while (true) {
+			Event event;
+			try {
+				event = this.buffer == buffer ? buffer.take() : buffer.poll();
+			} catch (InterruptedException e) {
+				return;
+			}
+			if (event == null)
+				return;
+			if (event == WAKE_UP)
+				continue;
+			try {
+				this.dispatchToListeners(event);
+			} catch (RuntimeException e) {
+				Thread thread = Thread.currentThread();
+				thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+			} finally {
+				if (this.pending.decrementAndGet() == 0)
+					synchronized (this.pending) {
+						this.pending.notifyAll();
+					}
+			}
+		}
+	}
+
+	public LearningEventDispatcher flush() {
+		synchronized (this.pending) {
+			while (this.pending.get() > 0)
+				try {
+					this.pending.wait();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					break;
+				}
+		}
+		return this;
+	}
+
+	public long getDroppedNum() {
+		return this.droppedNum.get();
+	}
+}
\ No newline at end of file
@@ -63,6 +63,7 @@ public class Linear implements IDerivativeActivationFunction {
 
 	public Linear setSlope(double slope) {
 		this.slope = slope;
+		ActivationModifications.modified();
 		return this;
 	}
 }
\ No newline at end of file
@@ -44,8 +44,9 @@ public class Sigmoid extends OutputCachedActivationFunction implements IDerivati
 
 	@Override
 	public double output(double x) {
-		this.output = (1 / (1 + Math.exp(-this.slope * x)));
-		return this.output;
+		double output = (1 / (1 + Math.exp(-this.slope * x)));
+		this.output = output;
+		return output;
 	}
 
 	@Override
@@ -65,5 +66,6 @@ public class Sigmoid extends OutputCachedActivationFunction implements IDerivati
 
 	public void setSlope(double slope) {
 		this.slope = slope;
+		ActivationModifications.modified();
 	}
 }
\ No newline at end of file
@@ -46,8 +46,9 @@ public class Tanh extends OutputCachedActivationFunction implements IDerivativeA
 	public double output(double x) {
 		double exp1 = Math.exp(this.getSlope() * x);
 		double exp2 = Math.exp(-this.getSlope() * x);
-		this.output = (exp1 - exp2) / (exp1 + exp2);
-		return this.output;
+		double output = (exp1 - exp2) / (exp1 + exp2);
+		this.output = output;
+		return output;
 	}
 
 	@Override
@@ -67,6 +68,7 @@ public class Tanh extends OutputCachedActivationFunction implements IDerivativeA
 
 	public Tanh setSlope(double slope) {
 		this.slope = slope;
+		ActivationModifications.modified();
 		return this;
 	}
 }
\ No newline at end of file
@@ -29,7 +29,7 @@
  */
 package br.com.wfcreations.sannmf.function.error;
 
-public class MSE implements IErrorFunction {
+public class MSE implements IMergeableErrorFunction {
 
 	private static final long serialVersionUID = 1L;
 
@@ -56,6 +56,20 @@ public class MSE implements IErrorFunction {
 		return squareErrorSum;
 	}
 
+	@Override
+	public MSE newAccumulator() {
+		return new MSE();
+	}
+
+	@Override
+	public void merge(IMergeableErrorFunction accumulator) {
+		if (!(accumulator instanceof MSE))
+			throw new IllegalArgumentException("Accumulator should be a MSE");
+		MSE mse = (MSE) accumulator;
+		this.totalSquaredErrorSum += mse.totalSquaredErrorSum;
+		this.addedCount += mse.addedCount;
+	}
+
 	@Override
 	public void reset() {
 		this.totalSquaredErrorSum = 0;
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.kernel;
+
+public class ScalarKernel implements IKernel {
+
+	public static final String NAME = "scalar";
+
+	@Override
+	public String getName() {
+		return NAME;
+	}
+
+	@Override
+	public boolean isSupported() {
+		return true;
+	}
+
+	@Override
+	public double dot(double[] x, int xOffset, double[] y, int yOffset, int length) {
+		double sum = 0;
+		for (int i = 0; i < length; i++)
+			sum += x[xOffset + i] * y[yOffset + i];
+		return sum;
+	}
+
+	@Override
+	public double dot(float[] x, int xOffset, double[] y, int yOffset, int length) {
+		double sum = 0;
+		for (int i = 0; i < length; i++)
+			sum += x[xOffset + i] * y[yOffset + i];
+		return sum;
+	}
+
+	@Override
+	public float dot(float[] x, int xOffset, float[] y, int yOffset, int length) {
+		float sum = 0;
+		for (int i = 0; i < length; i++)
+			sum += x[xOffset + i] * y[yOffset + i];
+		return sum;
+	}
+
+	@Override
+	public int dot(byte[] x, int xOffset, byte[] y, int yOffset, int length) {
+		int sum = 0;
+		for (int i = 0; i < length; i++)
+			sum += x[xOffset + i] * y[yOffset + i];
+		return sum;
+	}
+
+	@Override
+	public void axpy(double alpha, double[] x, int xOffset, double[] y, int yOffset, int length) {
+		for (int i = 0; i < length; i++)
+			y[yOffset + i] += alpha * x[xOffset + i];
+	}
+
+	@Override
+	public void axpy(double alpha, float[] x, int xOffset, double[] y, int yOffset, int length) {
+		for (int i = 0; i < length; i++)
+			y[yOffset + i] += alpha * x[xOffset + i];
+	}
+
+	@Override
+	public void axpy(float alpha, float[] x, int xOffset, float[] y, int yOffset, int length) {
+		for (int i = 0; i < length; i++)
+			y[yOffset + i] += alpha * x[xOffset + i];
+	}
+}
\ No newline at end of file
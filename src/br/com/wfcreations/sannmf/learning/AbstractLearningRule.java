@@ -29,8 +29,8 @@
  */
 package br.com.wfcreations.sannmf.learning;
 
-import br.com.wfcreations.observer.dispatcher.EventDispatcher;
 import br.com.wfcreations.observer.dispatcher.IEventListener;
+import br.com.wfcreations.sannmf.event.LearningEventDispatcher;
 import br.com.wfcreations.sannmf.structure.INeuralNetwork;
 
 public abstract class AbstractLearningRule implements ILearningRule {
@@ -39,7 +39,7 @@ public abstract class AbstractLearningRule implements ILearningRule {
 
 	protected INeuralNetwork network;
 
-	protected EventDispatcher eventDispatcher = new EventDispatcher();
+	protected LearningEventDispatcher eventDispatcher = new LearningEventDispatcher();
 
 	@Override
 	public INeuralNetwork getNetwork() {
@@ -52,6 +52,10 @@ public abstract class AbstractLearningRule implements ILearningRule {
 		return this;
 	}
 
+	public LearningEventDispatcher getEventDispatcher() {
+		return this.eventDispatcher;
+	}
+
 	public void addEventListener(String type, IEventListener listener) {
 		this.eventDispatcher.addEventListener(type, listener);
 	}
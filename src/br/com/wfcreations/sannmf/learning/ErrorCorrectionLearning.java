@@ -29,9 +29,9 @@
  */
 package br.com.wfcreations.sannmf.learning;
 
-import java.util.Iterator;
 import java.util.List;
 
+import br.com.wfcreations.sannmf.compiled.CompiledNetwork;
 import br.com.wfcreations.sannmf.data.SupervisedPattern;
 import br.com.wfcreations.sannmf.data.SupervisedSet;
 import br.com.wfcreations.sannmf.event.IterativeLearningEvent;
@@ -41,13 +41,17 @@ import br.com.wfcreations.sannmf.structure.ILayer;
 import br.com.wfcreations.sannmf.structure.INeuralNetwork;
 import br.com.wfcreations.sannmf.structure.INeuron;
 import br.com.wfcreations.sannmf.structure.ISynapse;
+import br.com.wfcreations.sannmf.structure.feedforward.AbstractConnection;
 import br.com.wfcreations.sannmf.structure.feedforward.FeedforwardNeuralNetwork;
 import br.com.wfcreations.sannmf.structure.feedforward.IInputtedNeuron;
+import br.com.wfcreations.sannmf.structure.feedforward.ProcessorNeuron;
 
 public abstract class ErrorCorrectionLearning extends IterativeLearning implements ISupervisedLearning {
 
 	private static final long serialVersionUID = 1L;
 
+	public static final int EVALUATION_CHUNK = 4096;
+
 	protected SupervisedSet trainingData;
 
 	protected IErrorFunction errorFunction;
@@ -56,6 +60,12 @@ public abstract class ErrorCorrectionLearning extends IterativeLearning implemen
 
 	protected double previousEpochError;
 
+	protected transient double[] outputError;
+
+	protected transient double[] patternInputs;
+
+	protected transient double[] patternOutputs;
+
 	public ErrorCorrectionLearning(FeedforwardNeuralNetwork network, boolean batchMode, IErrorFunction errorFunction) {
 		this.setNetwork(network);
 		this.setErrorFunction(errorFunction);
@@ -82,6 +92,39 @@ public abstract class ErrorCorrectionLearning extends IterativeLearning implemen
 		start();
 	}
 
+	public double evaluateError(SupervisedSet testSet) {
+		if (testSet == null)
+			throw new IllegalArgumentException("Test Set can't be null");
+		CompiledNetwork compiled = ((FeedforwardNeuralNetwork) this.network).getCompiledNetwork();
+		int inputsNum = compiled.getInputsNum();
+		int outputsNum = compiled.getOutputsNum();
+		if (testSet.inputsNum() != inputsNum || testSet.outputsNum() != outputsNum)
+			throw new IllegalArgumentException("Test Set dimensions do not match network dimensions");
+
+		double errorSum = 0;
+		double[] outputError = new double[outputsNum];
+		int chunkRows = Math.min(EVALUATION_CHUNK, testSet.lenght());
+		double[] inputs = new double[chunkRows * inputsNum];
+		double[] outputs = new double[chunkRows * outputsNum];
+		double[] desiredOutputs = new double[chunkRows * outputsNum];
+		for (int start = 0; start < testSet.lenght(); start += EVALUATION_CHUNK) {
+			int rows = Math.min(EVALUATION_CHUNK, testSet.lenght() - start);
+			if (rows < chunkRows) {
+				inputs = new double[rows * inputsNum];
+				outputs = new double[rows * outputsNum];
+			}
+			testSet.copyInputs(start, start + rows, inputs, 0);
+			testSet.copyOutputs(start, start + rows, desiredOutputs, 0);
+			compiled.activateBatch(inputs, outputs);
+			for (int row = 0; row < rows; row++) {
+				for (int i = 0; i < outputsNum; i++)
+					outputError[i] = desiredOutputs[row * outputsNum + i] - outputs[row * outputsNum + i];
+				errorSum += this.errorFunction.getOutputError(outputError);
+			}
+		}
+		return errorSum / testSet.lenght();
+	}
+
 	public double getTotalNetworkError() {
 		return totalNetworkError;
 	}
@@ -131,11 +174,21 @@ public abstract class ErrorCorrectionLearning extends IterativeLearning implemen
 
 	@Override
 	protected void doLearningEpoch() {
-		Iterator<SupervisedPattern> iterator = this.trainingData.iterator();
-		while (iterator.hasNext() && !isStopped()) {
-			this.learnPattern(iterator.next());
-			eventDispatcher.dispatchEvent(new IterativeLearningEvent(IterativeLearningEvent.ITERATION, this));
+		int patternsNum = this.trainingData.lenght();
+		boolean miniBatchMode = this.isMiniBatchMode();
+		boolean iterationListened = this.hasEventListener(IterativeLearningEvent.ITERATION);
+		int pending = 0;
+		for (int index = 0; index < patternsNum && !isStopped(); index++) {
+			this.learnPattern(this.patternInputsAt(index), this.patternOutputsAt(index));
+			if (miniBatchMode && ++pending == this.batchSize) {
+				this.doBatchWeightsUpdate();
+				pending = 0;
+			}
+			if (iterationListened)
+				eventDispatcher.dispatchEvent(new IterativeLearningEvent(IterativeLearningEvent.ITERATION, this));
 		}
+		if (pending > 0)
+			this.doBatchWeightsUpdate();
 		this.totalNetworkError = getErrorFunction().getTotalError();
 	}
 
@@ -148,7 +201,15 @@ public abstract class ErrorCorrectionLearning extends IterativeLearning implemen
 		List<ILayer> layers = this.network.getLayers();
 		for (int i = this.network.getLayersNum() - 1; i > 0; i--)
 			for (INeuron neuron : layers.get(i).getNeurons())
-				if (neuron instanceof IInputtedNeuron)
+				if (neuron instanceof ProcessorNeuron) {
+					ProcessorNeuron processorNeuron = (ProcessorNeuron) neuron;
+					for (ISynapse synapse : processorNeuron.getInputSynapses()) {
+						synapse.incrementWeight(synapse.getWeightChange());
+						synapse.setWeightChange(0);
+					}
+					for (AbstractConnection connection : processorNeuron.getInputMatrices())
+						connection.applyWeightChanges(connection.indexOfPostsynaptic(processorNeuron));
+				} else if (neuron instanceof IInputtedNeuron)
 					for (ISynapse synapse : ((IInputtedNeuron) neuron).getInputConnections()) {
 						synapse.incrementWeight(synapse.getWeightChange());
 						synapse.setWeightChange(0);
@@ -156,17 +217,47 @@ public abstract class ErrorCorrectionLearning extends IterativeLearning implemen
 
 	}
 
+	protected double[] patternInputsAt(int index) {
+		double[] inputs = this.trainingData.getInputsArray(index);
+		int offset = this.trainingData.getInputsOffset(index);
+		int inputsNum = this.trainingData.inputsNum();
+		if (offset == 0 && inputs.length == inputsNum)
+			return inputs;
+		if (this.patternInputs == null || this.patternInputs.length != inputsNum)
+			this.patternInputs = new double[inputsNum];
+		System.arraycopy(inputs, offset, this.patternInputs, 0, inputsNum);
+		return this.patternInputs;
+	}
+
+	protected double[] patternOutputsAt(int index) {
+		double[] outputs = this.trainingData.getOutputsArray(index);
+		int offset = this.trainingData.getOutputsOffset(index);
+		int outputsNum = this.trainingData.outputsNum();
+		if (offset == 0 && outputs.length == outputsNum)
+			return outputs;
+		if (this.patternOutputs == null || this.patternOutputs.length != outputsNum)
+			this.patternOutputs = new double[outputsNum];
+		System.arraycopy(outputs, offset, this.patternOutputs, 0, outputsNum);
+		return this.patternOutputs;
+	}
+
 	protected void learnPattern(SupervisedPattern trainingElement) {
+		this.learnPattern(trainingElement.getInputs(), trainingElement.getOutputs());
+	}
+
+	protected void learnPattern(double[] inputs, double[] desiredOutputs) {
 		FeedforwardNeuralNetwork feedforwardNeuralNetwork = (FeedforwardNeuralNetwork) this.network;
-		feedforwardNeuralNetwork.setInput(trainingElement.getInputs());
+		feedforwardNeuralNetwork.setInput(inputs);
 		feedforwardNeuralNetwork.activate();
-		double[] outputError = this.calculateOutputError(trainingElement.getOutputs(), feedforwardNeuralNetwork.getOutput());
+		double[] outputError = this.calculateOutputError(desiredOutputs, feedforwardNeuralNetwork.getOutput());
 		this.errorFunction.addOutputsError(outputError);
 		this.updateNetworkWeights(outputError);
 	}
 
 	protected double[] calculateOutputError(double[] desiredOutput, double[] output) {
-		double[] outputError = new double[desiredOutput.length];
+		if (this.outputError == null || this.outputError.length != desiredOutput.length)
+			this.outputError = new double[desiredOutput.length];
+		double[] outputError = this.outputError;
 		for (int i = 0; i < output.length; i++)
 			outputError[i] = desiredOutput[i] - output[i];
 		return outputError;
@@ -44,6 +44,8 @@ public abstract class IterativeLearning extends AbstractLearningRule {
 
 	protected boolean batchMode;
 
+	protected int batchSize;
+
 	protected List<IStopCondition> stopConditions = new ArrayList<>();
 
 	protected transient volatile boolean stopped;
@@ -68,7 +70,7 @@ public abstract class IterativeLearning extends AbstractLearningRule {
 	}
 
 	public IterativeLearning stop() {
-		this.stopped = false;
+		this.stopped = true;
 		return this;
 	}
 
@@ -89,15 +91,31 @@ public abstract class IterativeLearning extends AbstractLearningRule {
 		return this;
 	}
 
+	public int getBatchSize() {
+		return this.batchSize;
+	}
+
+	public IterativeLearning setBatchSize(int batchSize) {
+		if (batchSize < 0)
+			throw new IllegalArgumentException("Batch size can't be negative");
+		this.batchSize = batchSize;
+		return this;
+	}
+
+	public boolean isMiniBatchMode() {
+		return this.batchMode && this.batchSize > 0;
+	}
+
 	protected IterativeLearning start() {
 		this.stopped = false;
+		this.onStart();
 		this.eventDispatcher.dispatchEvent(new IterativeLearningEvent(LearningEvent.INIT_LEARNING, this));
 		while (!this.isStopped()) {
 			this.onBeforeEpoch();
 			this.eventDispatcher.dispatchEvent(new IterativeLearningEvent(IterativeLearningEvent.START_EPOCH, this));
 			this.doLearningEpoch();
 			this.currentEpoch++;
-			if (this.batchMode == true)
+			if (this.batchMode == true && !this.isMiniBatchMode())
 				this.doBatchWeightsUpdate();
 			this.onAfterEpoch();
 			this.eventDispatcher.dispatchEvent(new IterativeLearningEvent(IterativeLearningEvent.END_EPOCH, this));
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.learning.algorithms;
+
+import br.com.wfcreations.sannmf.compiled.CompiledNetwork;
+import br.com.wfcreations.sannmf.compiled.Precision;
+import br.com.wfcreations.sannmf.neuralnetwork.MLP;
+import br.com.wfcreations.sannmf.structure.feedforward.FeedforwardNeuralNetwork;
+
+public abstract class AbstractCompiledBackpropagation extends Backpropagation {
+
+	private static final long serialVersionUID = 1L;
+
+	protected Precision precision = Precision.DOUBLE;
+
+	protected transient CompiledNetwork compiledNetwork;
+
+	public AbstractCompiledBackpropagation(MLP network, double learnRate, boolean batchMode) {
+		super(network, learnRate, batchMode);
+	}
+
+	public Precision getPrecision() {
+		return this.precision;
+	}
+
+	public AbstractCompiledBackpropagation setPrecision(Precision precision) {
+		if (precision == null)
+			throw new IllegalArgumentException("Precision can't be null");
+		if (precision.hasFloatActivations())
+			throw new IllegalArgumentException("Training requires double precision activations");
+		this.precision = precision;
+		return this;
+	}
+
+	public CompiledNetwork getCompiledNetwork() {
+		return this.compiledNetwork;
+	}
+
+	@Override
+	protected void onStart() {
+		super.onStart();
+		this.compiledNetwork = ((FeedforwardNeuralNetwork) this.network).compile(this.precision);
+	}
+
+	@Override
+	protected DeltaRule prepareMoments() {
+		return this;
+	}
+}
\ No newline at end of file
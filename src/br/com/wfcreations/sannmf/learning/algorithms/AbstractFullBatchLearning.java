@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.learning.algorithms;
+
+import java.util.Arrays;
+
+import br.com.wfcreations.sannmf.SANNMF;
+import br.com.wfcreations.sannmf.compiled.CompiledNetwork;
+import br.com.wfcreations.sannmf.compiled.TrainingSession;
+import br.com.wfcreations.sannmf.event.IterativeLearningEvent;
+import br.com.wfcreations.sannmf.function.error.IErrorFunction;
+import br.com.wfcreations.sannmf.function.error.MSE;
+import br.com.wfcreations.sannmf.learning.ErrorCorrectionLearning;
+import br.com.wfcreations.sannmf.neuralnetwork.MLP;
+import br.com.wfcreations.sannmf.structure.feedforward.FeedforwardNeuralNetwork;
+
+public abstract class AbstractFullBatchLearning extends ErrorCorrectionLearning implements IShardedLearning {
+
+	private static final long serialVersionUID = 1L;
+
+	protected int threadsNum;
+
+	protected transient CompiledNetwork compiledNetwork;
+
+	protected transient TrainingSession[] sessions;
+
+	protected transient double[][] outputs;
+
+	protected transient double[][] outputErrors;
+
+	protected transient double[] shardErrors;
+
+	protected transient boolean evaluateGradient;
+
+	public AbstractFullBatchLearning(MLP network) {
+		super(network, true, new MSE());
+		this.setThreadsNum(SANNMF.getForkJoinPool().getParallelism());
+	}
+
+	@Override
+	public AbstractFullBatchLearning setBatchMode(boolean batchMode) {
+		if (!batchMode)
+			throw new IllegalArgumentException("Full batch learning only supports batch mode");
+		super.setBatchMode(batchMode);
+		return this;
+	}
+
+	@Override
+	public AbstractFullBatchLearning setBatchSize(int batchSize) {
+		if (batchSize != 0)
+			throw new IllegalArgumentException("Full batch learning only supports full batches");
+		super.setBatchSize(batchSize);
+		return this;
+	}
+
+	@Override
+	public AbstractFullBatchLearning setErrorFunction(IErrorFunction errorFunction) {
+		if (!(errorFunction instanceof MSE))
+			throw new IllegalArgumentException("Error function should be a MSE");
+		super.setErrorFunction(errorFunction);
+		return this;
+	}
+
+	public int getThreadsNum() {
+		return this.threadsNum;
+	}
+
+	public AbstractFullBatchLearning setThreadsNum(int threadsNum) {
+		if (threadsNum <= 0)
+			throw new IllegalArgumentException("Must be greater than 0");
+		this.threadsNum = threadsNum;
+		return this;
+	}
+
+	public CompiledNetwork getCompiledNetwork() {
+		return this.compiledNetwork;
+	}
+
+	@Override
+	protected void onStart() {
+		super.onStart();
+		this.compiledNetwork = ((FeedforwardNeuralNetwork) this.network).compile();
+		int outputsNum = this.compiledNetwork.getOutputsNum();
+		this.sessions = new TrainingSession[this.threadsNum];
+		for (int i = 0; i < this.threadsNum; i++)
+			this.sessions[i] = new TrainingSession(this.compiledNetwork);
+		this.outputs = new double[this.threadsNum][outputsNum];
+		this.outputErrors = new double[this.threadsNum][outputsNum];
+		this.shardErrors = new double[this.threadsNum];
+	}
+
+	@Override
+	protected void doLearningEpoch() {
+		int patternsNum = this.trainingData.lenght();
+		if (patternsNum == 0) {
+			// nothing to fit, so there is no gradient to follow
+			this.totalNetworkError = 0;
+			this.stop();
+			return;
+		}
+		double errorSum = this.iterate();
+		this.compiledNetwork.writeBack();
+		this.totalNetworkError = errorSum / patternsNum;
+		if (this.hasEventListener(IterativeLearningEvent.ITERATION))
+			for (int i = 0; i < patternsNum; i++)
+				this.eventDispatcher.dispatchEvent(new IterativeLearningEvent(IterativeLearningEvent.ITERATION, this));
+	}
+
+	// returns the error sum of the parameters the iteration started from, as the online trainers report
+	protected abstract double iterate();
+
+	protected double evaluate(double[] gradient) {
+		int patternsNum = this.trainingData.lenght();
+		int shards = Math.min(this.sessions.length, patternsNum);
+		this.evaluateGradient = gradient != null;
+		if (shards == 1)
+			this.processShard(0, 0, patternsNum, 0);
+		else if (shards > 1)
+			SANNMF.getForkJoinPool().invoke(new GradientShardTask(this, 0, patternsNum, 0, shards, shards));
+
+		double errorSum = 0;
+		for (int shard = 0; shard < shards; shard++)
+			errorSum += this.shardErrors[shard];
+		if (gradient != null) {
+			Arrays.fill(gradient, 0);
+			for (int shard = 0; shard < shards; shard++) {
+				SANNMF.getKernel().axpy(-1, this.sessions[shard].getWeightChanges(), 0, gradient, 0, gradient.length);
+				this.sessions[shard].clear();
+			}
+			this.compiledNetwork.maskAbsentWeights(gradient);
+		}
+		return errorSum;
+	}
+
+	@Override
+	public void processShard(int shard, int from, int to, int offset) {
+		TrainingSession session = this.sessions[shard];
+		double[] outputs = this.outputs[shard];
+		double[] outputError = this.outputErrors[shard];
+		double errorSum = 0;
+		for (int index = from; index < to; index++) {
+			if (this.evaluateGradient)
+				session.accumulate(this.trainingData, index, outputError, 0);
+			else {
+				double[] desiredOutputs = this.trainingData.getOutputsArray(index);
+				int desiredOffset = this.trainingData.getOutputsOffset(index);
+				session.activate(this.trainingData.getInputsArray(index), this.trainingData.getInputsOffset(index), outputs);
+				for (int i = 0; i < outputs.length; i++)
+					outputError[i] = desiredOutputs[desiredOffset + i] - outputs[i];
+			}
+			errorSum += this.errorFunction.getOutputError(outputError);
+		}
+		this.shardErrors[shard] = errorSum;
+	}
+
+	protected double[] getParameters() {
+		return this.compiledNetwork.getParameters();
+	}
+
+	protected void moveParameters(double[] origin, double stepSize, double[] direction) {
+		double[] parameters = this.getParameters();
+		System.arraycopy(origin, 0, parameters, 0, parameters.length);
+		SANNMF.getKernel().axpy(stepSize, direction, 0, parameters, 0, parameters.length);
+		this.compiledNetwork.maskAbsentWeights(parameters);
+	}
+
+	protected static double dot(double[] x, double[] y) {
+		return SANNMF.getKernel().dot(x, 0, y, 0, x.length);
+	}
+
+	@Override
+	protected void doBatchWeightsUpdate() {
+	}
+
+	@Override
+	protected AbstractFullBatchLearning updateNetworkWeights(double[] outputError) {
+		// weights are only updated once per epoch by doLearningEpoch
+		return this;
+	}
+}
\ No newline at end of file
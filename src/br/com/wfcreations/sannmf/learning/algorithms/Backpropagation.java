@@ -29,13 +29,22 @@
  */
 package br.com.wfcreations.sannmf.learning.algorithms;
 
+import java.util.List;
+
+import br.com.wfcreations.sannmf.SANNMF;
+import br.com.wfcreations.sannmf.compiled.CompiledNetwork;
 import br.com.wfcreations.sannmf.function.activation.IDerivativeActivationFunction;
 import br.com.wfcreations.sannmf.neuralnetwork.MLP;
+import br.com.wfcreations.sannmf.structure.ILayer;
 import br.com.wfcreations.sannmf.structure.INeuron;
+import br.com.wfcreations.sannmf.structure.ISynapse;
+import br.com.wfcreations.sannmf.structure.feedforward.AbstractConnection;
 import br.com.wfcreations.sannmf.structure.feedforward.ErrorNeuron;
 import br.com.wfcreations.sannmf.structure.feedforward.FeedforwardNeuralNetwork;
 import br.com.wfcreations.sannmf.structure.feedforward.IOutputtedNeuron;
+import br.com.wfcreations.sannmf.structure.feedforward.ProcessorLayer;
 import br.com.wfcreations.sannmf.structure.feedforward.ProcessorNeuron;
+import br.com.wfcreations.sannmf.utils.LayerUtils;
 
 public class Backpropagation extends DeltaRule {
 
@@ -74,19 +83,60 @@ public class Backpropagation extends DeltaRule {
 	}
 
 	protected Backpropagation calculateErrorAndUpdateHiddenNeurons() {
-		for (int i = this.network.getLayersNum() - 2; i > 0; i--)
-			for (INeuron neuron : this.network.getLayerAt(i).getNeurons())
-				if (neuron instanceof ErrorNeuron) {
-					ErrorNeuron errorNeuron = (ErrorNeuron) neuron;
-					this.updateNeuronWeights(errorNeuron.setError(this.calculateHiddenNeuronError(errorNeuron)));
-				}
+		for (int i = this.network.getLayersNum() - 2; i > 0; i--) {
+			ILayer layer = this.network.getLayerAt(i);
+			if (layer instanceof ProcessorLayer && ((ProcessorLayer) layer).isParallel(layer.getNeuronsNum())) {
+				List<ErrorNeuron> neurons = LayerUtils.getErrorNeurons(layer);
+				for (ErrorNeuron neuron : neurons)
+					for (AbstractConnection connection : neuron.getInputMatrices())
+						connection.getWeightChanges();
+				SANNMF.getForkJoinPool().invoke(new HiddenLayerTask(this, neurons.toArray(new ErrorNeuron[neurons.size()])));
+				continue;
+			}
+			List<INeuron> neurons = layer.getNeurons();
+			for (int n = 0; n < neurons.size(); n++)
+				if (neurons.get(n) instanceof ErrorNeuron)
+					this.updateHiddenNeuron((ErrorNeuron) neurons.get(n));
+		}
+		return this;
+	}
+
+	protected Backpropagation updateHiddenNeuron(ErrorNeuron neuron) {
+		this.updateNeuronWeights(neuron.setError(this.calculateHiddenNeuronError(neuron)));
+		return this;
+	}
+
+	@Override
+	protected double errorGradient(ErrorNeuron neuron) {
+		return neuron.getError();
+	}
+
+	protected Backpropagation applyCompiledWeightChanges(CompiledNetwork compiledNetwork, double[] weightChanges) {
+		if (this.optimizer.isStateless())
+			return this.applyCompiledWeightChanges(compiledNetwork, weightChanges, this.step);
+		if (this.moments == null)
+			this.moments = this.newMoments(weightChanges.length);
+		return this.applyCompiledWeightChanges(compiledNetwork, weightChanges, ++this.step);
+	}
+
+	protected Backpropagation applyCompiledWeightChanges(CompiledNetwork compiledNetwork, double[] weightChanges, int step) {
+		if (this.optimizer.isStateless()) {
+			compiledNetwork.drainWeightChanges(weightChanges, this.learningRate);
+			return this;
+		}
+		this.optimizer.weightChanges(weightChanges, 0, this.learningRate, this.moments, 0, weightChanges.length, step);
+		compiledNetwork.drainWeightChanges(weightChanges, 1);
 		return this;
 	}
 
 	protected double calculateHiddenNeuronError(ProcessorNeuron neuron) {
 		double deltaSum = 0d;
-		for (int i = 1; i < neuron.getOutputsNum(); i++)
-			deltaSum += ((ErrorNeuron) neuron.getOutputConnectionAt(i).getPostsynaptic()).getError() * neuron.getOutputConnectionAt(i).getWeight();
+		List<ISynapse> synapses = neuron.getOutputSynapses();
+		for (int i = 0; i < synapses.size(); i++)
+			deltaSum += ((ErrorNeuron) synapses.get(i).getPostsynaptic()).getError() * synapses.get(i).getWeight();
+		List<AbstractConnection> connections = neuron.getOutputMatrices();
+		for (int i = 0; i < connections.size(); i++)
+			deltaSum += connections.get(i).errorSum(connections.get(i).indexOfPresynaptic(neuron));
 		IDerivativeActivationFunction transferFunction = (IDerivativeActivationFunction) neuron.getActivationFunction();
 		return transferFunction.derivative(neuron.getInducedLocalField()) * deltaSum;
 	}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.learning.algorithms;
+
+import br.com.wfcreations.sannmf.compiled.TrainingSession;
+import br.com.wfcreations.sannmf.event.IterativeLearningEvent;
+import br.com.wfcreations.sannmf.neuralnetwork.MLP;
+
+public class CompiledBackpropagation extends AbstractCompiledBackpropagation {
+
+	private static final long serialVersionUID = 1L;
+
+	protected transient TrainingSession session;
+
+	public CompiledBackpropagation(MLP network, double learnRate, boolean batchMode) {
+		super(network, learnRate, batchMode);
+	}
+
+	@Override
+	protected void onStart() {
+		super.onStart();
+		this.session = new TrainingSession(this.compiledNetwork);
+		this.outputError = new double[this.compiledNetwork.getOutputsNum()];
+	}
+
+	@Override
+	protected void doLearningEpoch() {
+		int patternsNum = this.trainingData.lenght();
+		boolean miniBatchMode = this.isMiniBatchMode();
+		double[] weightChanges = this.session.getWeightChanges();
+		boolean iterationListened = this.hasEventListener(IterativeLearningEvent.ITERATION);
+		int pending = 0;
+		for (int index = 0; index < patternsNum && !this.isStopped(); index++) {
+			this.session.accumulate(this.trainingData, index, this.outputError, 0);
+			this.errorFunction.addOutputsError(this.outputError);
+			if (!this.batchMode || (miniBatchMode && ++pending == this.batchSize)) {
+				this.applyCompiledWeightChanges(this.compiledNetwork, weightChanges);
+				pending = 0;
+			}
+			if (iterationListened)
+				this.eventDispatcher.dispatchEvent(new IterativeLearningEvent(IterativeLearningEvent.ITERATION, this));
+		}
+		if (pending > 0)
+			this.doBatchWeightsUpdate();
+		this.totalNetworkError = this.errorFunction.getTotalError();
+	}
+
+	@Override
+	protected void doBatchWeightsUpdate() {
+		this.applyCompiledWeightChanges(this.compiledNetwork, this.session.getWeightChanges());
+	}
+
+	@Override
+	protected void onStop() {
+		super.onStop();
+		this.compiledNetwork.writeBack();
+	}
+}
\ No newline at end of file
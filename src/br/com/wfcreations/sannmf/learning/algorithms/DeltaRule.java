@@ -29,14 +29,26 @@
  */
 package br.com.wfcreations.sannmf.learning.algorithms;
 
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
 import br.com.wfcreations.sannmf.function.activation.IDerivativeActivationFunction;
 import br.com.wfcreations.sannmf.function.error.MSE;
 import br.com.wfcreations.sannmf.learning.ErrorCorrectionLearning;
+import br.com.wfcreations.sannmf.learning.optimizer.IOptimizer;
+import br.com.wfcreations.sannmf.learning.optimizer.SGD;
+import br.com.wfcreations.sannmf.learning.schedule.ILearningRateSchedule;
+import br.com.wfcreations.sannmf.structure.INeuron;
 import br.com.wfcreations.sannmf.structure.ISynapse;
+import br.com.wfcreations.sannmf.structure.feedforward.AbstractConnection;
 import br.com.wfcreations.sannmf.structure.feedforward.AbstractOutputNeuron;
 import br.com.wfcreations.sannmf.structure.feedforward.ErrorNeuron;
 import br.com.wfcreations.sannmf.structure.feedforward.FeedforwardNeuralNetwork;
+import br.com.wfcreations.sannmf.structure.feedforward.IInputtedNeuron;
 import br.com.wfcreations.sannmf.structure.feedforward.IOutputtedNeuron;
+import br.com.wfcreations.sannmf.structure.feedforward.ProcessorNeuron;
 
 public class DeltaRule extends ErrorCorrectionLearning {
 
@@ -44,11 +56,57 @@ public class DeltaRule extends ErrorCorrectionLearning {
 
 	protected double learningRate = 0.1;
 
+	protected double initialLearningRate = 0.1;
+
+	protected ILearningRateSchedule learningRateSchedule;
+
+	protected IOptimizer optimizer = new SGD();
+
+	protected transient double[][] moments;
+
+	protected transient Map<INeuron, Integer> momentOffsets;
+
+	protected transient int step;
+
+	protected transient int startEpoch;
+
+	protected transient int epochPatterns;
+
 	public DeltaRule(FeedforwardNeuralNetwork network, double learnRate, boolean batchMode) {
 		super(network, batchMode, new MSE());
 		this.setLearningRate(learnRate);
 	}
 
+	@Override
+	protected void onStart() {
+		super.onStart();
+		this.step = 0;
+		this.moments = null;
+		this.prepareMoments();
+		if (this.batchMode)
+			this.clearWeightChanges();
+		this.startEpoch = this.currentEpoch;
+		if (this.learningRateSchedule != null)
+			this.learningRateSchedule.reset();
+	}
+
+	@Override
+	protected void onBeforeEpoch() {
+		super.onBeforeEpoch();
+		this.epochPatterns = 0;
+		this.updateLearningRate(this.currentEpoch - this.startEpoch);
+	}
+
+	@Override
+	protected void learnPattern(double[] inputs, double[] desiredOutputs) {
+		this.epochPatterns++;
+		if (!this.batchMode) {
+			this.prepareMoments();
+			this.step++;
+		}
+		super.learnPattern(inputs, desiredOutputs);
+	}
+
 	@Override
 	protected DeltaRule updateNetworkWeights(double[] outputError) {
 		int i = 0;
@@ -59,18 +117,131 @@ public class DeltaRule extends ErrorCorrectionLearning {
 	}
 
 	protected DeltaRule updateNeuronWeights(ErrorNeuron neuron) {
-		for (ISynapse synapse : neuron.getInputConnections()) {
-			double weightChange = weightChange(neuron, synapse);
+		double gradient = this.errorGradient(neuron);
+		int momentOffset = this.momentOffsetOf(neuron);
+		List<ISynapse> synapses = neuron.getInputSynapses();
+		for (int i = 0; i < synapses.size(); i++) {
+			ISynapse synapse = synapses.get(i);
+			double weightGradient = gradient * ((AbstractOutputNeuron) synapse.getPresynaptic()).getOutput();
 			if (this.batchMode)
-				synapse.setWeightChange(synapse.getWeightChange() + weightChange);
-			else
+				synapse.setWeightChange(synapse.getWeightChange() + weightGradient);
+			else {
+				double weightChange = this.optimizer.weightChange(weightGradient, this.learningRate, this.moments, momentOffset + i, this.step);
 				synapse.setWeightChange(weightChange).incrementWeight(weightChange);
+			}
+		}
+		momentOffset += synapses.size();
+		List<AbstractConnection> connections = neuron.getInputMatrices();
+		for (int i = 0; i < connections.size(); i++) {
+			AbstractConnection connection = connections.get(i);
+			int row = connection.indexOfPostsynaptic(neuron);
+			if (this.batchMode)
+				connection.addWeightChanges(row, gradient);
+			else if (this.optimizer.isStateless())
+				connection.changeWeights(row, this.learningRate * gradient);
+			else
+				connection.addWeightChanges(row, gradient).applyWeightChanges(row, this.optimizer, this.learningRate, this.moments, momentOffset, this.step);
+			momentOffset += connection.getRowLength(row);
 		}
 		return this;
 	}
 
-	protected double weightChange(ErrorNeuron neuron, ISynapse synapse) {
-		return this.learningRate * neuron.getError() * ((IDerivativeActivationFunction) neuron.getActivationFunction()).derivative(neuron.getInducedLocalField()) * ((AbstractOutputNeuron) synapse.getPresynaptic()).getOutput();
+	@Override
+	protected void doBatchWeightsUpdate() {
+		this.prepareMoments();
+		this.step++;
+		for (int i = this.network.getLayersNum() - 1; i > 0; i--) {
+			List<INeuron> neurons = this.network.getLayerAt(i).getNeurons();
+			for (int n = 0; n < neurons.size(); n++) {
+				INeuron neuron = neurons.get(n);
+				if (neuron instanceof ProcessorNeuron) {
+					ProcessorNeuron processorNeuron = (ProcessorNeuron) neuron;
+					int momentOffset = this.momentOffsetOf(processorNeuron);
+					List<ISynapse> synapses = processorNeuron.getInputSynapses();
+					for (int s = 0; s < synapses.size(); s++) {
+						ISynapse synapse = synapses.get(s);
+						synapse.incrementWeight(this.optimizer.weightChange(synapse.getWeightChange(), this.learningRate, this.moments, momentOffset++, this.step));
+						synapse.setWeightChange(0);
+					}
+					List<AbstractConnection> connections = processorNeuron.getInputMatrices();
+					for (int c = 0; c < connections.size(); c++) {
+						AbstractConnection connection = connections.get(c);
+						int row = connection.indexOfPostsynaptic(processorNeuron);
+						connection.applyWeightChanges(row, this.optimizer, this.learningRate, this.moments, momentOffset, this.step);
+						momentOffset += connection.getRowLength(row);
+					}
+				} else if (neuron instanceof IInputtedNeuron)
+					for (ISynapse synapse : ((IInputtedNeuron) neuron).getInputConnections()) {
+						synapse.incrementWeight(synapse.getWeightChange());
+						synapse.setWeightChange(0);
+					}
+			}
+		}
+		if (this.isMiniBatchMode() && this.epochPatterns < this.trainingData.lenght())
+			this.updateLearningRate(this.currentEpoch - this.startEpoch + (double) this.epochPatterns / this.trainingData.lenght());
+	}
+
+	protected DeltaRule updateLearningRate(double epoch) {
+		if (this.learningRateSchedule != null) {
+			double learningRate = this.learningRateSchedule.getLearningRate(this, this.initialLearningRate, epoch);
+			if (learningRate > 0)
+				this.learningRate = learningRate;
+		}
+		return this;
+	}
+
+	protected DeltaRule clearWeightChanges() {
+		for (int i = 1; i < this.network.getLayersNum(); i++)
+			for (INeuron neuron : this.network.getLayerAt(i).getNeurons())
+				if (neuron instanceof ProcessorNeuron) {
+					for (ISynapse synapse : ((ProcessorNeuron) neuron).getInputSynapses())
+						synapse.setWeightChange(0);
+					for (AbstractConnection connection : ((ProcessorNeuron) neuron).getInputMatrices())
+						Arrays.fill(connection.getWeightChanges(), 0);
+				}
+		return this;
+	}
+
+	protected DeltaRule prepareMoments() {
+		if (this.moments != null || this.getMomentsNum() == 0)
+			return this;
+		Map<INeuron, Integer> momentOffsets = new IdentityHashMap<INeuron, Integer>();
+		int size = 0;
+		for (int i = 1; i < this.network.getLayersNum(); i++)
+			for (INeuron neuron : this.network.getLayerAt(i).getNeurons())
+				if (neuron instanceof ProcessorNeuron) {
+					ProcessorNeuron processorNeuron = (ProcessorNeuron) neuron;
+					momentOffsets.put(neuron, size);
+					size += processorNeuron.getInputSynapses().size();
+					for (AbstractConnection connection : processorNeuron.getInputMatrices())
+						size += connection.getRowLength(connection.indexOfPostsynaptic(processorNeuron));
+				}
+		this.momentOffsets = momentOffsets;
+		this.moments = this.newMoments(size);
+		return this;
+	}
+
+	protected double[][] newMoments(int size) {
+		if (this.getMomentsNum() == 0)
+			return null;
+		return new double[this.getMomentsNum()][size];
+	}
+
+	protected int getMomentsNum() {
+		return this.optimizer.getMomentsNum();
+	}
+
+	protected int momentOffsetOf(INeuron neuron) {
+		if (this.momentOffsets == null)
+			return 0;
+		Integer offset = this.momentOffsets.get(neuron);
+		if (offset == null)
+			throw new IllegalStateException("Network topology has changed since learning started");
+		return offset;
+	}
+
+	protected double errorGradient(ErrorNeuron neuron) {
+		return neuron.getError() * ((IDerivativeActivationFunction) neuron.getActivationFunction()).derivative(neuron.getInducedLocalField());
 	}
 
 	public double getLearningRate() {
@@ -80,7 +251,35 @@ public class DeltaRule extends ErrorCorrectionLearning {
 	public DeltaRule setLearningRate(double learningRate) {
 		if (learningRate <= 0)
 			throw new IllegalArgumentException("Must be greater than 0");
-		this.learningRate = learningRate;
+		this.learningRate = this.initialLearningRate = learningRate;
+		return this;
+	}
+
+	public double getInitialLearningRate() {
+		return this.initialLearningRate;
+	}
+
+	public ILearningRateSchedule getLearningRateSchedule() {
+		return this.learningRateSchedule;
+	}
+
+	public DeltaRule setLearningRateSchedule(ILearningRateSchedule learningRateSchedule) {
+		this.learningRateSchedule = learningRateSchedule;
+		if (learningRateSchedule == null)
+			this.learningRate = this.initialLearningRate;
+		return this;
+	}
+
+	public IOptimizer getOptimizer() {
+		return this.optimizer;
+	}
+
+	public DeltaRule setOptimizer(IOptimizer optimizer) {
+		if (optimizer == null)
+			throw new IllegalArgumentException("Optimizer can't be null");
+		this.optimizer = optimizer;
+		this.moments = null;
+		this.momentOffsets = null;
 		return this;
 	}
 }
\ No newline at end of file
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.learning.algorithms;
+
+import java.util.concurrent.RecursiveAction;
+
+public class GradientShardTask extends RecursiveAction {
+
+	private static final long serialVersionUID = 1L;
+
+	protected final IShardedLearning learning;
+
+	protected final int start;
+
+	protected final int end;
+
+	protected final int fromShard;
+
+	protected final int toShard;
+
+	protected final int shardsNum;
+
+	public GradientShardTask(IShardedLearning learning, int start, int end, int fromShard, int toShard, int shardsNum) {
+		this.learning = learning;
+		this.start = start;
+		this.end = end;
+		this.fromShard = fromShard;
+		this.toShard = toShard;
+		this.shardsNum = shardsNum;
+	}
+
+	@Override
+	protected void compute() {
+		if (this.toShard - this.fromShard > 1) {
+			int middle = (this.fromShard + this.toShard) >>> 1;
+			invokeAll(new GradientShardTask(this.learning, this.start, this.end, this.fromShard, middle, this.shardsNum), new GradientShardTask(this.learning, this.start, this.end, middle, this.toShard, this.shardsNum));
+			return;
+		}
+		long patternsNum = this.end - this.start;
+		int from = this.start + (int) (patternsNum * this.fromShard / this.shardsNum);
+		int to = this.start + (int) (patternsNum * (this.fromShard + 1) / this.shardsNum);
+		this.learning.processShard(this.fromShard, from, to, this.start);
+	}
+}
\ No newline at end of file
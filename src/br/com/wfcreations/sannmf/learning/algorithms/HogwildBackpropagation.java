@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.learning.algorithms;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import br.com.wfcreations.sannmf.SANNMF;
+import br.com.wfcreations.sannmf.compiled.TrainingSession;
+import br.com.wfcreations.sannmf.event.IterativeLearningEvent;
+import br.com.wfcreations.sannmf.function.error.IErrorFunction;
+import br.com.wfcreations.sannmf.function.error.IMergeableErrorFunction;
+import br.com.wfcreations.sannmf.neuralnetwork.MLP;
+
+public class HogwildBackpropagation extends AbstractCompiledBackpropagation implements IShardedLearning {
+
+	private static final long serialVersionUID = 1L;
+
+	protected int threadsNum;
+
+	protected transient TrainingSession[] sessions;
+
+	protected transient IMergeableErrorFunction[] accumulators;
+
+	protected transient double[][] outputErrors;
+
+	protected transient AtomicInteger steps;
+
+	public HogwildBackpropagation(MLP network, double learnRate) {
+		this(network, learnRate, SANNMF.getForkJoinPool().getParallelism());
+	}
+
+	public HogwildBackpropagation(MLP network, double learnRate, int threadsNum) {
+		super(network, learnRate, false);
+		this.setThreadsNum(threadsNum);
+	}
+
+	@Override
+	public HogwildBackpropagation setBatchMode(boolean batchMode) {
+		if (batchMode)
+			throw new IllegalArgumentException("Hogwild backpropagation only supports online mode");
+		super.setBatchMode(batchMode);
+		return this;
+	}
+
+	@Override
+	public HogwildBackpropagation setErrorFunction(IErrorFunction errorFunction) {
+		if (!(errorFunction instanceof IMergeableErrorFunction))
+			throw new IllegalArgumentException("Error function should be mergeable");
+		super.setErrorFunction(errorFunction);
+		return this;
+	}
+
+	public int getThreadsNum() {
+		return this.threadsNum;
+	}
+
+	public HogwildBackpropagation setThreadsNum(int threadsNum) {
+		if (threadsNum <= 0)
+			throw new IllegalArgumentException("Must be greater than 0");
+		this.threadsNum = threadsNum;
+		this.sessions = null;
+		return this;
+	}
+
+	@Override
+	protected void onStart() {
+		super.onStart();
+		this.sessions = new TrainingSession[this.threadsNum];
+		this.accumulators = new IMergeableErrorFunction[this.threadsNum];
+		this.outputErrors = new double[this.threadsNum][this.compiledNetwork.getOutputsNum()];
+		this.moments = this.newMoments(this.compiledNetwork.getParametersNum());
+		this.steps = new AtomicInteger();
+		for (int i = 0; i < this.threadsNum; i++) {
+			this.sessions[i] = new TrainingSession(this.compiledNetwork);
+			this.accumulators[i] = ((IMergeableErrorFunction) this.errorFunction).newAccumulator();
+		}
+	}
+
+	@Override
+	protected void onBeforeEpoch() {
+		super.onBeforeEpoch();
+		this.compiledNetwork.update();
+		for (IMergeableErrorFunction accumulator : this.accumulators)
+			accumulator.reset();
+	}
+
+	@Override
+	protected void doLearningEpoch() {
+		int patternsNum = this.trainingData.lenght();
+		int shards = Math.min(this.sessions.length, patternsNum);
+		if (shards == 1)
+			this.processShard(0, 0, patternsNum, 0);
+		else if (shards > 1)
+			SANNMF.getForkJoinPool().invoke(new GradientShardTask(this, 0, patternsNum, 0, shards, shards));
+
+		IMergeableErrorFunction errorFunction = (IMergeableErrorFunction) this.errorFunction;
+		for (int shard = 0; shard < shards; shard++)
+			errorFunction.merge(this.accumulators[shard]);
+		if (this.hasEventListener(IterativeLearningEvent.ITERATION))
+			for (int i = 0; i < patternsNum; i++)
+				this.eventDispatcher.dispatchEvent(new IterativeLearningEvent(IterativeLearningEvent.ITERATION, this));
+		this.compiledNetwork.writeBack();
+		this.totalNetworkError = this.errorFunction.getTotalError();
+	}
+
+	@Override
+	public void processShard(int shard, int from, int to, int offset) {
+		TrainingSession session = this.sessions[shard];
+		IMergeableErrorFunction accumulator = this.accumulators[shard];
+		double[] outputError = this.outputErrors[shard];
+		double[] weightChanges = session.getWeightChanges();
+		for (int index = from; index < to && !this.isStopped(); index++) {
+			session.accumulate(this.trainingData, index, outputError, 0);
+			accumulator.addOutputsError(outputError);
+			this.applyCompiledWeightChanges(this.compiledNetwork, weightChanges, this.steps.incrementAndGet());
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.learning.algorithms;
+
+import br.com.wfcreations.sannmf.SANNMF;
+import br.com.wfcreations.sannmf.kernel.IKernel;
+import br.com.wfcreations.sannmf.neuralnetwork.MLP;
+
+public class LBFGS extends AbstractFullBatchLearning {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final int DEFAULT_HISTORY_SIZE = 10;
+
+	protected int historySize;
+
+	protected double sufficientDecrease = 1e-4;
+
+	protected double backtrackingFactor = 0.5;
+
+	protected int maximumLineSearchSteps = 20;
+
+	protected transient double[] gradient;
+
+	protected transient double[] nextGradient;
+
+	protected transient double[] direction;
+
+	protected transient double[] origin;
+
+	protected transient double[][] parameterChanges;
+
+	protected transient double[][] gradientChanges;
+
+	protected transient double[] curvatures;
+
+	protected transient double[] alphas;
+
+	protected transient int historyStart;
+
+	protected transient int historyCount;
+
+	protected transient double errorSum;
+
+	public LBFGS(MLP network) {
+		this(network, DEFAULT_HISTORY_SIZE);
+	}
+
+	public LBFGS(MLP network, int historySize) {
+		super(network);
+		this.setHistorySize(historySize);
+	}
+
+	@Override
+	protected void onStart() {
+		super.onStart();
+		int parametersNum = this.compiledNetwork.getParametersNum();
+		this.gradient = new double[parametersNum];
+		this.nextGradient = new double[parametersNum];
+		this.direction = new double[parametersNum];
+		this.origin = new double[parametersNum];
+		this.parameterChanges = new double[this.historySize][parametersNum];
+		this.gradientChanges = new double[this.historySize][parametersNum];
+		this.curvatures = new double[this.historySize];
+		this.alphas = new double[this.historySize];
+		this.historyStart = this.historyCount = 0;
+		this.errorSum = Double.NaN;
+	}
+
+	@Override
+	protected double iterate() {
+		int parametersNum = this.gradient.length;
+		double[] parameters = this.getParameters();
+		if (Double.isNaN(this.errorSum))
+			this.errorSum = this.evaluate(this.gradient);
+
+		double currentErrorSum = this.errorSum;
+		this.computeDirection();
+		double slope = dot(this.gradient, this.direction);
+		if (!(slope < 0)) {
+			this.historyCount = 0;
+			this.computeDirection();
+			slope = dot(this.gradient, this.direction);
+		}
+		if (!(slope < 0)) {
+			this.stop();
+			return currentErrorSum;
+		}
+
+		double stepSize = this.historyCount == 0 ? Math.min(1, 1 / Math.sqrt(-slope)) : 1;
+		System.arraycopy(parameters, 0, this.origin, 0, parametersNum);
+		double nextErrorSum = Double.NaN;
+		boolean accepted = false;
+		for (int i = 0; i < this.maximumLineSearchSteps && !accepted; i++) {
+			this.moveParameters(this.origin, stepSize, this.direction);
+			nextErrorSum = this.evaluate(this.nextGradient);
+			accepted = nextErrorSum <= this.errorSum + this.sufficientDecrease * stepSize * slope;
+			if (!accepted)
+				stepSize *= this.backtrackingFactor;
+		}
+		if (!accepted) {
+			System.arraycopy(this.origin, 0, parameters, 0, parametersNum);
+			if (this.historyCount == 0)
+				this.stop();
+			this.historyCount = 0;
+			return currentErrorSum;
+		}
+
+		double curvature = 0;
+		for (int i = 0; i < parametersNum; i++)
+			curvature += (parameters[i] - this.origin[i]) * (this.nextGradient[i] - this.gradient[i]);
+		if (curvature > 1e-10) {
+			int slot = (this.historyStart + this.historyCount) % this.historySize;
+			if (this.historyCount == this.historySize)
+				this.historyStart = (this.historyStart + 1) % this.historySize;
+			else
+				this.historyCount++;
+			double[] parameterChange = this.parameterChanges[slot];
+			double[] gradientChange = this.gradientChanges[slot];
+			for (int i = 0; i < parametersNum; i++) {
+				parameterChange[i] = parameters[i] - this.origin[i];
+				gradientChange[i] = this.nextGradient[i] - this.gradient[i];
+			}
+			this.curvatures[slot] = 1 / curvature;
+		}
+
+		double[] gradient = this.gradient;
+		this.gradient = this.nextGradient;
+		this.nextGradient = gradient;
+		this.errorSum = nextErrorSum;
+		return currentErrorSum;
+	}
+
+	protected void computeDirection() {
+		IKernel kernel = SANNMF.getKernel();
+		int parametersNum = this.gradient.length;
+		double[] direction = this.direction;
+		System.arraycopy(this.gradient, 0, direction, 0, parametersNum);
+		for (int i = this.historyCount - 1; i >= 0; i--) {
+			int slot = (this.historyStart + i) % this.historySize;
+			this.alphas[slot] = this.curvatures[slot] * kernel.dot(this.parameterChanges[slot], 0, direction, 0, parametersNum);
+			kernel.axpy(-this.alphas[slot], this.gradientChanges[slot], 0, direction, 0, parametersNum);
+		}
+		if (this.historyCount > 0) {
+			int newest = (this.historyStart + this.historyCount - 1) % this.historySize;
+			double scale = 1 / (this.curvatures[newest] * dot(this.gradientChanges[newest], this.gradientChanges[newest]));
+			for (int i = 0; i < parametersNum; i++)
+				direction[i] *= scale;
+		}
+		for (int i = 0; i < this.historyCount; i++) {
+			int slot = (this.historyStart + i) % this.historySize;
+			double beta = this.curvatures[slot] * kernel.dot(this.gradientChanges[slot], 0, direction, 0, parametersNum);
+			kernel.axpy(this.alphas[slot] - beta, this.parameterChanges[slot], 0, direction, 0, parametersNum);
+		}
+		for (int i = 0; i < parametersNum; i++)
+			direction[i] = -direction[i];
+	}
+
+	public int getHistorySize() {
+		return this.historySize;
+	}
+
+	public LBFGS setHistorySize(int historySize) {
+		if (historySize <= 0)
+			throw new IllegalArgumentException("Must be greater than 0");
+		this.historySize = historySize;
+		return this;
+	}
+
+	public double getSufficientDecrease() {
+		return this.sufficientDecrease;
+	}
+
+	public LBFGS setSufficientDecrease(double sufficientDecrease) {
+		if (sufficientDecrease <= 0 || sufficientDecrease >= 1)
+			throw new IllegalArgumentException("Must be in (0, 1)");
+		this.sufficientDecrease = sufficientDecrease;
+		return this;
+	}
+
+	public double getBacktrackingFactor() {
+		return this.backtrackingFactor;
+	}
+
+	public LBFGS setBacktrackingFactor(double backtrackingFactor) {
+		if (backtrackingFactor <= 0 || backtrackingFactor >= 1)
+			throw new IllegalArgumentException("Must be in (0, 1)");
+		this.backtrackingFactor = backtrackingFactor;
+		return this;
+	}
+
+	public int getMaximumLineSearchSteps() {
+		return this.maximumLineSearchSteps;
+	}
+
+	public LBFGS setMaximumLineSearchSteps(int maximumLineSearchSteps) {
+		if (maximumLineSearchSteps <= 0)
+			throw new IllegalArgumentException("Must be greater than 0");
+		this.maximumLineSearchSteps = maximumLineSearchSteps;
+		return this;
+	}
+}
\ No newline at end of file
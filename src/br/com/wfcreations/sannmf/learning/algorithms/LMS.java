@@ -29,8 +29,6 @@
  */
 package br.com.wfcreations.sannmf.learning.algorithms;
 
-import br.com.wfcreations.sannmf.structure.ISynapse;
-import br.com.wfcreations.sannmf.structure.feedforward.AbstractOutputNeuron;
 import br.com.wfcreations.sannmf.structure.feedforward.ErrorNeuron;
 import br.com.wfcreations.sannmf.structure.feedforward.FeedforwardNeuralNetwork;
 
@@ -43,7 +41,7 @@ public class LMS extends DeltaRule {
 	}
 
 	@Override
-	protected double weightChange(ErrorNeuron neuron, ISynapse synapse) {
-		return this.learningRate * neuron.getError() * ((AbstractOutputNeuron) synapse.getPresynaptic()).getOutput();
+	protected double errorGradient(ErrorNeuron neuron) {
+		return neuron.getError();
 	}
 }
\ No newline at end of file
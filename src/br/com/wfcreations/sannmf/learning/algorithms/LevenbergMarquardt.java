@@ -0,0 +1,281 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.learning.algorithms;
+
+import java.util.Arrays;
+
+import br.com.wfcreations.sannmf.SANNMF;
+import br.com.wfcreations.sannmf.compiled.CompiledNetwork;
+import br.com.wfcreations.sannmf.compiled.TrainingSession;
+import br.com.wfcreations.sannmf.event.IterativeLearningEvent;
+import br.com.wfcreations.sannmf.function.error.MSE;
+import br.com.wfcreations.sannmf.learning.ErrorCorrectionLearning;
+import br.com.wfcreations.sannmf.neuralnetwork.MLP;
+import br.com.wfcreations.sannmf.structure.feedforward.FeedforwardNeuralNetwork;
+import br.com.wfcreations.sannmf.utils.MatrixUtils;
+
+public class LevenbergMarquardt extends ErrorCorrectionLearning {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final int DEFAULT_BLOCK_SIZE = 64;
+
+	public static final double MINIMUM_DAMPING = 1e-20;
+
+	protected double damping = 1e-3;
+
+	protected double dampingFactor = 10;
+
+	protected double maximumDamping = 1e10;
+
+	protected int blockSize = DEFAULT_BLOCK_SIZE;
+
+	protected transient CompiledNetwork compiledNetwork;
+
+	protected transient TrainingSession session;
+
+	protected transient double[] hessian;
+
+	protected transient double[] diagonal;
+
+	protected transient double[] gradient;
+
+	protected transient double[] jacobian;
+
+	protected transient double[] errors;
+
+	protected transient double[] row;
+
+	protected transient double[] outputs;
+
+	protected transient double[] previousParameters;
+
+	protected transient double currentDamping;
+
+	public LevenbergMarquardt(MLP network) {
+		super(network, true, new MSE());
+	}
+
+	@Override
+	public LevenbergMarquardt setBatchMode(boolean batchMode) {
+		if (!batchMode)
+			throw new IllegalArgumentException("Levenberg-Marquardt only supports batch mode");
+		super.setBatchMode(batchMode);
+		return this;
+	}
+
+	@Override
+	public LevenbergMarquardt setBatchSize(int batchSize) {
+		if (batchSize != 0)
+			throw new IllegalArgumentException("Levenberg-Marquardt only supports full batches");
+		super.setBatchSize(batchSize);
+		return this;
+	}
+
+	@Override
+	protected void onStart() {
+		super.onStart();
+		this.compiledNetwork = ((FeedforwardNeuralNetwork) this.network).compile();
+		int parametersNum = this.compiledNetwork.getParametersNum();
+		if ((long) parametersNum * parametersNum > Integer.MAX_VALUE)
+			throw new IllegalStateException("Network has too many weights for Levenberg-Marquardt");
+		int outputsNum = this.compiledNetwork.getOutputsNum();
+		this.session = new TrainingSession(this.compiledNetwork);
+		this.hessian = new double[parametersNum * parametersNum];
+		this.diagonal = new double[parametersNum];
+		this.gradient = new double[parametersNum];
+		this.jacobian = new double[parametersNum * this.blockSize * outputsNum];
+		this.errors = new double[this.blockSize * outputsNum];
+		this.row = new double[parametersNum];
+		this.outputs = new double[outputsNum];
+		this.outputError = new double[outputsNum];
+		this.previousParameters = new double[parametersNum];
+		this.currentDamping = Math.max(this.damping, MINIMUM_DAMPING);
+	}
+
+	@Override
+	protected void doLearningEpoch() {
+		double errorSum = this.accumulateNormalEquations();
+		this.totalNetworkError = this.errorFunction.getTotalError();
+		if (this.hasEventListener(IterativeLearningEvent.ITERATION))
+			for (int i = 0; i < this.trainingData.lenght(); i++)
+				this.eventDispatcher.dispatchEvent(new IterativeLearningEvent(IterativeLearningEvent.ITERATION, this));
+
+		int parametersNum = this.gradient.length;
+		double[] parameters = this.compiledNetwork.getParameters();
+		System.arraycopy(parameters, 0, this.previousParameters, 0, parametersNum);
+		this.storeHessian();
+		while (!this.isStopped()) {
+			this.restoreHessian(this.currentDamping);
+			if (MatrixUtils.choleskyDecompose(this.hessian, parametersNum)) {
+				System.arraycopy(this.gradient, 0, this.row, 0, parametersNum);
+				MatrixUtils.choleskySolve(this.hessian, parametersNum, this.row);
+				for (int i = 0; i < parametersNum; i++)
+					parameters[i] = this.previousParameters[i] + this.row[i];
+				this.compiledNetwork.maskAbsentWeights(parameters);
+				if (this.evaluateErrorSum() < errorSum) {
+					// keep the damping away from 0 so rejected steps can still raise it
+					this.currentDamping = Math.max(this.currentDamping / this.dampingFactor, MINIMUM_DAMPING);
+					break;
+				}
+				System.arraycopy(this.previousParameters, 0, parameters, 0, parametersNum);
+			}
+			if (this.currentDamping >= this.maximumDamping) {
+				this.stop();
+				break;
+			}
+			this.currentDamping = Math.min(this.currentDamping * this.dampingFactor, this.maximumDamping);
+		}
+		this.compiledNetwork.writeBack();
+	}
+
+	protected double accumulateNormalEquations() {
+		int parametersNum = this.gradient.length;
+		int outputsNum = this.outputs.length;
+		int stride = this.blockSize * outputsNum;
+		Arrays.fill(this.hessian, 0);
+		Arrays.fill(this.gradient, 0);
+		double errorSum = 0;
+		int patternsNum = this.trainingData.lenght();
+		for (int start = 0; start < patternsNum; start += this.blockSize) {
+			int end = Math.min(start + this.blockSize, patternsNum);
+			int rows = (end - start) * outputsNum;
+			for (int pattern = start; pattern < end; pattern++) {
+				double[] desiredOutputs = this.trainingData.getOutputsArray(pattern);
+				int desiredOffset = this.trainingData.getOutputsOffset(pattern);
+				this.session.activate(this.trainingData.getInputsArray(pattern), this.trainingData.getInputsOffset(pattern), this.outputs);
+				for (int output = 0; output < outputsNum; output++) {
+					int column = (pattern - start) * outputsNum + output;
+					this.outputError[output] = desiredOutputs[desiredOffset + output] - this.outputs[output];
+					this.errors[column] = this.outputError[output];
+					this.session.outputGradient(output, this.row);
+					for (int i = 0; i < parametersNum; i++)
+						this.jacobian[i * stride + column] = this.row[i];
+				}
+				this.errorFunction.addOutputsError(this.outputError);
+				errorSum += this.errorFunction.getOutputError(this.outputError);
+			}
+			SANNMF.getForkJoinPool().invoke(new NormalEquationsTask(this.jacobian, stride, rows, this.errors, this.hessian, this.gradient, 0, parametersNum));
+		}
+		return errorSum;
+	}
+
+	// the strict upper triangle keeps a copy of the hessian so the lower triangle can be factored in place
+	protected void storeHessian() {
+		int parametersNum = this.diagonal.length;
+		for (int i = 0; i < parametersNum; i++) {
+			int row = i * parametersNum;
+			for (int j = 0; j < i; j++)
+				this.hessian[j * parametersNum + i] = this.hessian[row + j];
+			this.diagonal[i] = this.hessian[row + i];
+		}
+	}
+
+	protected void restoreHessian(double damping) {
+		int parametersNum = this.diagonal.length;
+		for (int i = 0; i < parametersNum; i++) {
+			int row = i * parametersNum;
+			for (int j = 0; j < i; j++)
+				this.hessian[row + j] = this.hessian[j * parametersNum + i];
+			this.hessian[row + i] = this.diagonal[i] + damping;
+		}
+	}
+
+	protected double evaluateErrorSum() {
+		double errorSum = 0;
+		for (int pattern = 0; pattern < this.trainingData.lenght(); pattern++) {
+			double[] desiredOutputs = this.trainingData.getOutputsArray(pattern);
+			int desiredOffset = this.trainingData.getOutputsOffset(pattern);
+			this.session.activate(this.trainingData.getInputsArray(pattern), this.trainingData.getInputsOffset(pattern), this.outputs);
+			for (int output = 0; output < this.outputs.length; output++)
+				this.outputError[output] = desiredOutputs[desiredOffset + output] - this.outputs[output];
+			errorSum += this.errorFunction.getOutputError(this.outputError);
+		}
+		return errorSum;
+	}
+
+	@Override
+	protected void doBatchWeightsUpdate() {
+	}
+
+	@Override
+	protected LevenbergMarquardt updateNetworkWeights(double[] outputError) {
+		// weights are only updated once per epoch by doLearningEpoch
+		return this;
+	}
+
+	public double getDamping() {
+		return this.damping;
+	}
+
+	public LevenbergMarquardt setDamping(double damping) {
+		if (damping <= 0)
+			throw new IllegalArgumentException("Must be greater than 0");
+		this.damping = damping;
+		return this;
+	}
+
+	public double getCurrentDamping() {
+		return this.currentDamping;
+	}
+
+	public double getDampingFactor() {
+		return this.dampingFactor;
+	}
+
+	public LevenbergMarquardt setDampingFactor(double dampingFactor) {
+		if (dampingFactor <= 1)
+			throw new IllegalArgumentException("Must be greater than 1");
+		this.dampingFactor = dampingFactor;
+		return this;
+	}
+
+	public double getMaximumDamping() {
+		return this.maximumDamping;
+	}
+
+	public LevenbergMarquardt setMaximumDamping(double maximumDamping) {
+		if (maximumDamping <= 0)
+			throw new IllegalArgumentException("Must be greater than 0");
+		this.maximumDamping = maximumDamping;
+		return this;
+	}
+
+	public int getBlockSize() {
+		return this.blockSize;
+	}
+
+	public LevenbergMarquardt setBlockSize(int blockSize) {
+		if (blockSize <= 0)
+			throw new IllegalArgumentException("Must be greater than 0");
+		this.blockSize = blockSize;
+		return this;
+	}
+}
\ No newline at end of file
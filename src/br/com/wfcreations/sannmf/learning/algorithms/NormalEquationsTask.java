@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.learning.algorithms;
+
+import java.util.concurrent.RecursiveAction;
+
+import br.com.wfcreations.sannmf.SANNMF;
+import br.com.wfcreations.sannmf.utils.MatrixUtils;
+
+public class NormalEquationsTask extends RecursiveAction {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final int GRAIN = 2 * MatrixUtils.ROW_TILE;
+
+	protected final double[] jacobian;
+
+	protected final int stride;
+
+	protected final int rows;
+
+	protected final double[] errors;
+
+	protected final double[] hessian;
+
+	protected final double[] gradient;
+
+	protected final int from;
+
+	protected final int to;
+
+	public NormalEquationsTask(double[] jacobian, int stride, int rows, double[] errors, double[] hessian, double[] gradient, int from, int to) {
+		this.jacobian = jacobian;
+		this.stride = stride;
+		this.rows = rows;
+		this.errors = errors;
+		this.hessian = hessian;
+		this.gradient = gradient;
+		this.from = from;
+		this.to = to;
+	}
+
+	@Override
+	protected void compute() {
+		if (this.to - this.from > GRAIN) {
+			int middle = (this.from + this.to) >>> 1;
+			invokeAll(new NormalEquationsTask(this.jacobian, this.stride, this.rows, this.errors, this.hessian, this.gradient, this.from, middle), new NormalEquationsTask(this.jacobian, this.stride, this.rows, this.errors, this.hessian, this.gradient, middle, this.to));
+			return;
+		}
+		int parametersNum = this.gradient.length;
+		MatrixUtils.multiplyTransposed(this.to - this.from, this.to, this.rows, this.jacobian, this.from * this.stride, this.stride, this.jacobian, 0, this.stride, this.hessian, this.from * parametersNum, parametersNum);
+		for (int i = this.from; i < this.to; i++)
+			this.gradient[i] += SANNMF.getKernel().dot(this.jacobian, i * this.stride, this.errors, 0, this.rows);
+	}
+}
\ No newline at end of file
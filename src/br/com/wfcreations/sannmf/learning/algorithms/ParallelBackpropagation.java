@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.learning.algorithms;
+
+import br.com.wfcreations.sannmf.SANNMF;
+import br.com.wfcreations.sannmf.compiled.TrainingSession;
+import br.com.wfcreations.sannmf.event.IterativeLearningEvent;
+import br.com.wfcreations.sannmf.neuralnetwork.MLP;
+
+public class ParallelBackpropagation extends AbstractCompiledBackpropagation implements IShardedLearning {
+
+	private static final long serialVersionUID = 1L;
+
+	protected int threadsNum;
+
+	protected transient TrainingSession[] sessions;
+
+	protected transient double[] batchErrors;
+
+	public ParallelBackpropagation(MLP network, double learnRate) {
+		this(network, learnRate, SANNMF.getForkJoinPool().getParallelism());
+	}
+
+	public ParallelBackpropagation(MLP network, double learnRate, int threadsNum) {
+		super(network, learnRate, true);
+		this.setThreadsNum(threadsNum);
+	}
+
+	@Override
+	public ParallelBackpropagation setBatchMode(boolean batchMode) {
+		if (!batchMode)
+			throw new IllegalArgumentException("Parallel backpropagation only supports batch mode");
+		super.setBatchMode(batchMode);
+		return this;
+	}
+
+	public int getThreadsNum() {
+		return this.threadsNum;
+	}
+
+	public ParallelBackpropagation setThreadsNum(int threadsNum) {
+		if (threadsNum <= 0)
+			throw new IllegalArgumentException("Must be greater than 0");
+		this.threadsNum = threadsNum;
+		this.sessions = null;
+		return this;
+	}
+
+	@Override
+	protected void onStart() {
+		super.onStart();
+		this.sessions = new TrainingSession[this.threadsNum];
+		for (int i = 0; i < this.threadsNum; i++)
+			this.sessions[i] = new TrainingSession(this.compiledNetwork);
+	}
+
+	@Override
+	protected void onBeforeEpoch() {
+		super.onBeforeEpoch();
+		this.compiledNetwork.update();
+	}
+
+	@Override
+	protected void doLearningEpoch() {
+		int patternsNum = this.trainingData.lenght();
+		int batchSize = this.isMiniBatchMode() ? this.batchSize : Math.max(patternsNum, 1);
+		int outputsNum = this.compiledNetwork.getOutputsNum();
+		if (this.batchErrors == null || this.batchErrors.length < batchSize * outputsNum)
+			this.batchErrors = new double[batchSize * outputsNum];
+		if (this.outputError == null || this.outputError.length != outputsNum)
+			this.outputError = new double[outputsNum];
+		boolean iterationListened = this.hasEventListener(IterativeLearningEvent.ITERATION);
+
+		for (int start = 0; start < patternsNum && !this.isStopped(); start += batchSize) {
+			int end = Math.min(start + batchSize, patternsNum);
+			int shards = Math.min(this.sessions.length, end - start);
+			if (shards == 1)
+				this.processShard(0, start, end, start);
+			else
+				SANNMF.getForkJoinPool().invoke(new GradientShardTask(this, start, end, 0, shards, shards));
+
+			double[] weightChanges = this.sessions[0].getWeightChanges();
+			for (int shard = 1; shard < shards; shard++) {
+				SANNMF.getKernel().axpy(1, this.sessions[shard].getWeightChanges(), 0, weightChanges, 0, weightChanges.length);
+				this.sessions[shard].clear();
+			}
+			this.applyCompiledWeightChanges(this.compiledNetwork, weightChanges);
+			this.sessions[0].clear();
+
+			for (int row = 0; row < end - start; row++) {
+				System.arraycopy(this.batchErrors, row * outputsNum, this.outputError, 0, outputsNum);
+				this.errorFunction.addOutputsError(this.outputError);
+				if (iterationListened)
+					this.eventDispatcher.dispatchEvent(new IterativeLearningEvent(IterativeLearningEvent.ITERATION, this));
+			}
+		}
+		this.compiledNetwork.writeBack();
+		this.totalNetworkError = this.errorFunction.getTotalError();
+	}
+
+	@Override
+	public void processShard(int shard, int from, int to, int offset) {
+		TrainingSession session = this.sessions[shard];
+		int outputsNum = this.compiledNetwork.getOutputsNum();
+		for (int index = from; index < to; index++)
+			session.accumulate(this.trainingData, index, this.batchErrors, (index - offset) * outputsNum);
+	}
+
+	@Override
+	protected void doBatchWeightsUpdate() {
+	}
+}
\ No newline at end of file
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.learning.algorithms;
+
+import java.util.Arrays;
+
+import br.com.wfcreations.sannmf.neuralnetwork.MLP;
+import br.com.wfcreations.sannmf.structure.INeuron;
+import br.com.wfcreations.sannmf.structure.ISynapse;
+import br.com.wfcreations.sannmf.structure.feedforward.AbstractConnection;
+import br.com.wfcreations.sannmf.structure.feedforward.ProcessorNeuron;
+
+public class ResilientPropagation extends Backpropagation {
+
+	private static final long serialVersionUID = 1L;
+
+	protected static final int STEP_SIZES = 0;
+
+	protected static final int PREVIOUS_GRADIENTS = 1;
+
+	protected static final int PREVIOUS_CHANGES = 2;
+
+	protected double increaseFactor = 1.2;
+
+	protected double decreaseFactor = 0.5;
+
+	protected double initialStepSize = 0.1;
+
+	protected double maximumStepSize = 50;
+
+	protected double minimumStepSize = 1e-6;
+
+	public ResilientPropagation(MLP network) {
+		super(network, 0.1, true);
+	}
+
+	@Override
+	public ResilientPropagation setBatchMode(boolean batchMode) {
+		if (!batchMode)
+			throw new IllegalArgumentException("Resilient propagation only supports batch mode");
+		super.setBatchMode(batchMode);
+		return this;
+	}
+
+	@Override
+	public ResilientPropagation setBatchSize(int batchSize) {
+		if (batchSize != 0)
+			throw new IllegalArgumentException("Resilient propagation only supports full batches");
+		super.setBatchSize(batchSize);
+		return this;
+	}
+
+	@Override
+	protected int getMomentsNum() {
+		return 3;
+	}
+
+	@Override
+	protected double[][] newMoments(int size) {
+		double[][] moments = super.newMoments(size);
+		Arrays.fill(moments[STEP_SIZES], this.initialStepSize);
+		return moments;
+	}
+
+	@Override
+	protected void doBatchWeightsUpdate() {
+		this.prepareMoments();
+		this.step++;
+		boolean errorIncreased = this.totalNetworkError > this.previousEpochError;
+		for (int i = this.network.getLayersNum() - 1; i > 0; i--)
+			for (INeuron neuron : this.network.getLayerAt(i).getNeurons())
+				if (neuron instanceof ProcessorNeuron) {
+					ProcessorNeuron processorNeuron = (ProcessorNeuron) neuron;
+					int momentOffset = this.momentOffsetOf(processorNeuron);
+					for (ISynapse synapse : processorNeuron.getInputSynapses()) {
+						synapse.incrementWeight(this.weightChange(synapse.getWeightChange(), momentOffset++, errorIncreased));
+						synapse.setWeightChange(0);
+					}
+					for (AbstractConnection connection : processorNeuron.getInputMatrices()) {
+						int row = connection.indexOfPostsynaptic(processorNeuron);
+						double[] weights = connection.getWeights();
+						double[] weightChanges = connection.getWeightChanges();
+						for (int entry = connection.getRowStart(row); entry < connection.getRowEnd(row); entry++) {
+							weights[entry] += this.weightChange(weightChanges[entry], momentOffset++, errorIncreased);
+							weightChanges[entry] = 0;
+						}
+						connection.weightsModified();
+					}
+				}
+	}
+
+	protected double weightChange(double gradient, int index, boolean errorIncreased) {
+		double[] stepSizes = this.moments[STEP_SIZES];
+		double[] previousGradients = this.moments[PREVIOUS_GRADIENTS];
+		double[] previousChanges = this.moments[PREVIOUS_CHANGES];
+		double sign = previousGradients[index] * gradient;
+		if (sign < 0) {
+			stepSizes[index] = Math.max(stepSizes[index] * this.decreaseFactor, this.minimumStepSize);
+			previousGradients[index] = 0;
+			double weightChange = errorIncreased ? -previousChanges[index] : 0;
+			previousChanges[index] = 0;
+			return weightChange;
+		}
+		if (sign > 0)
+			stepSizes[index] = Math.min(stepSizes[index] * this.increaseFactor, this.maximumStepSize);
+		previousGradients[index] = gradient;
+		return previousChanges[index] = Math.signum(gradient) * stepSizes[index];
+	}
+
+	public double getIncreaseFactor() {
+		return this.increaseFactor;
+	}
+
+	public ResilientPropagation setIncreaseFactor(double increaseFactor) {
+		if (increaseFactor <= 1)
+			throw new IllegalArgumentException("Must be greater than 1");
+		this.increaseFactor = increaseFactor;
+		return this;
+	}
+
+	public double getDecreaseFactor() {
+		return this.decreaseFactor;
+	}
+
+	public ResilientPropagation setDecreaseFactor(double decreaseFactor) {
+		if (decreaseFactor <= 0 || decreaseFactor >= 1)
+			throw new IllegalArgumentException("Must be in (0, 1)");
+		this.decreaseFactor = decreaseFactor;
+		return this;
+	}
+
+	public double getInitialStepSize() {
+		return this.initialStepSize;
+	}
+
+	public ResilientPropagation setInitialStepSize(double initialStepSize) {
+		if (initialStepSize <= 0)
+			throw new IllegalArgumentException("Must be greater than 0");
+		this.initialStepSize = initialStepSize;
+		return this;
+	}
+
+	public double getMaximumStepSize() {
+		return this.maximumStepSize;
+	}
+
+	public ResilientPropagation setMaximumStepSize(double maximumStepSize) {
+		if (maximumStepSize <= 0)
+			throw new IllegalArgumentException("Must be greater than 0");
+		this.maximumStepSize = maximumStepSize;
+		return this;
+	}
+
+	public double getMinimumStepSize() {
+		return this.minimumStepSize;
+	}
+
+	public ResilientPropagation setMinimumStepSize(double minimumStepSize) {
+		if (minimumStepSize < 0)
+			throw new IllegalArgumentException("Can't be negative");
+		this.minimumStepSize = minimumStepSize;
+		return this;
+	}
+}
\ No newline at end of file
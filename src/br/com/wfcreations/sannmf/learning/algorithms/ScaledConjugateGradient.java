@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.learning.algorithms;
+
+import br.com.wfcreations.sannmf.neuralnetwork.MLP;
+
+public class ScaledConjugateGradient extends AbstractFullBatchLearning {
+
+	private static final long serialVersionUID = 1L;
+
+	protected double sigma = 1e-4;
+
+	protected double initialLambda = 1;
+
+	protected double minimumLambda = 1e-15;
+
+	protected double maximumLambda = 1e100;
+
+	protected transient double[] gradient;
+
+	protected transient double[] nextGradient;
+
+	protected transient double[] probeGradient;
+
+	protected transient double[] direction;
+
+	protected transient double[] origin;
+
+	protected transient double lambda;
+
+	protected transient double theta;
+
+	protected transient double kappa;
+
+	protected transient double mu;
+
+	protected transient boolean success;
+
+	protected transient int iteration;
+
+	protected transient double errorSum;
+
+	public ScaledConjugateGradient(MLP network) {
+		super(network);
+	}
+
+	@Override
+	protected void onStart() {
+		super.onStart();
+		int parametersNum = this.compiledNetwork.getParametersNum();
+		this.gradient = new double[parametersNum];
+		this.nextGradient = new double[parametersNum];
+		this.probeGradient = new double[parametersNum];
+		this.direction = new double[parametersNum];
+		this.origin = new double[parametersNum];
+		this.lambda = this.initialLambda;
+		this.success = true;
+		this.iteration = 0;
+		this.errorSum = Double.NaN;
+	}
+
+	@Override
+	protected double iterate() {
+		int parametersNum = this.gradient.length;
+		double[] parameters = this.getParameters();
+		if (Double.isNaN(this.errorSum)) {
+			this.errorSum = this.evaluate(this.gradient);
+			for (int i = 0; i < parametersNum; i++)
+				this.direction[i] = -this.gradient[i];
+		}
+
+		double currentErrorSum = this.errorSum;
+		System.arraycopy(parameters, 0, this.origin, 0, parametersNum);
+		if (this.success) {
+			this.mu = dot(this.direction, this.gradient);
+			if (this.mu >= 0) {
+				for (int i = 0; i < parametersNum; i++)
+					this.direction[i] = -this.gradient[i];
+				this.mu = dot(this.direction, this.gradient);
+			}
+			this.kappa = dot(this.direction, this.direction);
+			if (this.kappa == 0 || this.mu == 0) {
+				this.stop();
+				return currentErrorSum;
+			}
+			double sigma = this.sigma / Math.sqrt(this.kappa);
+			this.moveParameters(this.origin, sigma, this.direction);
+			this.evaluate(this.probeGradient);
+			double curvature = 0;
+			for (int i = 0; i < parametersNum; i++)
+				curvature += this.direction[i] * (this.probeGradient[i] - this.gradient[i]);
+			this.theta = curvature / sigma;
+		}
+
+		double delta = this.scaledCurvature();
+		double alpha = -this.mu / delta;
+		this.moveParameters(this.origin, alpha, this.direction);
+		double nextErrorSum = this.evaluate(this.nextGradient);
+		double comparison = 2 * (nextErrorSum - this.errorSum) / (alpha * this.mu);
+
+		this.success = comparison >= 0;
+		if (this.success) {
+			this.errorSum = nextErrorSum;
+			double[] gradient = this.gradient;
+			this.gradient = this.nextGradient;
+			this.nextGradient = gradient;
+		} else
+			System.arraycopy(this.origin, 0, parameters, 0, parametersNum);
+
+		if (comparison < 0.25)
+			this.lambda = Math.min(4 * this.lambda, this.maximumLambda);
+		else if (comparison > 0.75)
+			this.lambda = Math.max(0.5 * this.lambda, this.minimumLambda);
+
+		if (this.success) {
+			if (++this.iteration % parametersNum == 0)
+				for (int i = 0; i < parametersNum; i++)
+					this.direction[i] = -this.gradient[i];
+			else {
+				double gamma = 0;
+				for (int i = 0; i < parametersNum; i++)
+					gamma += (this.nextGradient[i] - this.gradient[i]) * this.gradient[i];
+				gamma /= this.mu;
+				for (int i = 0; i < parametersNum; i++)
+					this.direction[i] = gamma * this.direction[i] - this.gradient[i];
+			}
+		} else if (this.lambda >= this.maximumLambda)
+			this.stop();
+		return currentErrorSum;
+	}
+
+	// Moller's step 4: a non positive curvature raises lambda until the hessian is positive definite
+	protected double scaledCurvature() {
+		double delta = this.theta + this.lambda * this.kappa;
+		if (delta <= 0) {
+			double raisedLambda = 2 * (this.lambda - delta / this.kappa);
+			delta = -delta + this.lambda * this.kappa;
+			this.lambda = raisedLambda;
+		}
+		return delta;
+	}
+
+	public double getSigma() {
+		return this.sigma;
+	}
+
+	public ScaledConjugateGradient setSigma(double sigma) {
+		if (sigma <= 0)
+			throw new IllegalArgumentException("Must be greater than 0");
+		this.sigma = sigma;
+		return this;
+	}
+
+	public double getInitialLambda() {
+		return this.initialLambda;
+	}
+
+	public ScaledConjugateGradient setInitialLambda(double initialLambda) {
+		if (initialLambda <= 0)
+			throw new IllegalArgumentException("Must be greater than 0");
+		this.initialLambda = initialLambda;
+		return this;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.learning.optimizer;
+
+public abstract class AbstractOptimizer implements IOptimizer {
+
+	private static final long serialVersionUID = 1L;
+
+	@Override
+	public boolean isStateless() {
+		return false;
+	}
+
+	@Override
+	public void weightChanges(double[] gradients, int offset, double learningRate, double[][] moments, int momentOffset, int length, int step) {
+		for (int i = 0; i < length; i++)
+			gradients[offset + i] = this.weightChange(gradients[offset + i], learningRate, moments, momentOffset + i, step);
+	}
+
+	protected static double checkRate(double rate) {
+		if (rate < 0 || rate >= 1)
+			throw new IllegalArgumentException("Must be in [0, 1)");
+		return rate;
+	}
+
+	protected static double checkEpsilon(double epsilon) {
+		if (epsilon <= 0)
+			throw new IllegalArgumentException("Must be greater than 0");
+		return epsilon;
+	}
+}
\ No newline at end of file
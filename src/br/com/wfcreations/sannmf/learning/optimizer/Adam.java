@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.learning.optimizer;
+
+public class Adam extends AbstractOptimizer {
+
+	private static final long serialVersionUID = 1L;
+
+	protected double beta1;
+
+	protected double beta2;
+
+	protected double epsilon;
+
+	public Adam() {
+		this(0.9, 0.999, 1e-8);
+	}
+
+	public Adam(double beta1, double beta2, double epsilon) {
+		this.setBeta1(beta1);
+		this.setBeta2(beta2);
+		this.setEpsilon(epsilon);
+	}
+
+	@Override
+	public int getMomentsNum() {
+		return 2;
+	}
+
+	@Override
+	public double weightChange(double gradient, double learningRate, double[][] moments, int index, int step) {
+		return this.weightChange(gradient, learningRate, moments[0], moments[1], index, 1 - Math.pow(this.beta1, step), 1 - Math.pow(this.beta2, step));
+	}
+
+	@Override
+	public void weightChanges(double[] gradients, int offset, double learningRate, double[][] moments, int momentOffset, int length, int step) {
+		double firstCorrection = 1 - Math.pow(this.beta1, step);
+		double secondCorrection = 1 - Math.pow(this.beta2, step);
+		for (int i = 0; i < length; i++)
+			gradients[offset + i] = this.weightChange(gradients[offset + i], learningRate, moments[0], moments[1], momentOffset + i, firstCorrection, secondCorrection);
+	}
+
+	protected double weightChange(double gradient, double learningRate, double[] means, double[] variances, int index, double firstCorrection, double secondCorrection) {
+		means[index] = this.beta1 * means[index] + (1 - this.beta1) * gradient;
+		variances[index] = this.beta2 * variances[index] + (1 - this.beta2) * gradient * gradient;
+		return learningRate * (means[index] / firstCorrection) / (Math.sqrt(variances[index] / secondCorrection) + this.epsilon);
+	}
+
+	public double getBeta1() {
+		return this.beta1;
+	}
+
+	public Adam setBeta1(double beta1) {
+		this.beta1 = checkRate(beta1);
+		return this;
+	}
+
+	public double getBeta2() {
+		return this.beta2;
+	}
+
+	public Adam setBeta2(double beta2) {
+		this.beta2 = checkRate(beta2);
+		return this;
+	}
+
+	public double getEpsilon() {
+		return this.epsilon;
+	}
+
+	public Adam setEpsilon(double epsilon) {
+		this.epsilon = checkEpsilon(epsilon);
+		return this;
+	}
+}
\ No newline at end of file
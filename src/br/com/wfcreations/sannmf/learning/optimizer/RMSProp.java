@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.learning.optimizer;
+
+public class RMSProp extends AbstractOptimizer {
+
+	private static final long serialVersionUID = 1L;
+
+	protected double decay;
+
+	protected double epsilon;
+
+	public RMSProp() {
+		this(0.9, 1e-8);
+	}
+
+	public RMSProp(double decay, double epsilon) {
+		this.setDecay(decay);
+		this.setEpsilon(epsilon);
+	}
+
+	@Override
+	public int getMomentsNum() {
+		return 1;
+	}
+
+	@Override
+	public double weightChange(double gradient, double learningRate, double[][] moments, int index, int step) {
+		double[] squares = moments[0];
+		squares[index] = this.decay * squares[index] + (1 - this.decay) * gradient * gradient;
+		return learningRate * gradient / (Math.sqrt(squares[index]) + this.epsilon);
+	}
+
+	public double getDecay() {
+		return this.decay;
+	}
+
+	public RMSProp setDecay(double decay) {
+		this.decay = checkRate(decay);
+		return this;
+	}
+
+	public double getEpsilon() {
+		return this.epsilon;
+	}
+
+	public RMSProp setEpsilon(double epsilon) {
+		this.epsilon = checkEpsilon(epsilon);
+		return this;
+	}
+}
\ No newline at end of file
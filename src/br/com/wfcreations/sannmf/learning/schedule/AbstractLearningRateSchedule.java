@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.learning.schedule;
+
+import br.com.wfcreations.sannmf.learning.ErrorCorrectionLearning;
+
+public abstract class AbstractLearningRateSchedule implements ILearningRateSchedule {
+
+	private static final long serialVersionUID = 1L;
+
+	@Override
+	public double getLearningRate(ErrorCorrectionLearning learning, double initialRate, double epoch) {
+		return this.getLearningRate(initialRate, epoch);
+	}
+
+	public abstract double getLearningRate(double initialRate, double epoch);
+
+	@Override
+	public void reset() {
+	}
+
+	protected static double cosine(double from, double to, double progress) {
+		return to + (from - to) * (1 + Math.cos(Math.PI * progress)) / 2;
+	}
+
+	protected static double checkPositive(double value) {
+		if (value <= 0)
+			throw new IllegalArgumentException("Must be greater than 0");
+		return value;
+	}
+
+	protected static double checkNonNegative(double value) {
+		if (value < 0)
+			throw new IllegalArgumentException("Can't be negative");
+		return value;
+	}
+}
\ No newline at end of file
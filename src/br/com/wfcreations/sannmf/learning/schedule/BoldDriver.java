@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.learning.schedule;
+
+public class BoldDriver extends AbstractErrorDrivenSchedule {
+
+	private static final long serialVersionUID = 1L;
+
+	protected double increase;
+
+	protected double decrease;
+
+	protected transient double lastError = Double.NaN;
+
+	public BoldDriver() {
+		this(1.05, 0.5, 0);
+	}
+
+	public BoldDriver(double increase, double decrease, double minimumRate) {
+		if (increase < 1)
+			throw new IllegalArgumentException("Increase can't be less than 1");
+		if (decrease <= 0 || decrease > 1)
+			throw new IllegalArgumentException("Decrease must be in (0, 1]");
+		if (minimumRate < 0)
+			throw new IllegalArgumentException("Can't be negative");
+		this.increase = increase;
+		this.decrease = decrease;
+		this.minimumRate = minimumRate;
+	}
+
+	@Override
+	protected double update(double error, double factor) {
+		double lastError = this.lastError;
+		this.lastError = error;
+		if (Double.isNaN(lastError))
+			return factor;
+		return error < lastError ? factor * this.increase : factor * this.decrease;
+	}
+
+	@Override
+	public void reset() {
+		super.reset();
+		this.lastError = Double.NaN;
+	}
+
+	public double getIncrease() {
+		return this.increase;
+	}
+
+	public double getDecrease() {
+		return this.decrease;
+	}
+}
\ No newline at end of file
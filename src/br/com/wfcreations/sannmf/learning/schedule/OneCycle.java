@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.learning.schedule;
+
+public class OneCycle extends AbstractLearningRateSchedule {
+
+	private static final long serialVersionUID = 1L;
+
+	protected double maximumRate;
+
+	protected int epochsNum;
+
+	protected double warmupFraction;
+
+	protected double finalRate;
+
+	public OneCycle(double maximumRate, int epochsNum) {
+		this(maximumRate, epochsNum, 0.3, 0);
+	}
+
+	public OneCycle(double maximumRate, int epochsNum, double warmupFraction, double finalRate) {
+		this.maximumRate = checkPositive(maximumRate);
+		this.epochsNum = (int) checkPositive(epochsNum);
+		if (warmupFraction < 0 || warmupFraction > 1)
+			throw new IllegalArgumentException("Must be in [0, 1]");
+		this.warmupFraction = warmupFraction;
+		this.finalRate = checkNonNegative(finalRate);
+	}
+
+	@Override
+	public double getLearningRate(double initialRate, double epoch) {
+		double warmupEpochs = this.epochsNum * this.warmupFraction;
+		if (epoch < warmupEpochs || warmupEpochs >= this.epochsNum)
+			return cosine(initialRate, this.maximumRate, Math.min(epoch / warmupEpochs, 1));
+		return cosine(this.maximumRate, this.finalRate, Math.min((epoch - warmupEpochs) / (this.epochsNum - warmupEpochs), 1));
+	}
+
+	public double getMaximumRate() {
+		return this.maximumRate;
+	}
+
+	public int getEpochsNum() {
+		return this.epochsNum;
+	}
+
+	public double getWarmupFraction() {
+		return this.warmupFraction;
+	}
+
+	public double getFinalRate() {
+		return this.finalRate;
+	}
+}
\ No newline at end of file
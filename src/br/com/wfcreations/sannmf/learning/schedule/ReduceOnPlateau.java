@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.learning.schedule;
+
+public class ReduceOnPlateau extends AbstractErrorDrivenSchedule {
+
+	private static final long serialVersionUID = 1L;
+
+	protected double decrease;
+
+	protected int patience;
+
+	protected double threshold;
+
+	protected transient double bestError = Double.NaN;
+
+	protected transient int staleEpochs;
+
+	public ReduceOnPlateau() {
+		this(0.5, 5, 1e-4, 0);
+	}
+
+	public ReduceOnPlateau(double decrease, int patience, double threshold, double minimumRate) {
+		if (decrease <= 0 || decrease >= 1)
+			throw new IllegalArgumentException("Decrease must be in (0, 1)");
+		if (patience <= 0)
+			throw new IllegalArgumentException("Patience must be greater than 0");
+		if (threshold < 0 || minimumRate < 0)
+			throw new IllegalArgumentException("Can't be negative");
+		this.decrease = decrease;
+		this.patience = patience;
+		this.threshold = threshold;
+		this.minimumRate = minimumRate;
+	}
+
+	@Override
+	protected double update(double error, double factor) {
+		if (Double.isNaN(this.bestError) || error < this.bestError * (1 - this.threshold)) {
+			this.bestError = error;
+			this.staleEpochs = 0;
+			return factor;
+		}
+		if (++this.staleEpochs < this.patience)
+			return factor;
+		this.staleEpochs = 0;
+		return factor * this.decrease;
+	}
+
+	@Override
+	public void reset() {
+		super.reset();
+		this.bestError = Double.NaN;
+		this.staleEpochs = 0;
+	}
+
+	public double getDecrease() {
+		return this.decrease;
+	}
+
+	public int getPatience() {
+		return this.patience;
+	}
+
+	public double getThreshold() {
+		return this.threshold;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.learning.schedule;
+
+public class WarmRestarts extends AbstractLearningRateSchedule {
+
+	private static final long serialVersionUID = 1L;
+
+	protected int period;
+
+	protected double periodMultiplier;
+
+	protected double minimumRate;
+
+	public WarmRestarts(int period) {
+		this(period, 1, 0);
+	}
+
+	public WarmRestarts(int period, double periodMultiplier, double minimumRate) {
+		this.period = (int) checkPositive(period);
+		if (periodMultiplier < 1)
+			throw new IllegalArgumentException("Period multiplier can't be less than 1");
+		this.periodMultiplier = periodMultiplier;
+		this.minimumRate = checkNonNegative(minimumRate);
+	}
+
+	@Override
+	public double getLearningRate(double initialRate, double epoch) {
+		double cycleStart = 0;
+		double cycleLength = this.period;
+		while (epoch >= cycleStart + cycleLength) {
+			cycleStart += cycleLength;
+			cycleLength *= this.periodMultiplier;
+		}
+		return cosine(initialRate, this.minimumRate, (epoch - cycleStart) / cycleLength);
+	}
+
+	public int getPeriod() {
+		return this.period;
+	}
+
+	public double getPeriodMultiplier() {
+		return this.periodMultiplier;
+	}
+
+	public double getMinimumRate() {
+		return this.minimumRate;
+	}
+}
\ No newline at end of file
@@ -29,16 +29,21 @@
  */
 package br.com.wfcreations.sannmf.structure;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.util.List;
-import java.util.Vector;
 
-public class AbstractLayer implements ILayer {
+import br.com.wfcreations.sannmf.structure.feedforward.AbstractOutputNeuron;
+import br.com.wfcreations.sannmf.utils.FreezableList;
+import br.com.wfcreations.sannmf.utils.IModificationListener;
+
+public class AbstractLayer implements ILayer, IModificationListener {
 
 	private static final long serialVersionUID = 1L;
 
 	protected INeuralNetwork parentNeuralNetwork;
 
-	protected List<INeuron> neurons = new Vector<INeuron>();
+	protected FreezableList<INeuron> neurons = new FreezableList<INeuron>().setListener(this);
 
 	@Override
 	public INeuralNetwork getParentNeuralNetwork() {
@@ -119,4 +124,34 @@ public class AbstractLayer implements ILayer {
 	public int getNeuronsNum() {
 		return this.neurons.size();
 	}
+
+	public AbstractLayer freeze() {
+		this.neurons.freeze();
+		for (INeuron neuron : this.neurons)
+			if (neuron instanceof AbstractOutputNeuron)
+				((AbstractOutputNeuron) neuron).freeze();
+		return this;
+	}
+
+	public boolean isFrozen() {
+		return this.neurons.isFrozen();
+	}
+
+	@Override
+	public void modified() {
+		if (this.parentNeuralNetwork instanceof IModificationListener)
+			((IModificationListener) this.parentNeuralNetwork).modified();
+	}
+
+	@Override
+	public void weightsModified() {
+		if (this.parentNeuralNetwork instanceof IModificationListener)
+			((IModificationListener) this.parentNeuralNetwork).weightsModified();
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		ObjectInputStream.GetField fields = in.readFields();
+		this.parentNeuralNetwork = (INeuralNetwork) fields.get("parentNeuralNetwork", null);
+		this.neurons = FreezableList.<INeuron> valueOf(fields.get("neurons", null)).setListener(this);
+	}
 }
\ No newline at end of file
@@ -29,14 +29,22 @@
  */
 package br.com.wfcreations.sannmf.structure;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.util.List;
-import java.util.Vector;
 
-public abstract class AbstractNeuralNetwork implements INeuralNetwork {
+import br.com.wfcreations.sannmf.utils.FreezableList;
+import br.com.wfcreations.sannmf.utils.IModificationListener;
+
+public abstract class AbstractNeuralNetwork implements INeuralNetwork, IModificationListener {
 
 	private static final long serialVersionUID = 1L;
 
-	protected List<ILayer> layers = new Vector<ILayer>();
+	protected FreezableList<ILayer> layers = new FreezableList<ILayer>().setListener(this);
+
+	protected transient volatile long modifications;
+
+	protected transient volatile boolean weightsModified;
 
 	@Override
 	public boolean addLayer(ILayer layer) {
@@ -47,7 +55,8 @@ public abstract class AbstractNeuralNetwork implements INeuralNetwork {
 	@Override
 	public AbstractNeuralNetwork addLayerAt(int index, ILayer layer) {
 		layer.setParentNeuralNetwork(this);
-		return this.addLayerAt(index, layer);
+		this.layers.add(index, layer);
+		return this;
 	}
 
 	@Override
@@ -80,4 +89,37 @@ public abstract class AbstractNeuralNetwork implements INeuralNetwork {
 	public int getLayersNum() {
 		return this.layers.size();
 	}
+
+	public AbstractNeuralNetwork freeze() {
+		this.layers.freeze();
+		for (ILayer layer : this.layers)
+			if (layer instanceof AbstractLayer)
+				((AbstractLayer) layer).freeze();
+		return this;
+	}
+
+	public boolean isFrozen() {
+		return this.layers.isFrozen();
+	}
+
+	// structure or activation changes
+	@Override
+	public void modified() {
+		this.modifications++;
+	}
+
+	@Override
+	public void weightsModified() {
+		if (!this.weightsModified)
+			this.weightsModified = true;
+	}
+
+	public long getModifications() {
+		return this.modifications;
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		ObjectInputStream.GetField fields = in.readFields();
+		this.layers = FreezableList.<ILayer> valueOf(fields.get("layers", null)).setListener(this);
+	}
 }
\ No newline at end of file
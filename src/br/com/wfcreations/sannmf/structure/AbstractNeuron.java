@@ -29,7 +29,9 @@
  */
 package br.com.wfcreations.sannmf.structure;
 
-public abstract class AbstractNeuron implements INeuron {
+import br.com.wfcreations.sannmf.utils.IModificationListener;
+
+public abstract class AbstractNeuron implements INeuron, IModificationListener {
 
 	private static final long serialVersionUID = 1L;
 
@@ -45,4 +47,16 @@ public abstract class AbstractNeuron implements INeuron {
 		this.parentLayer = parentLayer;
 		return this;
 	}
+
+	@Override
+	public void modified() {
+		if (this.parentLayer instanceof IModificationListener)
+			((IModificationListener) this.parentLayer).modified();
+	}
+
+	@Override
+	public void weightsModified() {
+		if (this.parentLayer instanceof IModificationListener)
+			((IModificationListener) this.parentLayer).weightsModified();
+	}
 }
\ No newline at end of file
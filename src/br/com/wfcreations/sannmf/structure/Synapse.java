@@ -29,6 +29,8 @@
  */
 package br.com.wfcreations.sannmf.structure;
 
+import br.com.wfcreations.sannmf.utils.IModificationListener;
+
 public class Synapse implements ISynapse {
 
 	private static final long serialVersionUID = 1L;
@@ -52,12 +54,14 @@ public class Synapse implements ISynapse {
 	@Override
 	public double incrementWeight(double amout) {
 		this.weight += amout;
+		this.weightsModified();
 		return this.weight;
 	}
 
 	@Override
 	public double decrementWeight(double amout) {
 		this.weight -= amout;
+		this.weightsModified();
 		return this.weight;
 	}
 
@@ -95,6 +99,7 @@ public class Synapse implements ISynapse {
 	@Override
 	public Synapse setWeight(double weight) {
 		this.weight = weight;
+		this.weightsModified();
 		return this;
 	}
 
@@ -108,4 +113,9 @@ public class Synapse implements ISynapse {
 		this.weightChange = weightChange;
 		return this;
 	}
+
+	protected void weightsModified() {
+		if (this.postsynaptic instanceof IModificationListener)
+			((IModificationListener) this.postsynaptic).weightsModified();
+	}
 }
\ No newline at end of file
@@ -0,0 +1,287 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.structure.feedforward;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import br.com.wfcreations.sannmf.SANNMF;
+import br.com.wfcreations.sannmf.learning.optimizer.IOptimizer;
+import br.com.wfcreations.sannmf.structure.INeuron;
+import br.com.wfcreations.sannmf.structure.Synapse;
+
+public abstract class AbstractConnection implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	protected final AbstractOutputNeuron[] presynaptics;
+
+	protected final ProcessorNeuron[] postsynaptics;
+
+	protected final double[] weights;
+
+	protected final boolean[] detached;
+
+	protected int detachedNum;
+
+	protected transient double[] weightChanges;
+
+	protected transient double[] inputs;
+
+	protected transient Object gatherOwner;
+
+	protected transient long gatherStamp;
+
+	protected transient Map<INeuron, Integer> presynapticIndices;
+
+	protected transient Map<INeuron, Integer> postsynapticIndices;
+
+	protected AbstractConnection(AbstractOutputNeuron[] presynaptics, ProcessorNeuron[] postsynaptics, int weightsNum) {
+		if (presynaptics == null)
+			throw new IllegalArgumentException("Presynaptic neurons can't be null");
+		if (postsynaptics == null)
+			throw new IllegalArgumentException("Postsynaptic neurons can't be null");
+		this.presynaptics = presynaptics.clone();
+		this.postsynaptics = postsynaptics.clone();
+		this.weights = new double[weightsNum];
+		this.detached = new boolean[this.postsynaptics.length];
+		if (this.getPresynapticIndices().size() != this.presynaptics.length || this.getPostsynapticIndices().size() != this.postsynaptics.length)
+			throw new IllegalArgumentException("Connection neurons must be distinct");
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		this.getPresynapticIndices();
+		this.getPostsynapticIndices();
+	}
+
+	public abstract int getRowStart(int row);
+
+	public abstract int getRowEnd(int row);
+
+	public abstract int getColumnAt(int entry);
+
+	public abstract int indexOf(int row, int column);
+
+	public abstract int getColumnLength(int column);
+
+	public abstract double weightedSum(int row);
+
+	public abstract double errorSum(int column);
+
+	public abstract AbstractConnection changeWeights(int row, double factor);
+
+	public abstract AbstractConnection addWeightChanges(int row, double factor);
+
+	protected Map<INeuron, Integer> getPresynapticIndices() {
+		if (this.presynapticIndices == null)
+			this.presynapticIndices = indexNeurons(this.presynaptics);
+		return this.presynapticIndices;
+	}
+
+	protected Map<INeuron, Integer> getPostsynapticIndices() {
+		if (this.postsynapticIndices == null)
+			this.postsynapticIndices = indexNeurons(this.postsynaptics);
+		return this.postsynapticIndices;
+	}
+
+	protected static Map<INeuron, Integer> indexNeurons(INeuron[] neurons) {
+		Map<INeuron, Integer> indices = new IdentityHashMap<INeuron, Integer>(neurons.length * 2);
+		for (int i = 0; i < neurons.length; i++) {
+			if (neurons[i] == null)
+				throw new IllegalArgumentException("Neuron can't be null");
+			indices.put(neurons[i], i);
+		}
+		return indices;
+	}
+
+	public int indexOfPresynaptic(INeuron neuron) {
+		Integer index = this.getPresynapticIndices().get(neuron);
+		return index == null ? -1 : index;
+	}
+
+	public int indexOfPostsynaptic(INeuron neuron) {
+		Integer index = this.getPostsynapticIndices().get(neuron);
+		return index == null ? -1 : index;
+	}
+
+	public boolean isConnected(INeuron presynaptic, INeuron postsynaptic) {
+		int row = this.indexOfPostsynaptic(postsynaptic);
+		if (row < 0 || this.detached[row])
+			return false;
+		int column = this.indexOfPresynaptic(presynaptic);
+		return column >= 0 && this.indexOf(row, column) >= 0;
+	}
+
+	public double[] gatherInputs() {
+		return this.gatherInputs(null, 0);
+	}
+
+	protected double[] gatherInputs(Object owner, long stamp) {
+		if (owner != null && owner == this.gatherOwner && stamp == this.gatherStamp)
+			return this.inputs;
+		if (this.inputs == null)
+			this.inputs = new double[this.presynaptics.length];
+		for (int column = 0; column < this.presynaptics.length; column++)
+			this.inputs[column] = this.presynaptics[column].getOutput();
+		this.gatherOwner = owner;
+		this.gatherStamp = stamp;
+		return this.inputs;
+	}
+
+	public double[] getInputs() {
+		if (this.inputs == null)
+			return this.gatherInputs();
+		return this.inputs;
+	}
+
+	public AbstractConnection applyWeightChanges(int row) {
+		if (this.weightChanges == null)
+			return this;
+		int start = this.getRowStart(row);
+		int end = this.getRowEnd(row);
+		SANNMF.getKernel().axpy(1, this.weightChanges, start, this.weights, start, end - start);
+		Arrays.fill(this.weightChanges, start, end, 0);
+		return this.weightsModified();
+	}
+
+	public AbstractConnection applyWeightChanges(int row, IOptimizer optimizer, double learningRate, double[][] moments, int momentOffset, int step) {
+		if (this.weightChanges == null)
+			return this;
+		int start = this.getRowStart(row);
+		int end = this.getRowEnd(row);
+		optimizer.weightChanges(this.weightChanges, start, learningRate, moments, momentOffset, end - start, step);
+		return this.applyWeightChanges(row);
+	}
+
+	public AbstractConnection detach(int row) {
+		if (this.detached[row])
+			return this;
+		ProcessorNeuron postsynaptic = this.postsynaptics[row];
+		this.release(row);
+		for (int entry = this.getRowStart(row); entry < this.getRowEnd(row); entry++) {
+			AbstractOutputNeuron presynaptic = this.presynaptics[this.getColumnAt(entry)];
+			Synapse synapse = new Synapse(presynaptic, postsynaptic, this.weights[entry]);
+			if (this.weightChanges != null) {
+				synapse.setWeightChange(this.weightChanges[entry]);
+				this.weightChanges[entry] = 0;
+			}
+			this.weights[entry] = 0;
+			presynaptic.addOutputSynapse(synapse);
+			postsynaptic.addInputSynapse(synapse);
+		}
+		return this;
+	}
+
+	protected AbstractConnection release(int row) {
+		if (this.detached[row])
+			return this;
+		this.postsynaptics[row].removeInputMatrix(this);
+		this.detached[row] = true;
+		this.detachedNum++;
+		if (this.detachedNum == this.postsynaptics.length)
+			for (AbstractOutputNeuron presynaptic : this.presynaptics)
+				presynaptic.removeOutputMatrix(this);
+		return this;
+	}
+
+	public boolean isDetached(int row) {
+		return this.detached[row];
+	}
+
+	public int getAttachedNum() {
+		return this.postsynaptics.length - this.detachedNum;
+	}
+
+	public int getRowLength(int row) {
+		return this.getRowEnd(row) - this.getRowStart(row);
+	}
+
+	public MatrixSynapse getSynapse(int row, int column) {
+		return new MatrixSynapse(this, row, column);
+	}
+
+	public int getPresynapticsNum() {
+		return this.presynaptics.length;
+	}
+
+	public int getPostsynapticsNum() {
+		return this.postsynaptics.length;
+	}
+
+	public AbstractOutputNeuron getPresynapticAt(int index) {
+		return this.presynaptics[index];
+	}
+
+	public ProcessorNeuron getPostsynapticAt(int index) {
+		return this.postsynaptics[index];
+	}
+
+	public double getWeight(int row, int column) {
+		return this.weights[this.entryOf(row, column)];
+	}
+
+	public AbstractConnection setWeight(int row, int column, double weight) {
+		this.weights[this.entryOf(row, column)] = weight;
+		return this.weightsModified();
+	}
+
+	protected int entryOf(int row, int column) {
+		int entry = this.indexOf(row, column);
+		if (entry < 0)
+			throw new IllegalArgumentException("Neurons are not connected");
+		return entry;
+	}
+
+	public int getWeightsNum() {
+		return this.weights.length;
+	}
+
+	// callers writing to the returned array must call weightsModified afterwards
+	public double[] getWeights() {
+		return this.weights;
+	}
+
+	public AbstractConnection weightsModified() {
+		if (this.postsynaptics.length > 0)
+			this.postsynaptics[0].weightsModified();
+		return this;
+	}
+
+	public double[] getWeightChanges() {
+		if (this.weightChanges == null)
+			this.weightChanges = new double[this.weights.length];
+		return this.weightChanges;
+	}
+}
\ No newline at end of file
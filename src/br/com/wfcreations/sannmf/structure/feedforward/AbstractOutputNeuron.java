@@ -29,25 +29,38 @@
  */
 package br.com.wfcreations.sannmf.structure.feedforward;
 
-import java.util.Iterator;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.Vector;
+import java.util.Map;
 
 import br.com.wfcreations.sannmf.structure.AbstractNeuron;
 import br.com.wfcreations.sannmf.structure.INeuron;
 import br.com.wfcreations.sannmf.structure.ISynapse;
+import br.com.wfcreations.sannmf.utils.FreezableList;
 
 public abstract class AbstractOutputNeuron extends AbstractNeuron implements IOutputtedNeuron {
 
 	private static final long serialVersionUID = 1L;
 
-	protected List<ISynapse> outputSynapses = new Vector<ISynapse>();
+	protected FreezableList<ISynapse> outputSynapses = new FreezableList<ISynapse>(10, true);
+
+	protected FreezableList<AbstractConnection> outputMatrices = new FreezableList<AbstractConnection>(0, true);
 
 	protected double output;
 
+	protected transient Map<INeuron, Integer> outputIndex;
+
+	protected transient int outputIndexVersion;
+
 	@Override
 	public int getOutputsNum() {
-		return this.outputSynapses.size();
+		int outputsNum = this.outputSynapses.size();
+		for (AbstractConnection connection : this.outputMatrices)
+			outputsNum += connection.getColumnLength(connection.indexOfPresynaptic(this));
+		return outputsNum;
 	}
 
 	@Override
@@ -59,8 +72,10 @@ public abstract class AbstractOutputNeuron extends AbstractNeuron implements IOu
 	public boolean hasConnectionTo(INeuron neuron) {
 		if (neuron == null)
 			throw new IllegalArgumentException("Neuron can't be null");
-		for (ISynapse synapse : outputSynapses)
-			if (synapse.getPostsynaptic() == neuron)
+		if (this.getOutputIndex().containsKey(neuron))
+			return true;
+		for (AbstractConnection connection : this.outputMatrices)
+			if (connection.isConnected(this, neuron))
 				return true;
 		return false;
 	}
@@ -72,16 +87,29 @@ public abstract class AbstractOutputNeuron extends AbstractNeuron implements IOu
 		if (synapse.getPresynaptic() != this)
 			throw new IllegalArgumentException("Presynaptical neuron should connect to this");
 
-		if (!this.hasConnectionTo(synapse.getPostsynaptic()))
-			return this.outputSynapses.add(synapse);
-		return false;
+		if (this.hasConnectionTo(synapse.getPostsynaptic()))
+			return false;
+		Map<INeuron, Integer> outputIndex = this.getOutputIndex();
+		this.outputSynapses.add(synapse);
+		outputIndex.put(synapse.getPostsynaptic(), this.outputSynapses.size() - 1);
+		this.outputIndexVersion = this.outputSynapses.getVersion();
+		return true;
 	}
 
 	@Override
 	public boolean removeOutputConnection(ISynapse synapse) {
 		if (synapse.getPresynaptic() != this)
 			throw new IllegalArgumentException("Presynaptic neuron shold connect to this");
-		return this.outputSynapses.remove(synapse);
+		if (synapse instanceof MatrixSynapse) {
+			MatrixSynapse matrixSynapse = (MatrixSynapse) synapse;
+			matrixSynapse.getConnection().detach(matrixSynapse.getRow());
+			return this.removeConnectionTo(matrixSynapse.getPostsynaptic());
+		}
+		Integer index = this.getOutputIndex().get(synapse.getPostsynaptic());
+		if (index == null || this.outputSynapses.get(index) != synapse)
+			return false;
+		this.removeOutputSynapseAt(index);
+		return true;
 	}
 
 	@Override
@@ -89,41 +117,139 @@ public abstract class AbstractOutputNeuron extends AbstractNeuron implements IOu
 		if (neuron == null)
 			throw new IllegalArgumentException("Neuron can't be null");
 
-		boolean changed = false;
-		Iterator<ISynapse> iterator = this.outputSynapses.iterator();
-		ISynapse synapse;
-		while (iterator.hasNext()) {
-			synapse = iterator.next();
-			if (synapse.getPostsynaptic() == neuron) {
-				iterator.remove();
-				changed = true;
-			}
-		}
-		return changed;
+		for (AbstractConnection connection : this.outputMatrices.toArray(new AbstractConnection[0]))
+			if (connection.isConnected(this, neuron))
+				connection.detach(connection.indexOfPostsynaptic(neuron));
+
+		Integer index = this.getOutputIndex().get(neuron);
+		if (index == null)
+			return false;
+		this.removeOutputSynapseAt(index);
+		return true;
 	}
 
 	@Override
 	public boolean removeAllOutputConnections() {
+		for (AbstractConnection connection : this.outputMatrices.toArray(new AbstractConnection[0])) {
+			int column = connection.indexOfPresynaptic(this);
+			for (int row = 0; row < connection.getPostsynapticsNum(); row++)
+				if (connection.indexOf(row, column) >= 0)
+					connection.detach(row);
+		}
 		boolean changed = this.outputSynapses.size() > 0;
 		this.outputSynapses.clear();
+		this.outputIndex = null;
 		return changed;
 	}
 
 	@Override
 	public ISynapse getSynapsenTo(INeuron neuron) {
-		for (ISynapse synapse : this.outputSynapses)
-			if (synapse.getPostsynaptic() == neuron)
-				return synapse;
+		Integer index = this.getOutputIndex().get(neuron);
+		if (index != null)
+			return this.outputSynapses.get(index);
+		for (AbstractConnection connection : this.outputMatrices)
+			if (connection.isConnected(this, neuron))
+				return connection.getSynapse(connection.indexOfPostsynaptic(neuron), connection.indexOfPresynaptic(this));
 		return null;
 	}
 
 	@Override
 	public List<ISynapse> getOutputConnections() {
-		return this.outputSynapses;
+		if (this.outputMatrices.isEmpty())
+			return this.outputSynapses;
+		List<ISynapse> synapses = new ArrayList<ISynapse>(this.getOutputsNum());
+		synapses.addAll(this.outputSynapses);
+		for (AbstractConnection connection : this.outputMatrices) {
+			int column = connection.indexOfPresynaptic(this);
+			for (int row = 0; row < connection.getPostsynapticsNum(); row++)
+				if (!connection.isDetached(row) && connection.indexOf(row, column) >= 0)
+					synapses.add(connection.getSynapse(row, column));
+		}
+		return synapses;
 	}
 
 	@Override
 	public ISynapse getOutputConnectionAt(int index) {
-		return this.outputSynapses.get(index);
+		if (index < this.outputSynapses.size())
+			return this.outputSynapses.get(index);
+		int remaining = index - this.outputSynapses.size();
+		for (AbstractConnection connection : this.outputMatrices) {
+			int column = connection.indexOfPresynaptic(this);
+			int length = connection.getColumnLength(column);
+			if (remaining >= length) {
+				remaining -= length;
+				continue;
+			}
+			for (int row = 0; row < connection.getPostsynapticsNum(); row++)
+				if (!connection.isDetached(row) && connection.indexOf(row, column) >= 0 && remaining-- == 0)
+					return connection.getSynapse(row, column);
+		}
+		throw new IndexOutOfBoundsException("Index: " + index);
+	}
+
+	protected Map<INeuron, Integer> getOutputIndex() {
+		int version = this.outputSynapses.getVersion();
+		if (this.outputIndex == null || this.outputIndexVersion != version) {
+			this.outputIndex = new IdentityHashMap<INeuron, Integer>(this.outputSynapses.size() * 2);
+			for (int i = 0; i < this.outputSynapses.size(); i++)
+				this.outputIndex.put(this.outputSynapses.get(i).getPostsynaptic(), i);
+			this.outputIndexVersion = version;
+		}
+		return this.outputIndex;
+	}
+
+	protected ISynapse removeOutputSynapseAt(int index) {
+		Map<INeuron, Integer> outputIndex = this.getOutputIndex();
+		ISynapse synapse = this.outputSynapses.get(index);
+		// output order carries no meaning, so the last synapse fills the gap
+		int last = this.outputSynapses.size() - 1;
+		if (index != last) {
+			ISynapse moved = this.outputSynapses.get(last);
+			this.outputSynapses.set(index, moved);
+			outputIndex.put(moved.getPostsynaptic(), index);
+		}
+		this.outputSynapses.remove(last);
+		outputIndex.remove(synapse.getPostsynaptic());
+		this.outputIndexVersion = this.outputSynapses.getVersion();
+		return synapse;
+	}
+
+	public AbstractOutputNeuron freeze() {
+		this.outputSynapses.freeze();
+		this.outputMatrices.freeze();
+		return this;
+	}
+
+	public boolean isFrozen() {
+		return this.outputSynapses.isFrozen();
+	}
+
+	public List<ISynapse> getOutputSynapses() {
+		return this.outputSynapses;
+	}
+
+	public List<AbstractConnection> getOutputMatrices() {
+		return this.outputMatrices;
+	}
+
+	public boolean addOutputMatrix(AbstractConnection connection) {
+		if (connection == null)
+			throw new IllegalArgumentException("Connection can't be null");
+		if (connection.indexOfPresynaptic(this) < 0)
+			throw new IllegalArgumentException("Connection should connect from this");
+		if (this.outputMatrices.contains(connection))
+			return false;
+		return this.outputMatrices.add(connection);
+	}
+
+	public boolean removeOutputMatrix(AbstractConnection connection) {
+		return this.outputMatrices.remove(connection);
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		ObjectInputStream.GetField fields = in.readFields();
+		this.outputSynapses = FreezableList.valueOf(fields.get("outputSynapses", null), true);
+		this.outputMatrices = FreezableList.valueOf(fields.get("outputMatrices", null), true);
+		this.output = fields.get("output", 0d);
 	}
 }
\ No newline at end of file
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.structure.feedforward;
+
+import br.com.wfcreations.sannmf.SANNMF;
+
+public class DenseConnection extends AbstractConnection {
+
+	private static final long serialVersionUID = 1L;
+
+	public DenseConnection(AbstractOutputNeuron[] presynaptics, ProcessorNeuron[] postsynaptics) {
+		super(presynaptics, postsynaptics, presynaptics.length * postsynaptics.length);
+	}
+
+	@Override
+	public int getRowStart(int row) {
+		return row * this.presynaptics.length;
+	}
+
+	@Override
+	public int getRowEnd(int row) {
+		return (row + 1) * this.presynaptics.length;
+	}
+
+	@Override
+	public int getColumnAt(int entry) {
+		return entry % this.presynaptics.length;
+	}
+
+	@Override
+	public int indexOf(int row, int column) {
+		return row * this.presynaptics.length + column;
+	}
+
+	@Override
+	public int getColumnLength(int column) {
+		return this.getAttachedNum();
+	}
+
+	@Override
+	public double weightedSum(int row) {
+		int columns = this.presynaptics.length;
+		return SANNMF.getKernel().dot(this.weights, row * columns, this.getInputs(), 0, columns);
+	}
+
+	@Override
+	public double errorSum(int column) {
+		int columns = this.presynaptics.length;
+		double sum = 0;
+		for (int row = 0; row < this.postsynaptics.length; row++)
+			if (!this.detached[row] && this.postsynaptics[row] instanceof ErrorNeuron)
+				sum += ((ErrorNeuron) this.postsynaptics[row]).getError() * this.weights[row * columns + column];
+		return sum;
+	}
+
+	@Override
+	public DenseConnection changeWeights(int row, double factor) {
+		double[] inputs = this.getInputs();
+		double[] weightChanges = this.getWeightChanges();
+		int offset = row * this.presynaptics.length;
+		for (int column = 0; column < inputs.length; column++) {
+			double weightChange = factor * inputs[column];
+			weightChanges[offset + column] = weightChange;
+			this.weights[offset + column] += weightChange;
+		}
+		this.weightsModified();
+		return this;
+	}
+
+	@Override
+	public DenseConnection addWeightChanges(int row, double factor) {
+		int columns = this.presynaptics.length;
+		SANNMF.getKernel().axpy(factor, this.getInputs(), 0, this.getWeightChanges(), row * columns, columns);
+		return this;
+	}
+}
\ No newline at end of file
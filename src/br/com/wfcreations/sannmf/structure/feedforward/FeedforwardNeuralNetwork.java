@@ -29,6 +29,11 @@
  */
 package br.com.wfcreations.sannmf.structure.feedforward;
 
+import br.com.wfcreations.sannmf.compiled.CompiledNetwork;
+import br.com.wfcreations.sannmf.compiled.Precision;
+import br.com.wfcreations.sannmf.compiled.QuantizedNetwork;
+import br.com.wfcreations.sannmf.data.SupervisedSet;
+import br.com.wfcreations.sannmf.function.activation.ActivationModifications;
 import br.com.wfcreations.sannmf.function.weightinitialization.IWeightsInitializer;
 import br.com.wfcreations.sannmf.structure.AbstractNeuralNetwork;
 import br.com.wfcreations.sannmf.structure.ILayer;
@@ -45,6 +50,12 @@ public abstract class FeedforwardNeuralNetwork extends AbstractNeuralNetwork {
 
 	protected IOutputtedNeuron[] outputNeurons;
 
+	protected transient CompiledNetwork compiledNetwork;
+
+	protected transient long compiledModifications;
+
+	protected transient long activationModifications;
+
 	public FeedforwardNeuralNetwork setInput(double... inputs) {
 		if (inputs.length != this.inputNeurons.length)
 			throw new IllegalArgumentException("Input vector size does not match network input dimension");
@@ -63,12 +74,74 @@ public abstract class FeedforwardNeuralNetwork extends AbstractNeuralNetwork {
 	}
 
 	public FeedforwardNeuralNetwork activate() {
-		for (ILayer layer : this.layers)
+		for (Object layer : this.layers.snapshot())
 			if (layer instanceof ProcessorLayer)
 				((ProcessorLayer) layer).activate();
 		return this;
 	}
 
+	public FeedforwardNeuralNetwork activateBatch(double[][] inputs, double[][] outputs) {
+		this.getCompiledNetwork().activateBatch(inputs, outputs);
+		return this;
+	}
+
+	public FeedforwardNeuralNetwork activateBatch(double[] inputs, double[] outputs) {
+		this.getCompiledNetwork().activateBatch(inputs, outputs);
+		return this;
+	}
+
+	public CompiledNetwork getCompiledNetwork() {
+		long activationModifications = ActivationModifications.getCount();
+		if (activationModifications != this.activationModifications) {
+			this.activationModifications = activationModifications;
+			this.modified();
+		}
+		long modifications = this.modifications;
+		if (this.compiledNetwork == null || modifications != this.compiledModifications) {
+			this.weightsModified = false;
+			this.compiledNetwork = this.compile();
+			this.compiledModifications = modifications;
+		} else if (this.weightsModified) {
+			// cleared first so writes made while updating mark the weights again
+			this.weightsModified = false;
+			this.compiledNetwork.update();
+		}
+		return this.compiledNetwork;
+	}
+
+	public CompiledNetwork compile() {
+		return new CompiledNetwork(this);
+	}
+
+	public CompiledNetwork compile(Precision precision) {
+		return new CompiledNetwork(this, precision);
+	}
+
+	public QuantizedNetwork quantize(SupervisedSet calibrationSet) {
+		return new QuantizedNetwork(this.compile(), calibrationSet);
+	}
+
+	public FeedforwardNeuralNetwork setParallel(boolean parallel) {
+		for (ILayer layer : this.layers)
+			if (layer instanceof ProcessorLayer)
+				((ProcessorLayer) layer).setParallel(parallel);
+		return this;
+	}
+
+	public FeedforwardNeuralNetwork setParallelThreshold(int parallelThreshold) {
+		for (ILayer layer : this.layers)
+			if (layer instanceof ProcessorLayer)
+				((ProcessorLayer) layer).setParallelThreshold(parallelThreshold);
+		return this;
+	}
+
+	public FeedforwardNeuralNetwork compact() {
+		for (ILayer layer : this.layers)
+			if (layer instanceof ProcessorLayer)
+				((ProcessorLayer) layer).compact();
+		return this;
+	}
+
 	public FeedforwardNeuralNetwork reset() {
 		for (ILayer layer : this.layers)
 			if (layer instanceof ProcessorLayer)
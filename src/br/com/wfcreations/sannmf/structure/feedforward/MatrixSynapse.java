@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.structure.feedforward;
+
+import br.com.wfcreations.sannmf.structure.INeuron;
+import br.com.wfcreations.sannmf.structure.ISynapse;
+
+public class MatrixSynapse implements ISynapse {
+
+	private static final long serialVersionUID = 1L;
+
+	protected final AbstractConnection connection;
+
+	protected final int row;
+
+	protected final int column;
+
+	protected final int entry;
+
+	public MatrixSynapse(AbstractConnection connection, int row, int column) {
+		if (connection == null)
+			throw new IllegalArgumentException("Connection can't be null");
+		if (row < 0 || row >= connection.getPostsynapticsNum())
+			throw new IndexOutOfBoundsException("Row: " + row);
+		if (column < 0 || column >= connection.getPresynapticsNum())
+			throw new IndexOutOfBoundsException("Column: " + column);
+		this.connection = connection;
+		this.row = row;
+		this.column = column;
+		this.entry = connection.entryOf(row, column);
+	}
+
+	@Override
+	public double incrementWeight(double amout) {
+		double weight = this.connection.weights[this.entry] += amout;
+		this.connection.weightsModified();
+		return weight;
+	}
+
+	@Override
+	public double decrementWeight(double amout) {
+		double weight = this.connection.weights[this.entry] -= amout;
+		this.connection.weightsModified();
+		return weight;
+	}
+
+	@Override
+	public INeuron getPresynaptic() {
+		return this.connection.presynaptics[this.column];
+	}
+
+	@Override
+	public ISynapse setPresynaptic(INeuron presynaptic) {
+		throw new UnsupportedOperationException("Matrix synapses can't be reconnected");
+	}
+
+	@Override
+	public INeuron getPostsynaptic() {
+		return this.connection.postsynaptics[this.row];
+	}
+
+	@Override
+	public ISynapse setPostsynaptic(INeuron postsynaptic) {
+		throw new UnsupportedOperationException("Matrix synapses can't be reconnected");
+	}
+
+	@Override
+	public double getWeight() {
+		return this.connection.weights[this.entry];
+	}
+
+	@Override
+	public MatrixSynapse setWeight(double weight) {
+		this.connection.weights[this.entry] = weight;
+		this.connection.weightsModified();
+		return this;
+	}
+
+	@Override
+	public double getWeightChange() {
+		return this.connection.weightChanges == null ? 0 : this.connection.weightChanges[this.entry];
+	}
+
+	@Override
+	public MatrixSynapse setWeightChange(double weightChange) {
+		this.connection.getWeightChanges()[this.entry] = weightChange;
+		return this;
+	}
+
+	public AbstractConnection getConnection() {
+		return this.connection;
+	}
+
+	public int getRow() {
+		return this.row;
+	}
+
+	public int getColumn() {
+		return this.column;
+	}
+
+	@Override
+	public int hashCode() {
+		return (System.identityHashCode(this.connection) * 31 + this.row) * 31 + this.column;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!(obj instanceof MatrixSynapse))
+			return false;
+		MatrixSynapse other = (MatrixSynapse) obj;
+		return this.connection == other.connection && this.row == other.row && this.column == other.column;
+	}
+}
\ No newline at end of file
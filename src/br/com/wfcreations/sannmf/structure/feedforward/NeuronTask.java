@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.structure.feedforward;
+
+import java.util.concurrent.RecursiveAction;
+
+public abstract class NeuronTask<T extends ProcessorNeuron> extends RecursiveAction {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final int GRAIN = 32;
+
+	protected final T[] neurons;
+
+	protected final int from;
+
+	protected final int to;
+
+	protected NeuronTask(T[] neurons, int from, int to) {
+		this.neurons = neurons;
+		this.from = from;
+		this.to = to;
+	}
+
+	protected abstract NeuronTask<T> split(int from, int to);
+
+	protected abstract void compute(T neuron);
+
+	@Override
+	protected void compute() {
+		if (this.to - this.from > GRAIN) {
+			int middle = (this.from + this.to) >>> 1;
+			invokeAll(this.split(this.from, middle), this.split(middle, this.to));
+			return;
+		}
+		for (int i = this.from; i < this.to; i++)
+			this.compute(this.neurons[i]);
+	}
+}
\ No newline at end of file
@@ -29,17 +29,42 @@
  */
 package br.com.wfcreations.sannmf.structure.feedforward;
 
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import br.com.wfcreations.sannmf.SANNMF;
 import br.com.wfcreations.sannmf.structure.AbstractLayer;
 import br.com.wfcreations.sannmf.structure.INeuron;
+import br.com.wfcreations.sannmf.structure.ISynapse;
+import br.com.wfcreations.sannmf.structure.Synapse;
 
 public class ProcessorLayer extends AbstractLayer {
 
 	private static final long serialVersionUID = 1L;
 
+	public static final int DEFAULT_PARALLEL_THRESHOLD = 256;
+
+	protected boolean parallel;
+
+	protected int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+
+	protected transient long activationStamp;
+
 	public ProcessorLayer activate() {
-		for (INeuron neuron : this.neurons)
+		long stamp = ++this.activationStamp;
+		if (this.isParallel(this.neurons.size())) {
+			ProcessorNeuron[] neurons = this.getProcessorNeurons();
+			for (ProcessorNeuron neuron : neurons)
+				for (AbstractConnection connection : neuron.getInputMatrices())
+					connection.gatherInputs(this, stamp);
+			SANNMF.getForkJoinPool().invoke(new LayerActivationTask(this, neurons, stamp));
+			return this;
+		}
+		for (Object neuron : this.neurons.snapshot())
 			if (neuron instanceof ProcessorNeuron)
-				((ProcessorNeuron) neuron).activate();
+				((ProcessorNeuron) neuron).activate(this, stamp);
 		return this;
 	}
 
@@ -49,4 +74,146 @@ public class ProcessorLayer extends AbstractLayer {
 				((ProcessorNeuron) neuron).reset();
 		return this;
 	}
+
+	public ProcessorNeuron[] getProcessorNeurons() {
+		List<ProcessorNeuron> neurons = new ArrayList<ProcessorNeuron>(this.neurons.size());
+		for (INeuron neuron : this.neurons)
+			if (neuron instanceof ProcessorNeuron)
+				neurons.add((ProcessorNeuron) neuron);
+		return neurons.toArray(new ProcessorNeuron[neurons.size()]);
+	}
+
+	public boolean isParallel() {
+		return this.parallel;
+	}
+
+	public boolean isParallel(int neuronsNum) {
+		return this.parallel && neuronsNum >= this.parallelThreshold;
+	}
+
+	public ProcessorLayer setParallel(boolean parallel) {
+		this.parallel = parallel;
+		return this;
+	}
+
+	public int getParallelThreshold() {
+		return this.parallelThreshold;
+	}
+
+	public ProcessorLayer setParallelThreshold(int parallelThreshold) {
+		if (parallelThreshold <= 0)
+			throw new IllegalArgumentException("Must be greater than 0");
+		this.parallelThreshold = parallelThreshold;
+		return this;
+	}
+
+	public AbstractConnection compact() {
+		List<AbstractOutputNeuron> presynaptics = new ArrayList<AbstractOutputNeuron>();
+		Map<INeuron, Integer> columns = new IdentityHashMap<INeuron, Integer>();
+		List<ProcessorNeuron> postsynaptics = new ArrayList<ProcessorNeuron>();
+		List<ISynapse> synapses = new ArrayList<ISynapse>();
+		int entriesNum = 0;
+		for (INeuron neuron : this.neurons) {
+			if (!(neuron instanceof ProcessorNeuron))
+				continue;
+			ProcessorNeuron postsynaptic = (ProcessorNeuron) neuron;
+			int rowLength = 0;
+			for (ISynapse synapse : postsynaptic.getInputSynapses())
+				if (synapse.getClass() == Synapse.class && synapse.getPresynaptic() instanceof AbstractOutputNeuron) {
+					synapses.add(synapse);
+					rowLength++;
+					if (!columns.containsKey(synapse.getPresynaptic())) {
+						columns.put(synapse.getPresynaptic(), presynaptics.size());
+						presynaptics.add((AbstractOutputNeuron) synapse.getPresynaptic());
+					}
+				}
+			for (AbstractConnection connection : postsynaptic.getInputMatrices()) {
+				int row = connection.indexOfPostsynaptic(postsynaptic);
+				for (int entry = connection.getRowStart(row); entry < connection.getRowEnd(row); entry++) {
+					AbstractOutputNeuron presynaptic = connection.getPresynapticAt(connection.getColumnAt(entry));
+					rowLength++;
+					if (!columns.containsKey(presynaptic)) {
+						columns.put(presynaptic, presynaptics.size());
+						presynaptics.add(presynaptic);
+					}
+				}
+			}
+			if (rowLength > 0) {
+				postsynaptics.add(postsynaptic);
+				entriesNum += rowLength;
+			}
+		}
+		if (postsynaptics.isEmpty())
+			return null;
+
+		int[] rowPointers = new int[postsynaptics.size() + 1];
+		int[] columnIndices = new int[entriesNum];
+		double[] weights = new double[entriesNum];
+		double[] weightChanges = new double[entriesNum];
+		for (int row = 0; row < postsynaptics.size(); row++) {
+			ProcessorNeuron postsynaptic = postsynaptics.get(row);
+			int start = rowPointers[row];
+			int end = start;
+			for (ISynapse synapse : postsynaptic.getInputSynapses())
+				if (synapse.getClass() == Synapse.class && synapse.getPresynaptic() instanceof AbstractOutputNeuron) {
+					columnIndices[end] = columns.get(synapse.getPresynaptic());
+					weights[end] = synapse.getWeight();
+					weightChanges[end++] = synapse.getWeightChange();
+				}
+			for (AbstractConnection connection : postsynaptic.getInputMatrices()) {
+				int matrixRow = connection.indexOfPostsynaptic(postsynaptic);
+				for (int entry = connection.getRowStart(matrixRow); entry < connection.getRowEnd(matrixRow); entry++) {
+					columnIndices[end] = columns.get(connection.getPresynapticAt(connection.getColumnAt(entry)));
+					weights[end] = connection.weights[entry];
+					weightChanges[end++] = connection.weightChanges == null ? 0 : connection.weightChanges[entry];
+				}
+			}
+			rowPointers[row + 1] = end;
+			sortRow(columnIndices, weights, weightChanges, start, end);
+		}
+
+		for (ISynapse synapse : synapses) {
+			((AbstractOutputNeuron) synapse.getPresynaptic()).removeOutputConnection(synapse);
+			((ProcessorNeuron) synapse.getPostsynaptic()).removeInputConnection(synapse);
+		}
+		for (ProcessorNeuron postsynaptic : postsynaptics)
+			for (AbstractConnection connection : postsynaptic.getInputMatrices().toArray(new AbstractConnection[0]))
+				connection.release(connection.indexOfPostsynaptic(postsynaptic));
+
+		AbstractOutputNeuron[] presynapticsArray = presynaptics.toArray(new AbstractOutputNeuron[presynaptics.size()]);
+		ProcessorNeuron[] postsynapticsArray = postsynaptics.toArray(new ProcessorNeuron[postsynaptics.size()]);
+		AbstractConnection connection;
+		if (entriesNum == presynapticsArray.length * postsynapticsArray.length)
+			connection = new DenseConnection(presynapticsArray, postsynapticsArray);
+		else
+			connection = new SparseConnection(presynapticsArray, postsynapticsArray, rowPointers, columnIndices);
+		System.arraycopy(weights, 0, connection.weights, 0, entriesNum);
+		for (double weightChange : weightChanges)
+			if (weightChange != 0) {
+				System.arraycopy(weightChanges, 0, connection.getWeightChanges(), 0, entriesNum);
+				break;
+			}
+		for (AbstractOutputNeuron presynaptic : presynapticsArray)
+			presynaptic.addOutputMatrix(connection);
+		for (ProcessorNeuron postsynaptic : postsynapticsArray)
+			postsynaptic.addInputMatrix(connection);
+		return connection;
+	}
+
+	protected static void sortRow(int[] columnIndices, double[] weights, double[] weightChanges, int start, int end) {
+		for (int i = start + 1; i < end; i++) {
+			int column = columnIndices[i];
+			double weight = weights[i];
+			double weightChange = weightChanges[i];
+			int j = i - 1;
+			for (; j >= start && columnIndices[j] > column; j--) {
+				columnIndices[j + 1] = columnIndices[j];
+				weights[j + 1] = weights[j];
+				weightChanges[j + 1] = weightChanges[j];
+			}
+			columnIndices[j + 1] = column;
+			weights[j + 1] = weight;
+			weightChanges[j + 1] = weightChange;
+		}
+	}
 }
\ No newline at end of file
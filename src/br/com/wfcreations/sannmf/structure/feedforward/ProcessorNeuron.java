@@ -29,9 +29,12 @@
  */
 package br.com.wfcreations.sannmf.structure.feedforward;
 
-import java.util.Iterator;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.Vector;
+import java.util.Map;
 
 import br.com.wfcreations.sannmf.function.activation.IActivationFunction;
 import br.com.wfcreations.sannmf.function.activation.Linear;
@@ -39,12 +42,15 @@ import br.com.wfcreations.sannmf.function.input.IInputFunction;
 import br.com.wfcreations.sannmf.function.input.WeightedSum;
 import br.com.wfcreations.sannmf.structure.INeuron;
 import br.com.wfcreations.sannmf.structure.ISynapse;
+import br.com.wfcreations.sannmf.utils.FreezableList;
 
 public class ProcessorNeuron extends AbstractOutputNeuron implements IInputtedNeuron {
 
 	private static final long serialVersionUID = 1L;
 
-	protected List<ISynapse> inputSynapses = new Vector<ISynapse>();
+	protected FreezableList<ISynapse> inputSynapses = new FreezableList<ISynapse>().setListener(this);
+
+	protected FreezableList<AbstractConnection> inputMatrices = new FreezableList<AbstractConnection>(0).setListener(this);
 
 	protected IInputFunction inputFunction;
 
@@ -54,6 +60,10 @@ public class ProcessorNeuron extends AbstractOutputNeuron implements IInputtedNe
 
 	protected transient double output;
 
+	protected transient Map<INeuron, ISynapse> inputIndex;
+
+	protected transient int inputIndexVersion;
+
 	private Object data;
 
 	public ProcessorNeuron() {
@@ -65,7 +75,30 @@ public class ProcessorNeuron extends AbstractOutputNeuron implements IInputtedNe
 	}
 
 	public ProcessorNeuron activate() {
-		this.inducedLocalField = this.inputFunction.output(this.inputSynapses);
+		return this.activate(null, 0);
+	}
+
+	protected ProcessorNeuron activate(Object owner, long stamp) {
+		if (this.inputFunction.getClass() == WeightedSum.class) {
+			double inducedLocalField = 0;
+			for (Object element : this.inputSynapses.snapshot()) {
+				ISynapse synapse = (ISynapse) element;
+				if (synapse.getPresynaptic() instanceof IOutputtedNeuron)
+					inducedLocalField += ((IOutputtedNeuron) synapse.getPresynaptic()).getOutput() * synapse.getWeight();
+			}
+			for (Object element : this.inputMatrices.snapshot()) {
+				AbstractConnection connection = (AbstractConnection) element;
+				connection.gatherInputs(owner, stamp);
+				inducedLocalField += connection.weightedSum(connection.indexOfPostsynaptic(this));
+			}
+			this.inducedLocalField = inducedLocalField;
+		} else if (this.inputMatrices.isEmpty())
+			this.inducedLocalField = this.inputFunction.output(this.inputSynapses);
+		else {
+			for (AbstractConnection connection : this.inputMatrices)
+				connection.gatherInputs(owner, stamp);
+			this.inducedLocalField = this.inputFunction.output(this.getInputConnections());
+		}
 		this.output = this.activationFunction.output(this.inducedLocalField);
 		return this;
 	}
@@ -87,7 +120,10 @@ public class ProcessorNeuron extends AbstractOutputNeuron implements IInputtedNe
 
 	@Override
 	public int getInputsNum() {
-		return this.inputSynapses.size();
+		int inputsNum = this.inputSynapses.size();
+		for (AbstractConnection connection : this.inputMatrices)
+			inputsNum += connection.getRowLength(connection.indexOfPostsynaptic(this));
+		return inputsNum;
 	}
 
 	@Override
@@ -99,8 +135,10 @@ public class ProcessorNeuron extends AbstractOutputNeuron implements IInputtedNe
 	public boolean hasConnectionFrom(INeuron neuron) {
 		if (neuron == null)
 			throw new IllegalArgumentException("Neuron can't be null");
-		for (ISynapse synapse : inputSynapses)
-			if (synapse.getPresynaptic() == neuron)
+		if (this.getInputIndex().containsKey(neuron))
+			return true;
+		for (AbstractConnection connection : this.inputMatrices)
+			if (connection.isConnected(neuron, this))
 				return true;
 		return false;
 	}
@@ -112,10 +150,13 @@ public class ProcessorNeuron extends AbstractOutputNeuron implements IInputtedNe
 		if (synapse.getPostsynaptic() != this)
 			throw new IllegalArgumentException("Postsynaptical neuron should connect to this");
 
-		if (!this.hasConnectionFrom(synapse.getPresynaptic())) {
-			return this.inputSynapses.add(synapse);
-		}
-		return false;
+		if (this.hasConnectionFrom(synapse.getPresynaptic()))
+			return false;
+		Map<INeuron, ISynapse> inputIndex = this.getInputIndex();
+		this.inputSynapses.add(synapse);
+		inputIndex.put(synapse.getPresynaptic(), synapse);
+		this.inputIndexVersion = this.inputSynapses.getVersion();
+		return true;
 	}
 
 	@Override
@@ -124,49 +165,126 @@ public class ProcessorNeuron extends AbstractOutputNeuron implements IInputtedNe
 			throw new IllegalArgumentException("Synapse can't be null");
 		if (synapse.getPostsynaptic() != this)
 			throw new IllegalArgumentException("Postsynaptical neuron shold connect to this");
-		return this.inputSynapses.remove(synapse);
+		if (synapse instanceof MatrixSynapse) {
+			MatrixSynapse matrixSynapse = (MatrixSynapse) synapse;
+			matrixSynapse.getConnection().detach(matrixSynapse.getRow());
+			return this.removeConnectionFrom(matrixSynapse.getPresynaptic());
+		}
+		if (this.getInputIndex().get(synapse.getPresynaptic()) != synapse)
+			return false;
+		return this.removeInputSynapse(synapse);
 	}
 
 	@Override
 	public boolean removeConnectionFrom(INeuron neuron) {
 		if (neuron == null)
 			throw new IllegalArgumentException("Neuron can't be null");
-		boolean change = false;
-		Iterator<ISynapse> iterator = this.inputSynapses.iterator();
-		ISynapse synapse;
-		while (iterator.hasNext()) {
-			synapse = iterator.next();
-			if (synapse.getPresynaptic() == neuron) {
-				iterator.remove();
-				change = true;
-			}
-		}
-		return change;
+		for (AbstractConnection connection : this.inputMatrices.toArray(new AbstractConnection[0]))
+			if (connection.isConnected(neuron, this))
+				connection.detach(connection.indexOfPostsynaptic(this));
+		ISynapse synapse = this.getInputIndex().get(neuron);
+		return synapse != null && this.removeInputSynapse(synapse);
 	}
 
 	@Override
 	public boolean removeAllInputConnections() {
+		for (AbstractConnection connection : this.inputMatrices.toArray(new AbstractConnection[0]))
+			connection.detach(connection.indexOfPostsynaptic(this));
 		boolean changed = this.inputSynapses.size() > 0;
 		this.inputSynapses.clear();
+		this.inputIndex = null;
 		return changed;
 	}
 
 	@Override
 	public ISynapse getSynapseFrom(INeuron neuron) {
-		for (ISynapse synapse : this.inputSynapses)
-			if (synapse.getPresynaptic() == neuron)
-				return synapse;
+		ISynapse synapse = this.getInputIndex().get(neuron);
+		if (synapse != null)
+			return synapse;
+		for (AbstractConnection connection : this.inputMatrices)
+			if (connection.isConnected(neuron, this))
+				return connection.getSynapse(connection.indexOfPostsynaptic(this), connection.indexOfPresynaptic(neuron));
 		return null;
 	}
 
 	@Override
 	public List<ISynapse> getInputConnections() {
-		return this.inputSynapses;
+		if (this.inputMatrices.isEmpty())
+			return this.inputSynapses;
+		List<ISynapse> synapses = new ArrayList<ISynapse>(this.getInputsNum());
+		synapses.addAll(this.inputSynapses);
+		for (AbstractConnection connection : this.inputMatrices) {
+			int row = connection.indexOfPostsynaptic(this);
+			for (int entry = connection.getRowStart(row); entry < connection.getRowEnd(row); entry++)
+				synapses.add(connection.getSynapse(row, connection.getColumnAt(entry)));
+		}
+		return synapses;
 	}
 
 	@Override
 	public ISynapse getInputConnectionAt(int index) {
-		return this.inputSynapses.get(index);
+		if (index < this.inputSynapses.size())
+			return this.inputSynapses.get(index);
+		int remaining = index - this.inputSynapses.size();
+		for (AbstractConnection connection : this.inputMatrices) {
+			int row = connection.indexOfPostsynaptic(this);
+			if (remaining < connection.getRowLength(row))
+				return connection.getSynapse(row, connection.getColumnAt(connection.getRowStart(row) + remaining));
+			remaining -= connection.getRowLength(row);
+		}
+		throw new IndexOutOfBoundsException("Index: " + index);
+	}
+
+	protected Map<INeuron, ISynapse> getInputIndex() {
+		int version = this.inputSynapses.getVersion();
+		if (this.inputIndex == null || this.inputIndexVersion != version) {
+			this.inputIndex = new IdentityHashMap<INeuron, ISynapse>(this.inputSynapses.size() * 2);
+			for (ISynapse synapse : this.inputSynapses)
+				this.inputIndex.put(synapse.getPresynaptic(), synapse);
+			this.inputIndexVersion = version;
+		}
+		return this.inputIndex;
+	}
+
+	protected boolean removeInputSynapse(ISynapse synapse) {
+		// input order lines up with the weights, so the list keeps it
+		Map<INeuron, ISynapse> inputIndex = this.getInputIndex();
+		if (!this.inputSynapses.remove(synapse))
+			return false;
+		inputIndex.remove(synapse.getPresynaptic());
+		this.inputIndexVersion = this.inputSynapses.getVersion();
+		return true;
+	}
+
+	@Override
+	public ProcessorNeuron freeze() {
+		super.freeze();
+		this.inputSynapses.freeze();
+		this.inputMatrices.freeze();
+		return this;
+	}
+
+	public List<ISynapse> getInputSynapses() {
+		return this.inputSynapses;
+	}
+
+	public List<AbstractConnection> getInputMatrices() {
+		return this.inputMatrices;
+	}
+
+	public boolean addInputMatrix(AbstractConnection connection) {
+		if (connection == null)
+			throw new IllegalArgumentException("Connection can't be null");
+		int row = connection.indexOfPostsynaptic(this);
+		if (row < 0 || connection.isDetached(row))
+			throw new IllegalArgumentException("Connection should connect to this");
+		if (this.inputMatrices.contains(connection))
+			return false;
+		return this.inputMatrices.add(connection);
+	}
+
+	public boolean removeInputMatrix(AbstractConnection connection) {
+		return this.inputMatrices.remove(connection);
 	}
 
 	@Override
@@ -177,6 +295,7 @@ public class ProcessorNeuron extends AbstractOutputNeuron implements IInputtedNe
 	@Override
 	public ProcessorNeuron setInputFunction(IInputFunction inputFunction) {
 		this.inputFunction = inputFunction;
+		this.modified();
 		return this;
 	}
 
@@ -192,6 +311,7 @@ public class ProcessorNeuron extends AbstractOutputNeuron implements IInputtedNe
 
 	public ProcessorNeuron setActivationFunction(IActivationFunction activationFunction) {
 		this.activationFunction = activationFunction;
+		this.modified();
 		return this;
 	}
 
@@ -203,4 +323,13 @@ public class ProcessorNeuron extends AbstractOutputNeuron implements IInputtedNe
 		this.data = data;
 		return this;
 	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		ObjectInputStream.GetField fields = in.readFields();
+		this.inputSynapses = FreezableList.<ISynapse> valueOf(fields.get("inputSynapses", null)).setListener(this);
+		this.inputMatrices = FreezableList.<AbstractConnection> valueOf(fields.get("inputMatrices", null)).setListener(this);
+		this.inputFunction = (IInputFunction) fields.get("inputFunction", null);
+		this.activationFunction = (IActivationFunction) fields.get("activationFunction", null);
+		this.data = fields.get("data", null);
+	}
 }
\ No newline at end of file
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.structure.feedforward;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.Arrays;
+
+public class SparseConnection extends AbstractConnection {
+
+	private static final long serialVersionUID = 1L;
+
+	protected final int[] rowPointers;
+
+	protected final int[] columnIndices;
+
+	protected transient int[] columnPointers;
+
+	protected transient int[] columnEntries;
+
+	protected transient int[] columnRows;
+
+	public SparseConnection(AbstractOutputNeuron[] presynaptics, ProcessorNeuron[] postsynaptics, int[] rowPointers, int[] columnIndices) {
+		super(presynaptics, postsynaptics, columnIndices.length);
+		if (rowPointers.length != postsynaptics.length + 1 || rowPointers[0] != 0 || rowPointers[postsynaptics.length] != columnIndices.length)
+			throw new IllegalArgumentException("Invalid row pointers");
+		for (int row = 0; row < postsynaptics.length; row++) {
+			if (rowPointers[row] > rowPointers[row + 1])
+				throw new IllegalArgumentException("Invalid row pointers");
+			for (int entry = rowPointers[row]; entry < rowPointers[row + 1]; entry++)
+				if (columnIndices[entry] < 0 || columnIndices[entry] >= presynaptics.length || (entry > rowPointers[row] && columnIndices[entry] <= columnIndices[entry - 1]))
+					throw new IllegalArgumentException("Column indices must be sorted and unique within a row");
+		}
+		this.rowPointers = rowPointers.clone();
+		this.columnIndices = columnIndices.clone();
+		this.buildColumnIndex();
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		this.buildColumnIndex();
+	}
+
+	protected void buildColumnIndex() {
+		int[] columnPointers = new int[this.presynaptics.length + 1];
+		for (int column : this.columnIndices)
+			columnPointers[column + 1]++;
+		for (int column = 0; column < this.presynaptics.length; column++)
+			columnPointers[column + 1] += columnPointers[column];
+		int[] next = Arrays.copyOf(columnPointers, this.presynaptics.length);
+		int[] columnEntries = new int[this.columnIndices.length];
+		int[] columnRows = new int[this.columnIndices.length];
+		for (int row = 0; row < this.postsynaptics.length; row++)
+			for (int entry = this.rowPointers[row]; entry < this.rowPointers[row + 1]; entry++) {
+				int position = next[this.columnIndices[entry]]++;
+				columnEntries[position] = entry;
+				columnRows[position] = row;
+			}
+		this.columnEntries = columnEntries;
+		this.columnRows = columnRows;
+		this.columnPointers = columnPointers;
+	}
+
+	@Override
+	public int getRowStart(int row) {
+		return this.rowPointers[row];
+	}
+
+	@Override
+	public int getRowEnd(int row) {
+		return this.rowPointers[row + 1];
+	}
+
+	@Override
+	public int getColumnAt(int entry) {
+		return this.columnIndices[entry];
+	}
+
+	@Override
+	public int indexOf(int row, int column) {
+		int entry = Arrays.binarySearch(this.columnIndices, this.rowPointers[row], this.rowPointers[row + 1], column);
+		return entry < 0 ? -1 : entry;
+	}
+
+	@Override
+	public int getColumnLength(int column) {
+		int length = 0;
+		for (int k = this.columnPointers[column]; k < this.columnPointers[column + 1]; k++)
+			if (!this.detached[this.columnRows[k]])
+				length++;
+		return length;
+	}
+
+	@Override
+	public double weightedSum(int row) {
+		double[] inputs = this.getInputs();
+		double sum = 0;
+		for (int entry = this.rowPointers[row]; entry < this.rowPointers[row + 1]; entry++)
+			sum += this.weights[entry] * inputs[this.columnIndices[entry]];
+		return sum;
+	}
+
+	@Override
+	public double errorSum(int column) {
+		double sum = 0;
+		for (int k = this.columnPointers[column]; k < this.columnPointers[column + 1]; k++) {
+			int row = this.columnRows[k];
+			if (!this.detached[row] && this.postsynaptics[row] instanceof ErrorNeuron)
+				sum += ((ErrorNeuron) this.postsynaptics[row]).getError() * this.weights[this.columnEntries[k]];
+		}
+		return sum;
+	}
+
+	@Override
+	public SparseConnection changeWeights(int row, double factor) {
+		double[] inputs = this.getInputs();
+		double[] weightChanges = this.getWeightChanges();
+		for (int entry = this.rowPointers[row]; entry < this.rowPointers[row + 1]; entry++) {
+			double weightChange = factor * inputs[this.columnIndices[entry]];
+			weightChanges[entry] = weightChange;
+			this.weights[entry] += weightChange;
+		}
+		this.weightsModified();
+		return this;
+	}
+
+	@Override
+	public SparseConnection addWeightChanges(int row, double factor) {
+		double[] inputs = this.getInputs();
+		double[] weightChanges = this.getWeightChanges();
+		for (int entry = this.rowPointers[row]; entry < this.rowPointers[row + 1]; entry++)
+			weightChanges[entry] += factor * inputs[this.columnIndices[entry]];
+		return this;
+	}
+
+	public int[] getRowPointers() {
+		return this.rowPointers;
+	}
+
+	public int[] getColumnIndices() {
+		return this.columnIndices;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.utils;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+public class FreezableList<E> extends AbstractList<E> implements RandomAccess, Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	protected static final Object[] EMPTY = new Object[0];
+
+	protected Object[] elements;
+
+	protected int size;
+
+	protected boolean frozen;
+
+	// unpublished lists never hand out snapshots while mutable, so in place edits stay O(1)
+	protected boolean unpublished;
+
+	protected transient volatile int version;
+
+	protected transient volatile Object[] snapshot;
+
+	protected transient IModificationListener listener;
+
+	public FreezableList() {
+		this(10);
+	}
+
+	public FreezableList(int capacity) {
+		this(capacity, false);
+	}
+
+	public FreezableList(int capacity, boolean unpublished) {
+		if (capacity < 0)
+			throw new IllegalArgumentException("Capacity can't be negative");
+		this.elements = capacity == 0 ? EMPTY : new Object[capacity];
+		this.unpublished = unpublished;
+		this.publish();
+	}
+
+	public FreezableList(Collection<? extends E> collection) {
+		this.elements = collection.toArray();
+		if (this.elements.getClass() != Object[].class)
+			this.elements = Arrays.copyOf(this.elements, this.elements.length, Object[].class);
+		this.size = this.elements.length;
+		this.publish();
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public E get(int index) {
+		if (index < 0 || index >= this.size)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+		return (E) this.elements[index];
+	}
+
+	@Override
+	public int size() {
+		return this.size;
+	}
+
+	@Override
+	public E set(int index, E element) {
+		E previous = this.get(index);
+		this.checkMutable();
+		this.elements[index] = element;
+		this.modified();
+		return previous;
+	}
+
+	@Override
+	public boolean add(E element) {
+		this.checkMutable();
+		if (this.size == this.elements.length)
+			this.grow(this.size + 1);
+		this.elements[this.size++] = element;
+		this.modCount++;
+		this.modified();
+		return true;
+	}
+
+	@Override
+	public void add(int index, E element) {
+		if (index < 0 || index > this.size)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+		this.checkMutable();
+		if (this.size == this.elements.length)
+			this.grow(this.size + 1);
+		System.arraycopy(this.elements, index, this.elements, index + 1, this.size - index);
+		this.elements[index] = element;
+		this.size++;
+		this.modCount++;
+		this.modified();
+	}
+
+	@Override
+	public boolean addAll(Collection<? extends E> collection) {
+		Object[] added = collection.toArray();
+		if (added.length == 0)
+			return false;
+		this.checkMutable();
+		if (this.size + added.length > this.elements.length)
+			this.grow(this.size + added.length);
+		System.arraycopy(added, 0, this.elements, this.size, added.length);
+		this.size += added.length;
+		this.modCount++;
+		this.modified();
+		return true;
+	}
+
+	@Override
+	public E remove(int index) {
+		E removed = this.get(index);
+		this.checkMutable();
+		System.arraycopy(this.elements, index + 1, this.elements, index, this.size - index - 1);
+		this.elements[--this.size] = null;
+		this.modCount++;
+		this.modified();
+		return removed;
+	}
+
+	@Override
+	public void clear() {
+		this.checkMutable();
+		Arrays.fill(this.elements, 0, this.size, null);
+		this.size = 0;
+		this.modCount++;
+		this.modified();
+	}
+
+	@Override
+	public int indexOf(Object element) {
+		for (int i = 0; i < this.size; i++)
+			if (element == null ? this.elements[i] == null : element.equals(this.elements[i]))
+				return i;
+		return -1;
+	}
+
+	// readers only ever see arrays published by the writer, never the backing array
+	public Object[] snapshot() {
+		Object[] snapshot = this.snapshot;
+		if (snapshot == null)
+			throw new IllegalStateException("List does not publish snapshots until frozen");
+		return snapshot;
+	}
+
+	public FreezableList<E> freeze() {
+		if (this.frozen)
+			return this;
+		if (this.elements.length != this.size)
+			this.elements = this.size == 0 ? EMPTY : Arrays.copyOf(this.elements, this.size);
+		this.frozen = true;
+		this.version++;
+		this.publish();
+		return this;
+	}
+
+	public int getVersion() {
+		return this.version;
+	}
+
+	public boolean isFrozen() {
+		return this.frozen;
+	}
+
+	public boolean isUnpublished() {
+		return this.unpublished;
+	}
+
+	public IModificationListener getListener() {
+		return this.listener;
+	}
+
+	public FreezableList<E> setListener(IModificationListener listener) {
+		this.listener = listener;
+		return this;
+	}
+
+	protected void checkMutable() {
+		if (this.frozen)
+			throw new IllegalStateException("List is frozen");
+	}
+
+	protected void grow(int capacity) {
+		this.elements = Arrays.copyOf(this.elements, Math.max(Math.max(4, capacity), this.elements.length + (this.elements.length >> 1)));
+	}
+
+	protected void modified() {
+		this.version++;
+		this.publish();
+		if (this.listener != null)
+			this.listener.modified();
+	}
+
+	protected void publish() {
+		if (!this.unpublished || this.frozen)
+			this.snapshot = this.size == 0 ? EMPTY : Arrays.copyOf(this.elements, this.size);
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		this.publish();
+	}
+
+	public static <E> FreezableList<E> valueOf(Object value) {
+		return valueOf(value, false);
+	}
+
+	@SuppressWarnings("unchecked")
+	public static <E> FreezableList<E> valueOf(Object value, boolean unpublished) {
+		if (value instanceof FreezableList)
+			return (FreezableList<E>) value;
+		FreezableList<E> list = new FreezableList<E>(0, unpublished);
+		if (value != null)
+			list.addAll((Collection<? extends E>) value);
+		return list;
+	}
+}
\ No newline at end of file
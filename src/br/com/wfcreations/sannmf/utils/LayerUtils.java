@@ -123,7 +123,7 @@ public abstract class LayerUtils {
 	public static List<ErrorNeuron> getErrorNeurons(ILayer layer) {
 		List<ErrorNeuron> neurons = new ArrayList<ErrorNeuron>();
 		for (INeuron neuron : layer.getNeurons()) {
-			if (neuron instanceof ProcessorNeuron)
+			if (neuron instanceof ErrorNeuron)
 				neurons.add((ErrorNeuron) neuron);
 		}
 		return neurons;
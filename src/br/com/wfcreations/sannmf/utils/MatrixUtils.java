@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.utils;
+
+import br.com.wfcreations.sannmf.SANNMF;
+import br.com.wfcreations.sannmf.kernel.IKernel;
+
+public abstract class MatrixUtils {
+
+	public static final int ROW_TILE = 32;
+
+	public static final int COLUMN_TILE = 64;
+
+	public static final int DEPTH_TILE = 256;
+
+	// c[r][j] += sum(a[r][k] * b[j][k]), all matrices row-major with the given strides
+	public static void multiplyTransposed(int rows, int columns, int depth, double[] a, int aOffset, int aStride, double[] b, int bOffset, int bStride, double[] c, int cOffset, int cStride) {
+		for (int r0 = 0; r0 < rows; r0 += ROW_TILE) {
+			int r1 = Math.min(r0 + ROW_TILE, rows);
+			for (int j0 = 0; j0 < columns; j0 += COLUMN_TILE) {
+				int j1 = Math.min(j0 + COLUMN_TILE, columns);
+				for (int k0 = 0; k0 < depth; k0 += DEPTH_TILE) {
+					int k1 = Math.min(k0 + DEPTH_TILE, depth);
+					for (int r = r0; r < r1; r++)
+						multiplyRowTile(a, aOffset + r * aStride, b, bOffset, bStride, c, cOffset + r * cStride, j0, j1, k0, k1);
+				}
+			}
+		}
+	}
+
+	private static void multiplyRowTile(double[] a, int aRow, double[] b, int bOffset, int bStride, double[] c, int cRow, int j0, int j1, int k0, int k1) {
+		int j = j0;
+		for (; j + 3 < j1; j += 4) {
+			int b0 = bOffset + j * bStride;
+			int b1 = b0 + bStride;
+			int b2 = b1 + bStride;
+			int b3 = b2 + bStride;
+			double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+			for (int k = k0; k < k1; k++) {
+				double x = a[aRow + k];
+				s0 += x * b[b0 + k];
+				s1 += x * b[b1 + k];
+				s2 += x * b[b2 + k];
+				s3 += x * b[b3 + k];
+			}
+			c[cRow + j] += s0;
+			c[cRow + j + 1] += s1;
+			c[cRow + j + 2] += s2;
+			c[cRow + j + 3] += s3;
+		}
+		for (; j < j1; j++) {
+			int b0 = bOffset + j * bStride;
+			double s0 = 0;
+			for (int k = k0; k < k1; k++)
+				s0 += a[aRow + k] * b[b0 + k];
+			c[cRow + j] += s0;
+		}
+	}
+
+	public static void multiplyTransposed(int rows, int columns, int depth, float[] a, int aOffset, int aStride, float[] b, int bOffset, int bStride, float[] c, int cOffset, int cStride) {
+		for (int r0 = 0; r0 < rows; r0 += ROW_TILE) {
+			int r1 = Math.min(r0 + ROW_TILE, rows);
+			for (int j0 = 0; j0 < columns; j0 += COLUMN_TILE) {
+				int j1 = Math.min(j0 + COLUMN_TILE, columns);
+				for (int k0 = 0; k0 < depth; k0 += DEPTH_TILE) {
+					int k1 = Math.min(k0 + DEPTH_TILE, depth);
+					for (int r = r0; r < r1; r++)
+						multiplyRowTile(a, aOffset + r * aStride, b, bOffset, bStride, c, cOffset + r * cStride, j0, j1, k0, k1);
+				}
+			}
+		}
+	}
+
+	public static void multiplyTransposed(int rows, int columns, int depth, double[] a, int aOffset, int aStride, float[] b, int bOffset, int bStride, double[] c, int cOffset, int cStride) {
+		for (int r0 = 0; r0 < rows; r0 += ROW_TILE) {
+			int r1 = Math.min(r0 + ROW_TILE, rows);
+			for (int j0 = 0; j0 < columns; j0 += COLUMN_TILE) {
+				int j1 = Math.min(j0 + COLUMN_TILE, columns);
+				for (int k0 = 0; k0 < depth; k0 += DEPTH_TILE) {
+					int k1 = Math.min(k0 + DEPTH_TILE, depth);
+					for (int r = r0; r < r1; r++)
+						multiplyRowTile(a, aOffset + r * aStride, b, bOffset, bStride, c, cOffset + r * cStride, j0, j1, k0, k1);
+				}
+			}
+		}
+	}
+
+	private static void multiplyRowTile(float[] a, int aRow, float[] b, int bOffset, int bStride, float[] c, int cRow, int j0, int j1, int k0, int k1) {
+		int j = j0;
+		for (; j + 3 < j1; j += 4) {
+			int b0 = bOffset + j * bStride;
+			int b1 = b0 + bStride;
+			int b2 = b1 + bStride;
+			int b3 = b2 + bStride;
+			float s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+			for (int k = k0; k < k1; k++) {
+				float x = a[aRow + k];
+				s0 += x * b[b0 + k];
+				s1 += x * b[b1 + k];
+				s2 += x * b[b2 + k];
+				s3 += x * b[b3 + k];
+			}
+			c[cRow + j] += s0;
+			c[cRow + j + 1] += s1;
+			c[cRow + j + 2] += s2;
+			c[cRow + j + 3] += s3;
+		}
+		for (; j < j1; j++) {
+			int b0 = bOffset + j * bStride;
+			float s0 = 0;
+			for (int k = k0; k < k1; k++)
+				s0 += a[aRow + k] * b[b0 + k];
+			c[cRow + j] += s0;
+		}
+	}
+
+	private static void multiplyRowTile(double[] a, int aRow, float[] b, int bOffset, int bStride, double[] c, int cRow, int j0, int j1, int k0, int k1) {
+		int j = j0;
+		for (; j + 3 < j1; j += 4) {
+			int b0 = bOffset + j * bStride;
+			int b1 = b0 + bStride;
+			int b2 = b1 + bStride;
+			int b3 = b2 + bStride;
+			double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+			for (int k = k0; k < k1; k++) {
+				double x = a[aRow + k];
+				s0 += x * b[b0 + k];
+				s1 += x * b[b1 + k];
+				s2 += x * b[b2 + k];
+				s3 += x * b[b3 + k];
+			}
+			c[cRow + j] += s0;
+			c[cRow + j + 1] += s1;
+			c[cRow + j + 2] += s2;
+			c[cRow + j + 3] += s3;
+		}
+		for (; j < j1; j++) {
+			int b0 = bOffset + j * bStride;
+			double s0 = 0;
+			for (int k = k0; k < k1; k++)
+				s0 += a[aRow + k] * b[b0 + k];
+			c[cRow + j] += s0;
+		}
+	}
+
+	// in-place lower triangular factor of a row-major symmetric matrix, only the lower triangle is read
+	public static boolean choleskyDecompose(double[] a, int n) {
+		IKernel kernel = SANNMF.getKernel();
+		for (int i = 0; i < n; i++) {
+			int row = i * n;
+			for (int j = 0; j < i; j++) {
+				int column = j * n;
+				a[row + j] = (a[row + j] - kernel.dot(a, row, a, column, j)) / a[column + j];
+			}
+			double diagonal = a[row + i] - kernel.dot(a, row, a, row, i);
+			if (!(diagonal > 0))
+				return false;
+			a[row + i] = Math.sqrt(diagonal);
+		}
+		return true;
+	}
+
+	// solves l * transpose(l) * x = b in place using the factor computed by choleskyDecompose
+	public static void choleskySolve(double[] l, int n, double[] b) {
+		IKernel kernel = SANNMF.getKernel();
+		for (int i = 0; i < n; i++)
+			b[i] = (b[i] - kernel.dot(l, i * n, b, 0, i)) / l[i * n + i];
+		for (int i = n - 1; i >= 0; i--) {
+			double sum = b[i];
+			for (int k = i + 1; k < n; k++)
+				sum -= l[k * n + i] * b[k];
+			b[i] = sum / l[i * n + i];
+		}
+	}
+}
\ No newline at end of file
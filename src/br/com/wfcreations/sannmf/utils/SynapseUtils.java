@@ -29,12 +29,20 @@
  */
 package br.com.wfcreations.sannmf.utils;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import br.com.wfcreations.sannmf.structure.ILayer;
 import br.com.wfcreations.sannmf.structure.INeuron;
+import br.com.wfcreations.sannmf.structure.ISynapse;
 import br.com.wfcreations.sannmf.structure.Synapse;
+import br.com.wfcreations.sannmf.structure.feedforward.AbstractOutputNeuron;
 import br.com.wfcreations.sannmf.structure.feedforward.BiasNeuron;
+import br.com.wfcreations.sannmf.structure.feedforward.DenseConnection;
 import br.com.wfcreations.sannmf.structure.feedforward.IInputtedNeuron;
 import br.com.wfcreations.sannmf.structure.feedforward.IOutputtedNeuron;
+import br.com.wfcreations.sannmf.structure.feedforward.ProcessorNeuron;
+import br.com.wfcreations.sannmf.structure.feedforward.SparseConnection;
 
 public abstract class SynapseUtils {
 
@@ -57,20 +65,65 @@ public abstract class SynapseUtils {
 		presynaptical.removeConnectionTo(presynaptical);
 	}
 
-	public static void disconnectSynapse(Synapse synapse) {
+	public static void disconnectSynapse(ISynapse synapse) {
 		((IOutputtedNeuron) synapse.getPresynaptic()).removeOutputConnection(synapse);
 		((IInputtedNeuron) synapse.getPostsynaptic()).removeInputConnection(synapse);
 	}
 
+	public static DenseConnection denseConnect(List<? extends AbstractOutputNeuron> presynapticals, List<? extends ProcessorNeuron> postsynapticals) {
+		DenseConnection connection = new DenseConnection(presynapticals.toArray(new AbstractOutputNeuron[presynapticals.size()]), postsynapticals.toArray(new ProcessorNeuron[postsynapticals.size()]));
+		for (AbstractOutputNeuron presynaptical : presynapticals)
+			presynaptical.addOutputMatrix(connection);
+		for (ProcessorNeuron postsynaptical : postsynapticals)
+			postsynaptical.addInputMatrix(connection);
+		return connection;
+	}
+
+	public static SparseConnection sparseConnect(List<? extends AbstractOutputNeuron> presynapticals, List<? extends ProcessorNeuron> postsynapticals, int[] rowPointers, int[] columnIndices) {
+		SparseConnection connection = new SparseConnection(presynapticals.toArray(new AbstractOutputNeuron[presynapticals.size()]), postsynapticals.toArray(new ProcessorNeuron[postsynapticals.size()]), rowPointers, columnIndices);
+		for (AbstractOutputNeuron presynaptical : presynapticals)
+			presynaptical.addOutputMatrix(connection);
+		for (ProcessorNeuron postsynaptical : postsynapticals)
+			postsynaptical.addInputMatrix(connection);
+		return connection;
+	}
+
 	public static void fullConnect(ILayer fromLayer, ILayer toLayer) {
-		for (INeuron presynaptical : fromLayer.getNeurons())
-			if (presynaptical instanceof IOutputtedNeuron)
-				for (INeuron postsynaptical : toLayer.getNeurons())
-					if (postsynaptical instanceof IInputtedNeuron)
-						createSynapse((IOutputtedNeuron) presynaptical, (IInputtedNeuron) postsynaptical);
+		fullConnect(fromLayer, toLayer, true);
 	}
 
 	public static void fullConnect(ILayer fromLayer, ILayer toLayer, boolean connectBias) {
+		List<AbstractOutputNeuron> presynapticals = new ArrayList<AbstractOutputNeuron>();
+		List<ProcessorNeuron> postsynapticals = new ArrayList<ProcessorNeuron>();
+		boolean dense = true;
+		for (INeuron presynaptical : fromLayer.getNeurons())
+			if (presynaptical instanceof IOutputtedNeuron && (connectBias || !(presynaptical instanceof BiasNeuron))) {
+				if (presynaptical instanceof AbstractOutputNeuron)
+					presynapticals.add((AbstractOutputNeuron) presynaptical);
+				else
+					dense = false;
+			}
+		for (INeuron postsynaptical : toLayer.getNeurons())
+			if (postsynaptical instanceof IInputtedNeuron) {
+				if (postsynaptical instanceof ProcessorNeuron)
+					postsynapticals.add((ProcessorNeuron) postsynaptical);
+				else
+					dense = false;
+			}
+		for (AbstractOutputNeuron presynaptical : presynapticals)
+			if (dense && presynaptical.hasOutputConnection())
+				for (ProcessorNeuron postsynaptical : postsynapticals)
+					if (postsynaptical.hasInputConnection() && (presynaptical.hasConnectionTo(postsynaptical) || postsynaptical.hasConnectionFrom(presynaptical))) {
+						dense = false;
+						break;
+					}
+
+		if (dense) {
+			if (!presynapticals.isEmpty() && !postsynapticals.isEmpty())
+				denseConnect(presynapticals, postsynapticals);
+			return;
+		}
+
 		for (INeuron presynaptical : fromLayer.getNeurons())
 			if (presynaptical instanceof IOutputtedNeuron) {
 				if (presynaptical instanceof BiasNeuron && !connectBias)
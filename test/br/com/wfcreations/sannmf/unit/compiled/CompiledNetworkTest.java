@@ -0,0 +1,334 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.unit.compiled;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import br.com.wfcreations.sannmf.compiled.CompiledNetwork;
+import br.com.wfcreations.sannmf.compiled.InferenceSession;
+import br.com.wfcreations.sannmf.compiled.InferenceSessionPool;
+import br.com.wfcreations.sannmf.compiled.Precision;
+import br.com.wfcreations.sannmf.function.activation.Sigmoid;
+import br.com.wfcreations.sannmf.function.activation.Tanh;
+import br.com.wfcreations.sannmf.function.input.WeightedSum;
+import br.com.wfcreations.sannmf.function.weightinitialization.UniformDistribution;
+import br.com.wfcreations.sannmf.neuralnetwork.MLP;
+import br.com.wfcreations.sannmf.neuralnetwork.Perceptron;
+import br.com.wfcreations.sannmf.structure.ISynapse;
+import br.com.wfcreations.sannmf.structure.feedforward.FeedforwardNeuralNetwork;
+import br.com.wfcreations.sannmf.structure.feedforward.ProcessorNeuron;
+
+public class CompiledNetworkTest {
+
+	Random random;
+
+	@Before
+	public void setUp() {
+		random = new Random(7);
+	}
+
+	private double[] randomInputs(int size) {
+		double[] inputs = new double[size];
+		for (int i = 0; i < size; i++)
+			inputs[i] = random.nextDouble() * 2 - 1;
+		return inputs;
+	}
+
+	private void assertSameOutputs(FeedforwardNeuralNetwork network, CompiledNetwork compiled) {
+		for (int i = 0; i < 20; i++) {
+			double[] inputs = randomInputs(network.getInputsNum());
+			double[] expected = network.setInput(inputs).activate().getOutput().clone();
+			assertArrayEquals(expected, compiled.activate(inputs), 1e-12);
+		}
+	}
+
+	@Test
+	public void compileMLP() {
+		MLP mlp = new MLP(4, new int[] { 6, 5 }, 3, true, new Sigmoid());
+		mlp.initializeWeights(new UniformDistribution(-1, 1));
+		CompiledNetwork compiled = mlp.compile();
+
+		assertEquals(4, compiled.getInputsNum());
+		assertEquals(3, compiled.getOutputsNum());
+		assertEquals(3, compiled.getLayersNum());
+		assertEquals(6 * 4 + 6 + 5 * 6 + 5 + 3 * 5 + 3, compiled.getParametersNum());
+		assertTrue(compiled.getLayerAt(1).isContiguous());
+		assertTrue(compiled.getLayerAt(1).isFullyConnected());
+		assertSameOutputs(mlp, compiled);
+	}
+
+	@Test
+	public void compileMLPWithInputsConnectedToOutputs() {
+		MLP mlp = new MLP(3, new int[] { 4 }, 2, true, new Tanh(0.5), true);
+		mlp.initializeWeights(new UniformDistribution(-1, 1));
+		CompiledNetwork compiled = mlp.compile();
+
+		assertEquals(3 + 4, compiled.getLayerAt(1).getInputsNum());
+		assertSameOutputs(mlp, compiled);
+	}
+
+	@Test
+	public void compilePerceptron() {
+		Perceptron perceptron = new Perceptron(5, 2, true);
+		perceptron.initializeWeights(new UniformDistribution(-1, 1));
+		assertSameOutputs(perceptron, perceptron.compile());
+	}
+
+	@Test
+	public void compilePartiallyConnectedLayer() {
+		MLP mlp = new MLP(3, new int[] { 3 }, 1, false, new Sigmoid());
+		mlp.initializeWeights(new UniformDistribution(-1, 1));
+		ProcessorNeuron hidden = (ProcessorNeuron) mlp.getLayerAt(1).getNeuronAt(0);
+		hidden.removeConnectionFrom(mlp.getInputNeurons()[1]);
+		CompiledNetwork compiled = mlp.compile();
+
+		assertFalse(compiled.getLayerAt(0).isFullyConnected());
+		assertSameOutputs(mlp, compiled);
+	}
+
+	@Test
+	public void update() {
+		MLP mlp = new MLP(2, new int[] { 3 }, 1, true, new Sigmoid());
+		mlp.initializeWeights(new UniformDistribution(-1, 1));
+		CompiledNetwork compiled = mlp.compile();
+
+		for (ISynapse synapse : ((ProcessorNeuron) mlp.getOutputNeurons()[0]).getInputConnections())
+			synapse.incrementWeight(0.25);
+		compiled.update();
+		assertSameOutputs(mlp, compiled);
+	}
+
+	@Test
+	public void cachedCompiledNetwork() {
+		MLP mlp = new MLP(2, new int[] { 3 }, 1, true, new Sigmoid());
+		mlp.initializeWeights(new UniformDistribution(-1, 1));
+		CompiledNetwork compiled = mlp.getCompiledNetwork();
+		assertSame(compiled, mlp.getCompiledNetwork());
+
+		ProcessorNeuron output = (ProcessorNeuron) mlp.getOutputNeurons()[0];
+		for (ISynapse synapse : output.getInputConnections())
+			synapse.incrementWeight(0.25);
+		assertSame(compiled, mlp.getCompiledNetwork());
+		assertSameOutputs(mlp, compiled);
+
+		output.removeConnectionFrom(mlp.getLayerAt(1).getNeuronAt(0));
+		CompiledNetwork recompiled = mlp.getCompiledNetwork();
+		assertNotSame(compiled, recompiled);
+		assertSameOutputs(mlp, recompiled);
+
+		output.setActivationFunction(new Tanh(0.5));
+		assertNotSame(recompiled, mlp.getCompiledNetwork());
+		assertSameOutputs(mlp, mlp.getCompiledNetwork());
+	}
+
+	@Test
+	public void cachedCompiledNetworkFollowsSlope() {
+		Sigmoid sigmoid = new Sigmoid();
+		MLP mlp = new MLP(2, new int[] { 3 }, 1, true, sigmoid);
+		mlp.initializeWeights(new UniformDistribution(-1, 1));
+		CompiledNetwork compiled = mlp.getCompiledNetwork();
+		long modifications = mlp.getModifications();
+		sigmoid.setSlope(3);
+		assertNotSame(compiled, mlp.getCompiledNetwork());
+		assertTrue(mlp.getModifications() > modifications);
+		assertSameOutputs(mlp, mlp.getCompiledNetwork());
+	}
+
+	@Test
+	public void cachedCompiledNetworkRereadsDirtyWeights() {
+		MLP mlp = new MLP(2, new int[] { 3 }, 1, true, new Sigmoid());
+		mlp.initializeWeights(new UniformDistribution(-1, 1));
+		CompiledNetwork compiled = mlp.getCompiledNetwork();
+		double parameter = compiled.getParameters()[0];
+		compiled.getParameters()[0] = 42;
+		assertEquals(42, mlp.getCompiledNetwork().getParameters()[0], 0);
+
+		ProcessorNeuron output = (ProcessorNeuron) mlp.getOutputNeurons()[0];
+		output.getInputConnectionAt(0).setWeight(output.getInputConnectionAt(0).getWeight());
+		assertSame(compiled, mlp.getCompiledNetwork());
+		assertEquals(parameter, compiled.getParameters()[0], 0);
+	}
+
+	@Test
+	public void cachedCompiledNetworkFollowsStructure() {
+		MLP mlp = new MLP(2, new int[] { 3, 3 }, 1, true, new Sigmoid());
+		ProcessorNeuron extra = new ProcessorNeuron(new WeightedSum(), new Sigmoid());
+		mlp.getLayerAt(1).addNeuron(extra);
+		CompiledNetwork compiled = mlp.getCompiledNetwork();
+		long modifications = mlp.getModifications();
+		mlp.getLayerAt(1).removeNeuron(extra);
+		mlp.getLayerAt(2).addNeuron(new ProcessorNeuron(new WeightedSum(), new Sigmoid()));
+		assertTrue(mlp.getModifications() > modifications);
+		assertNotSame(compiled, mlp.getCompiledNetwork());
+		assertSameOutputs(mlp, mlp.getCompiledNetwork());
+	}
+
+	@Test
+	public void activateBatch() {
+		MLP mlp = new MLP(3, new int[] { 4 }, 2, true, new Sigmoid(), true);
+		mlp.initializeWeights(new UniformDistribution(-1, 1));
+		CompiledNetwork compiled = mlp.compile();
+
+		double[][] inputs = new double[150][];
+		double[][] outputs = new double[150][2];
+		for (int i = 0; i < inputs.length; i++)
+			inputs[i] = randomInputs(3);
+		mlp.activateBatch(inputs, outputs);
+		for (int i = 0; i < inputs.length; i++)
+			assertArrayEquals(compiled.activate(inputs[i]), outputs[i], 1e-12);
+	}
+
+	@Test
+	public void activateLargeBatch() {
+		MLP mlp = new MLP(20, new int[] { 100 }, 10, true, new Tanh());
+		mlp.initializeWeights(new UniformDistribution(-0.1, 0.1));
+		CompiledNetwork compiled = mlp.compile();
+
+		int rows = 2000;
+		double[] inputs = randomInputs(rows * 20);
+		double[] outputs = new double[rows * 10];
+		compiled.activateBatch(inputs, outputs);
+
+		double[] input = new double[20];
+		for (int row = 0; row < rows; row += 37) {
+			System.arraycopy(inputs, row * 20, input, 0, 20);
+			double[] expected = compiled.activate(input);
+			for (int i = 0; i < 10; i++)
+				assertEquals(expected[i], outputs[row * 10 + i], 1e-12);
+		}
+	}
+
+	@Test
+	public void sessionPool() {
+		CompiledNetwork compiled = new Perceptron(2, 1, true).compile();
+		InferenceSessionPool pool = new InferenceSessionPool(compiled, 1);
+
+		InferenceSession first = pool.borrow();
+		InferenceSession second = pool.borrow();
+		assertNotSame(first, second);
+		first.close();
+		first.close();
+		second.close();
+		assertEquals(1, pool.getIdleNum());
+		assertSame(first, pool.borrow());
+		assertEquals(0, pool.getIdleNum());
+	}
+
+	@Test
+	public void concurrentActivation() throws InterruptedException {
+		MLP mlp = new MLP(8, new int[] { 16 }, 4, true, new Sigmoid());
+		mlp.initializeWeights(new UniformDistribution(-1, 1));
+		final CompiledNetwork compiled = mlp.compile();
+
+		final double[][] inputs = new double[64][];
+		final double[][] expected = new double[inputs.length][];
+		for (int i = 0; i < inputs.length; i++) {
+			inputs[i] = randomInputs(8);
+			expected[i] = compiled.activate(inputs[i]);
+		}
+
+		final boolean[] failed = new boolean[1];
+		Thread[] threads = new Thread[4];
+		for (int t = 0; t < threads.length; t++) {
+			threads[t] = new Thread() {
+				@Override
+				public void run() {
+					double[] outputs = new double[4];
+					for (int repeat = 0; repeat < 200; repeat++)
+						for (int i = 0; i < inputs.length; i++) {
+							compiled.activate(inputs[i], outputs);
+							for (int j = 0; j < outputs.length; j++)
+								if (outputs[j] != expected[i][j])
+									failed[0] = true;
+						}
+				}
+			};
+			threads[t].start();
+		}
+		for (Thread thread : threads)
+			thread.join();
+		assertFalse(failed[0]);
+	}
+
+	@Test
+	public void compileFloat32() {
+		MLP mlp = new MLP(4, new int[] { 8 }, 2, true, new Tanh(), true);
+		mlp.initializeWeights(new UniformDistribution(-1, 1));
+		CompiledNetwork compiled = mlp.compile(Precision.FLOAT32);
+
+		assertNull(compiled.getParameters());
+		assertEquals(compiled.getParametersNum(), compiled.getFloatParameters().length);
+		double[] inputs = new double[300 * 4];
+		double[] expected = new double[300 * 2];
+		float[] floatInputs = new float[inputs.length];
+		float[] floatOutputs = new float[expected.length];
+		for (int i = 0; i < inputs.length; i++)
+			floatInputs[i] = (float) (inputs[i] = random.nextDouble() * 2 - 1);
+		mlp.compile().activateBatch(inputs, expected);
+		compiled.activateBatch(floatInputs, floatOutputs);
+		for (int i = 0; i < expected.length; i++)
+			assertEquals(expected[i], floatOutputs[i], 1e-5);
+		for (int row = 0; row < 300; row++) {
+			float[] outputs = compiled.activate(Arrays.copyOfRange(floatInputs, row * 4, row * 4 + 4));
+			assertEquals(expected[row * 2], outputs[0], 1e-5);
+			assertEquals(expected[row * 2 + 1], outputs[1], 1e-5);
+		}
+	}
+
+	@Test
+	public void compileMixed() {
+		MLP mlp = new MLP(3, new int[] { 5, 4 }, 2, true, new Sigmoid());
+		mlp.initializeWeights(new UniformDistribution(-1, 1));
+		CompiledNetwork compiled = mlp.compile(Precision.MIXED);
+
+		assertNull(compiled.getParameters());
+		for (int i = 0; i < 20; i++) {
+			double[] inputs = randomInputs(3);
+			assertArrayEquals(mlp.setInput(inputs).activate().getOutput(), compiled.activate(inputs), 1e-6);
+		}
+		double[] inputs = randomInputs(100 * 3);
+		double[] expected = new double[100 * 2];
+		double[] outputs = new double[100 * 2];
+		mlp.compile().activateBatch(inputs, expected);
+		compiled.activateBatch(inputs, outputs);
+		assertArrayEquals(expected, outputs, 1e-6);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void activateInvalidInput() {
+		new Perceptron(2, 1, true).compile().activate(1, 2, 3);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.unit.compiled;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import br.com.wfcreations.sannmf.compiled.CompiledNetwork;
+import br.com.wfcreations.sannmf.compiled.QuantizationReport;
+import br.com.wfcreations.sannmf.compiled.QuantizedNetwork;
+import br.com.wfcreations.sannmf.compiled.QuantizedSession;
+import br.com.wfcreations.sannmf.data.SupervisedSet;
+import br.com.wfcreations.sannmf.function.activation.Sigmoid;
+import br.com.wfcreations.sannmf.function.error.MSE;
+import br.com.wfcreations.sannmf.function.weightinitialization.UniformDistribution;
+import br.com.wfcreations.sannmf.neuralnetwork.MLP;
+
+public class QuantizedNetworkTest {
+
+	Random random;
+
+	MLP mlp;
+
+	SupervisedSet set;
+
+	@Before
+	public void setUp() {
+		random = new Random(11);
+		mlp = new MLP(6, new int[] { 12 }, 3, true, new Sigmoid(), true);
+		mlp.initializeWeights(new UniformDistribution(-1, 1));
+		set = new SupervisedSet(6, 3);
+		for (int p = 0; p < 200; p++) {
+			double[] inputs = new double[6];
+			for (int i = 0; i < inputs.length; i++)
+				inputs[i] = random.nextDouble() * 2 - 1;
+			set.addPattern(inputs, mlp.setInput(inputs).activate().getOutput().clone());
+		}
+	}
+
+	@Test
+	public void quantize() {
+		QuantizedNetwork quantized = mlp.quantize(set);
+
+		assertEquals(12 * 6 + 3 * 18, quantized.getWeightsNum());
+		assertEquals(1.0 / QuantizedNetwork.QUANTIZATION_LEVELS, quantized.getInputScaleAt(0), 0.01);
+		for (int p = 0; p < set.lenght(); p++)
+			assertArrayEquals(set.getPatternAt(p).getOutputs(), quantized.activate(set.getPatternAt(p).getInputs()), 0.02);
+	}
+
+	@Test
+	public void evaluate() {
+		CompiledNetwork compiled = mlp.compile();
+		QuantizationReport report = new QuantizedNetwork(compiled, set).evaluate(compiled, set, new MSE());
+
+		assertEquals(set.lenght(), report.getPatternsNum());
+		assertEquals(0, report.getOriginalError(), 1e-20);
+		assertTrue(report.getQuantizedError() < 1e-4);
+		assertTrue(report.getMaximumDeviation() < 0.02);
+		assertTrue(report.getMeanDeviation() <= report.getMaximumDeviation());
+		assertEquals(report.getQuantizedError(), report.getErrorDelta(), 1e-20);
+	}
+
+	@Test
+	public void reusesSessions() {
+		QuantizedNetwork quantized = mlp.quantize(set);
+		double[] inputs = new double[set.lenght() * 6];
+		double[] outputs = new double[set.lenght() * 3];
+		for (int p = 0; p < set.lenght(); p++)
+			System.arraycopy(set.getPatternAt(p).getInputs(), 0, inputs, p * 6, 6);
+		quantized.activateBatch(inputs, outputs);
+		QuantizedSession session = quantized.getSessionPool().borrow();
+		assertEquals(0, quantized.getSessionPool().getIdleNum());
+		for (int p = 0; p < set.lenght(); p++)
+			assertArrayEquals(session.activate(set.getPatternAt(p).getInputs()), Arrays.copyOfRange(outputs, p * 3, p * 3 + 3), 0);
+		session.close();
+		assertEquals(1, quantized.getSessionPool().getIdleNum());
+		assertSame(session, quantized.getSessionPool().borrow());
+	}
+
+	@Test
+	public void evaluateEmptySet() {
+		CompiledNetwork compiled = mlp.compile();
+		QuantizationReport report = new QuantizedNetwork(compiled, set).evaluate(compiled, new SupervisedSet(6, 3), new MSE());
+
+		assertEquals(0, report.getPatternsNum());
+		assertEquals(0, report.getOriginalError(), 0);
+		assertEquals(0, report.getQuantizedError(), 0);
+		assertEquals(0, report.getMeanDeviation(), 0);
+	}
+}
\ No newline at end of file
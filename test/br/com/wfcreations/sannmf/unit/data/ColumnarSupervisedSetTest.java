@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.unit.data;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import br.com.wfcreations.sannmf.data.ColumnarSupervisedSet;
+import br.com.wfcreations.sannmf.data.ColumnarUnsupervisedSet;
+import br.com.wfcreations.sannmf.data.SupervisedPattern;
+import br.com.wfcreations.sannmf.data.SupervisedSet;
+import br.com.wfcreations.sannmf.function.activation.Sigmoid;
+import br.com.wfcreations.sannmf.learning.ErrorCorrectionLearning;
+import br.com.wfcreations.sannmf.learning.algorithms.Backpropagation;
+import br.com.wfcreations.sannmf.learning.algorithms.CompiledBackpropagation;
+import br.com.wfcreations.sannmf.learning.stopcondition.IStopCondition;
+import br.com.wfcreations.sannmf.learning.stopcondition.MaximumEpoch;
+import br.com.wfcreations.sannmf.neuralnetwork.MLP;
+
+public class ColumnarSupervisedSetTest {
+
+	SupervisedSet set;
+
+	ColumnarSupervisedSet columnar;
+
+	@Before
+	public void setUp() {
+		Random random = new Random(11);
+		set = new SupervisedSet(2, 1);
+		columnar = new ColumnarSupervisedSet(2, 1, 3);
+		for (int i = 0; i < 10; i++) {
+			double[] inputs = { random.nextDouble(), random.nextDouble() };
+			double[] outputs = { random.nextDouble() };
+			set.addPattern(inputs, outputs);
+			columnar.addPattern(inputs.clone(), outputs.clone());
+		}
+	}
+
+	@Test
+	public void rowsAcrossChunks() {
+		assertEquals(set.lenght(), columnar.lenght());
+		for (int i = 0; i < set.lenght(); i++) {
+			SupervisedPattern pattern = columnar.getPatternAt(i);
+			assertArrayEquals(set.getPatternAt(i).getInputs(), pattern.getInputs(), 0);
+			assertArrayEquals(set.getPatternAt(i).getOutputs(), pattern.getOutputs(), 0);
+			assertEquals(set.getPatternAt(i).getInputs()[1], columnar.getInputsArray(i)[columnar.getInputsOffset(i) + 1], 0);
+		}
+		double[] expected = new double[14];
+		double[] actual = new double[14];
+		set.copyInputs(2, 9, expected, 0);
+		columnar.copyInputs(2, 9, actual, 0);
+		assertArrayEquals(expected, actual, 0);
+	}
+
+	@Test
+	public void removeShiftsRows() {
+		assertArrayEquals(set.removePatternAt(2).getInputs(), columnar.removePatternAt(2).getInputs(), 0);
+		assertEquals(9, columnar.lenght());
+		for (int i = 0; i < set.lenght(); i++)
+			assertArrayEquals(set.getPatternAt(i).getInputs(), columnar.getPatternAt(i).getInputs(), 0);
+	}
+
+	@Test
+	public void frozenSetRejectsChanges() {
+		columnar.freeze();
+		try {
+			columnar.addPattern(new double[] { 0, 0 }, new double[] { 0 });
+			fail();
+		} catch (IllegalStateException e) {
+		}
+		assertEquals(10, columnar.lenght());
+	}
+
+	@Test
+	public void unsupervised() {
+		ColumnarUnsupervisedSet unsupervised = new ColumnarUnsupervisedSet(2, 4);
+		for (int i = 0; i < set.lenght(); i++)
+			unsupervised.addPattern(set.getPatternAt(i).getInputs());
+		double[] expected = new double[20];
+		double[] actual = new double[20];
+		set.copyInputs(0, 10, expected, 0);
+		unsupervised.copyInputs(0, 10, actual, 0);
+		assertArrayEquals(expected, actual, 0);
+	}
+
+	@Test
+	public void trainingMatchesPatternSet() {
+		assertSameTraining(new Backpropagation(network(), 0.5, false), new Backpropagation(network(), 0.5, false));
+		assertSameTraining(new CompiledBackpropagation(network(), 0.5, true), new CompiledBackpropagation(network(), 0.5, true));
+	}
+
+	private void assertSameTraining(ErrorCorrectionLearning expected, ErrorCorrectionLearning actual) {
+		train(expected, set);
+		train(actual, columnar);
+		assertEquals(expected.getTotalNetworkError(), actual.getTotalNetworkError(), 0);
+		assertEquals(expected.evaluateError(set), actual.evaluateError(columnar), 0);
+	}
+
+	private MLP network() {
+		MLP network = new MLP(2, new int[] { 4 }, 1, true, new Sigmoid());
+		network.initializeWeights(0.1);
+		return network;
+	}
+
+	private void train(ErrorCorrectionLearning learning, SupervisedSet trainingSet) {
+		List<IStopCondition> stopConditions = new ArrayList<IStopCondition>();
+		stopConditions.add(new MaximumEpoch(learning, 20));
+		learning.learn(trainingSet, stopConditions);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.unit.data;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import br.com.wfcreations.sannmf.data.ColumnarSupervisedSet;
+import br.com.wfcreations.sannmf.data.CsvLoader;
+
+public class CsvLoaderTest {
+
+	File file;
+
+	@Before
+	public void setUp() throws IOException {
+		file = File.createTempFile("sannmf", ".csv");
+	}
+
+	@After
+	public void tearDown() {
+		file.delete();
+	}
+
+	@Test
+	public void selectsColumnsAcrossPieces() throws IOException {
+		write("a,b,c,d,e\r\n1,x,-2.5,y,3e2\r\n 0.1 ,x,1.2345678901234567,y,-0\r\n\r\n+4.,x,.5,y,1E-3");
+		ColumnarSupervisedSet set = new CsvLoader(new int[] { 0, 2 }, new int[] { 4 }).setHeader(true).setPieceBytes(8).load(file);
+		assertEquals(3, set.lenght());
+		assertArrayEquals(new double[] { 1, -2.5 }, set.getPatternAt(0).getInputs(), 0);
+		assertArrayEquals(new double[] { 300 }, set.getPatternAt(0).getOutputs(), 0);
+		assertArrayEquals(new double[] { 0.1, 1.2345678901234567 }, set.getPatternAt(1).getInputs(), 0);
+		assertArrayEquals(new double[] { 4, 0.5 }, set.getPatternAt(2).getInputs(), 0);
+		assertArrayEquals(new double[] { 1e-3 }, set.getPatternAt(2).getOutputs(), 0);
+	}
+
+	@Test
+	public void parsesLikeDouble() throws IOException {
+		Random random = new Random(17);
+		double[] values = new double[3000];
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < values.length; i += 3) {
+			values[i] = random.nextGaussian();
+			values[i + 1] = Math.round(random.nextDouble() * 10000) / 100d;
+			values[i + 2] = random.nextDouble() * Math.pow(10, random.nextInt(40) - 20);
+			builder.append(values[i]).append('\t').append(values[i + 1]).append('\t').append(values[i + 2]).append('\n');
+		}
+		write(builder.toString());
+		ColumnarSupervisedSet set = new CsvLoader(new int[] { 0, 1 }, new int[] { 2 }).setDelimiter('\t').setPieceBytes(1000).load(file);
+		assertEquals(values.length / 3, set.lenght());
+		double[] inputs = new double[2 * set.lenght()];
+		set.copyInputs(0, set.lenght(), inputs, 0);
+		for (int row = 0; row < set.lenght(); row++) {
+			assertEquals(values[row * 3], inputs[row * 2], 0);
+			assertEquals(values[row * 3 + 1], inputs[row * 2 + 1], 0);
+			assertEquals(values[row * 3 + 2], set.getOutputsArray(row)[set.getOutputsOffset(row)], 0);
+		}
+	}
+
+	@Test
+	public void mergesPiecesIntoChunks() throws IOException {
+		StringBuilder builder = new StringBuilder();
+		for (int row = 0; row < 500; row++)
+			builder.append(row).append(',').append(-row).append('\n');
+		write(builder.toString());
+		for (int chunkRows : new int[] { 1, 7, 4096 }) {
+			ColumnarSupervisedSet set = new CsvLoader(new int[] { 0 }, new int[] { 1 }).setPieceBytes(64).setChunkRows(chunkRows).load(file);
+			assertEquals(500, set.lenght());
+			for (int row = 0; row < set.lenght(); row++) {
+				assertEquals(row, set.getInputsArray(row)[set.getInputsOffset(row)], 0);
+				assertEquals(-row, set.getOutputsArray(row)[set.getOutputsOffset(row)], 0);
+			}
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsMissingColumns() throws IOException {
+		write("1,2,3\n4,5\n");
+		new CsvLoader(new int[] { 0, 1 }, new int[] { 2 }).load(file);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsInvalidNumbers() throws IOException {
+		write("1,2,x\n");
+		new CsvLoader(new int[] { 0, 1 }, new int[] { 2 }).load(file);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsDuplicatedColumns() {
+		new CsvLoader(new int[] { 0, 1 }, new int[] { 1 });
+	}
+
+	private void write(String content) throws IOException {
+		FileOutputStream out = new FileOutputStream(file);
+		try {
+			out.write(content.getBytes(StandardCharsets.US_ASCII));
+		} finally {
+			out.close();
+		}
+	}
+}
\ No newline at end of file
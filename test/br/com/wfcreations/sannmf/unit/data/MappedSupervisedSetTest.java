@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.unit.data;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import br.com.wfcreations.sannmf.data.DataType;
+import br.com.wfcreations.sannmf.data.MappedSupervisedSet;
+import br.com.wfcreations.sannmf.data.SupervisedSet;
+import br.com.wfcreations.sannmf.function.activation.Sigmoid;
+import br.com.wfcreations.sannmf.learning.ErrorCorrectionLearning;
+import br.com.wfcreations.sannmf.learning.algorithms.Backpropagation;
+import br.com.wfcreations.sannmf.learning.algorithms.ParallelBackpropagation;
+import br.com.wfcreations.sannmf.learning.stopcondition.IStopCondition;
+import br.com.wfcreations.sannmf.learning.stopcondition.MaximumEpoch;
+import br.com.wfcreations.sannmf.neuralnetwork.MLP;
+
+public class MappedSupervisedSetTest {
+
+	SupervisedSet set;
+
+	File file;
+
+	@Before
+	public void setUp() throws IOException {
+		Random random = new Random(13);
+		set = new SupervisedSet(3, 2);
+		for (int i = 0; i < 25; i++)
+			set.addPattern(new double[] { random.nextDouble(), random.nextDouble(), random.nextDouble() }, new double[] { random.nextDouble(), random.nextDouble() });
+		file = File.createTempFile("sannmf", ".bin");
+	}
+
+	@After
+	public void tearDown() {
+		file.delete();
+	}
+
+	@Test
+	public void roundTripAcrossRegions() throws IOException {
+		MappedSupervisedSet.write(set, file, DataType.FLOAT64);
+		MappedSupervisedSet mapped = new MappedSupervisedSet(file, 4);
+		assertEquals(set.lenght(), mapped.lenght());
+		assertEquals(3, mapped.inputsNum());
+		assertEquals(2, mapped.outputsNum());
+		assertEquals(DataType.FLOAT64, mapped.getDataType());
+		for (int i = 0; i < set.lenght(); i++) {
+			assertArrayEquals(set.getPatternAt(i).getInputs(), mapped.getPatternAt(i).getInputs(), 0);
+			assertArrayEquals(set.getPatternAt(i).getOutputs(), mapped.getOutputsArray(i), 0);
+		}
+		double[] expected = new double[30];
+		double[] actual = new double[30];
+		set.copyInputs(2, 12, expected, 0);
+		mapped.copyInputs(2, 12, actual, 0);
+		assertArrayEquals(expected, actual, 0);
+	}
+
+	@Test
+	public void float32() throws IOException {
+		MappedSupervisedSet.write(set, file, DataType.FLOAT32);
+		assertEquals(MappedSupervisedSet.HEADER_BYTES + 25 * 5 * 4, file.length());
+		MappedSupervisedSet mapped = new MappedSupervisedSet(file);
+		for (int i = 0; i < set.lenght(); i++)
+			assertArrayEquals(set.getPatternAt(i).getInputs(), mapped.getInputsArray(i), 1e-7);
+	}
+
+	@Test
+	public void readOnly() throws IOException {
+		MappedSupervisedSet.write(set, file, DataType.FLOAT64);
+		MappedSupervisedSet mapped = new MappedSupervisedSet(file);
+		assertTrue(mapped.isFrozen());
+		try {
+			mapped.addPattern(new double[3], new double[2]);
+			fail();
+		} catch (UnsupportedOperationException e) {
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void rejectsForeignFile() throws IOException {
+		FileOutputStream out = new FileOutputStream(file);
+		out.write(new byte[64]);
+		out.close();
+		new MappedSupervisedSet(file);
+	}
+
+	@Test
+	public void rowsLargerThanBuffer() throws IOException {
+		SupervisedSet wide = new SupervisedSet(100000, 50000);
+		double[] inputs = new double[100000];
+		double[] outputs = new double[50000];
+		for (int p = 0; p < 3; p++) {
+			for (int i = 0; i < inputs.length; i++)
+				inputs[i] = p + i;
+			for (int i = 0; i < outputs.length; i++)
+				outputs[i] = p - i;
+			wide.addPattern(inputs.clone(), outputs.clone());
+		}
+		MappedSupervisedSet.write(wide, file, DataType.FLOAT64);
+		MappedSupervisedSet mapped = new MappedSupervisedSet(file);
+		assertEquals(3, mapped.lenght());
+		for (int p = 0; p < 3; p++) {
+			assertArrayEquals(wide.getPatternAt(p).getInputs(), mapped.getInputsArray(p), 0);
+			assertArrayEquals(wide.getPatternAt(p).getOutputs(), mapped.getOutputsArray(p), 0);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsEmptyRows() throws IOException {
+		// 2^29 + 2^29 float64 values wrap the row size to zero
+		ByteBuffer header = ByteBuffer.allocate(MappedSupervisedSet.HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		header.putInt(MappedSupervisedSet.MAGIC).putInt(MappedSupervisedSet.VERSION).putInt(1 << 29).putInt(1 << 29).putInt(DataType.FLOAT64.ordinal()).putInt(0).putLong(0);
+		FileOutputStream out = new FileOutputStream(file);
+		out.write(header.array());
+		out.close();
+		new MappedSupervisedSet(file);
+	}
+
+	@Test
+	public void trainingMatchesHeapSet() throws IOException {
+		MappedSupervisedSet.write(set, file, DataType.FLOAT64);
+		MappedSupervisedSet mapped = new MappedSupervisedSet(file, 7);
+		assertSameTraining(new Backpropagation(network(), 0.5, false), new Backpropagation(network(), 0.5, false), mapped);
+		assertSameTraining(new ParallelBackpropagation(network(), 0.5).setThreadsNum(3), new ParallelBackpropagation(network(), 0.5).setThreadsNum(3), mapped);
+	}
+
+	private void assertSameTraining(ErrorCorrectionLearning expected, ErrorCorrectionLearning actual, SupervisedSet mapped) {
+		train(expected, set);
+		train(actual, mapped);
+		assertEquals(expected.getTotalNetworkError(), actual.getTotalNetworkError(), 0);
+		assertEquals(expected.evaluateError(set), actual.evaluateError(mapped), 0);
+	}
+
+	private MLP network() {
+		MLP network = new MLP(3, new int[] { 4 }, 2, true, new Sigmoid());
+		network.initializeWeights(0.1);
+		return network;
+	}
+
+	private void train(ErrorCorrectionLearning learning, SupervisedSet trainingSet) {
+		List<IStopCondition> stopConditions = new ArrayList<IStopCondition>();
+		stopConditions.add(new MaximumEpoch(learning, 10));
+		learning.learn(trainingSet, stopConditions);
+	}
+}
\ No newline at end of file
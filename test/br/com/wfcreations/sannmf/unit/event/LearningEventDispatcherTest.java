@@ -0,0 +1,276 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.unit.event;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import br.com.wfcreations.observer.dispatcher.Event;
+import br.com.wfcreations.observer.dispatcher.IEventListener;
+import br.com.wfcreations.sannmf.data.SupervisedSet;
+import br.com.wfcreations.sannmf.event.IterationSummaryEvent;
+import br.com.wfcreations.sannmf.event.IterativeLearningEvent;
+import br.com.wfcreations.sannmf.event.LearningEvent;
+import br.com.wfcreations.sannmf.function.activation.Sigmoid;
+import br.com.wfcreations.sannmf.learning.algorithms.Backpropagation;
+import br.com.wfcreations.sannmf.learning.stopcondition.IStopCondition;
+import br.com.wfcreations.sannmf.learning.stopcondition.MaximumEpoch;
+import br.com.wfcreations.sannmf.neuralnetwork.MLP;
+
+public class LearningEventDispatcherTest {
+
+	Backpropagation backpropagation;
+
+	SupervisedSet set;
+
+	@Before
+	public void setUp() {
+		Random random = new Random(5);
+		set = new SupervisedSet(2, 1);
+		for (int i = 0; i < 100; i++)
+			set.addPattern(new double[] { random.nextDouble(), random.nextDouble() }, new double[] { random.nextDouble() });
+		backpropagation = new Backpropagation(new MLP(2, new int[] { 4 }, 1, true, new Sigmoid()), 0.1, false);
+	}
+
+	@Test
+	public void sampling() {
+		final int[] iterations = new int[1];
+		backpropagation.addEventListener(IterativeLearningEvent.ITERATION, new IEventListener() {
+			@Override
+			public void listen(Event e) {
+				iterations[0]++;
+			}
+		});
+		backpropagation.getEventDispatcher().setSampling(IterativeLearningEvent.ITERATION, 10);
+		train(3);
+		assertEquals(30, iterations[0]);
+	}
+
+	@Test
+	public void coalescing() {
+		final List<Integer> summaries = new ArrayList<Integer>();
+		final List<String> order = new ArrayList<String>();
+		IEventListener listener = new IEventListener() {
+			@Override
+			public void listen(Event e) {
+				order.add(e.type);
+				if (e instanceof IterationSummaryEvent)
+					summaries.add(((IterationSummaryEvent) e).getIterationsNum());
+			}
+		};
+		backpropagation.addEventListener(IterativeLearningEvent.ITERATION_SUMMARY, listener);
+		backpropagation.addEventListener(IterativeLearningEvent.END_EPOCH, listener);
+		backpropagation.getEventDispatcher().setCoalescing(true);
+		train(2);
+		assertEquals(2, summaries.size());
+		assertEquals(set.lenght(), (int) summaries.get(0));
+		assertEquals(set.lenght(), (int) summaries.get(1));
+		assertEquals(IterativeLearningEvent.ITERATION_SUMMARY, order.get(0));
+		assertEquals(IterativeLearningEvent.END_EPOCH, order.get(1));
+	}
+
+	@Test
+	public void asynchronousDropsInsteadOfBlocking() {
+		final int[] delivered = new int[1];
+		final Thread trainer = Thread.currentThread();
+		final boolean[] onTrainer = new boolean[1];
+		backpropagation.addEventListener(IterativeLearningEvent.ITERATION, new IEventListener() {
+			@Override
+			public void listen(Event e) {
+				onTrainer[0] |= Thread.currentThread() == trainer;
+				try {
+					Thread.sleep(20);
+				} catch (InterruptedException ex) {
+				}
+				delivered[0]++;
+			}
+		});
+		backpropagation.getEventDispatcher().setAsynchronous(4);
+		long start = System.nanoTime();
+		train(5);
+		long elapsed = System.nanoTime() - start;
+		backpropagation.getEventDispatcher().flush();
+		assertTrue(elapsed < 20000000L * 5 * set.lenght() / 10);
+		assertFalse(onTrainer[0]);
+		assertTrue(backpropagation.getEventDispatcher().getDroppedNum() > 0);
+		assertTrue(delivered[0] >= 4);
+		assertEquals(5 * set.lenght(), delivered[0] + backpropagation.getEventDispatcher().getDroppedNum());
+		backpropagation.getEventDispatcher().setAsynchronous(0);
+		assertFalse(backpropagation.getEventDispatcher().isAsynchronous());
+	}
+
+	@Test
+	public void drainerStopsWhenLearningCompletes() throws InterruptedException {
+		final int[] delivered = new int[1];
+		backpropagation.addEventListener(IterativeLearningEvent.END_EPOCH, new IEventListener() {
+			@Override
+			public void listen(Event e) {
+				delivered[0]++;
+			}
+		});
+		backpropagation.getEventDispatcher().setAsynchronous(16);
+		train(2);
+		assertTrue(waitForDrainers());
+		assertEquals(2, delivered[0]);
+		train(4);
+		assertTrue(waitForDrainers());
+		assertEquals(4, delivered[0]);
+		assertTrue(backpropagation.getEventDispatcher().isAsynchronous());
+		backpropagation.getEventDispatcher().close();
+		assertFalse(backpropagation.getEventDispatcher().isAsynchronous());
+	}
+
+	@Test
+	public void nextRunDoesNotWaitForDrainer() throws InterruptedException {
+		final CountDownLatch release = new CountDownLatch(1);
+		final List<Thread> deliveries = Collections.synchronizedList(new ArrayList<Thread>());
+		backpropagation.addEventListener(IterativeLearningEvent.END_EPOCH, new IEventListener() {
+			@Override
+			public void listen(Event e) {
+				deliveries.add(Thread.currentThread());
+				try {
+					release.await();
+				} catch (InterruptedException ex) {
+				}
+			}
+		});
+		backpropagation.getEventDispatcher().setAsynchronous(16);
+		train(2);
+		Thread trainer = new Thread() {
+			@Override
+			public void run() {
+				train(1);
+			}
+		};
+		trainer.start();
+		trainer.join(10000);
+		boolean finished = !trainer.isAlive();
+		release.countDown();
+		trainer.join();
+		backpropagation.getEventDispatcher().flush();
+		assertTrue(finished);
+		assertEquals(3, deliveries.size());
+		assertSame(deliveries.get(0), deliveries.get(1));
+		assertNotSame(deliveries.get(1), deliveries.get(2));
+		backpropagation.getEventDispatcher().close();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void lifecycleEventsAreNotSampled() {
+		backpropagation.getEventDispatcher().setSampling(LearningEvent.COMPLETE_LEARNING, 2);
+	}
+
+	@Test
+	public void listenersChangeWhileDraining() throws InterruptedException {
+		final List<Throwable> failures = new ArrayList<Throwable>();
+		Thread.UncaughtExceptionHandler handler = Thread.getDefaultUncaughtExceptionHandler();
+		Thread.setDefaultUncaughtExceptionHandler(new Thread.UncaughtExceptionHandler() {
+			@Override
+			public void uncaughtException(Thread t, Throwable e) {
+				synchronized (failures) {
+					failures.add(e);
+				}
+			}
+		});
+		try {
+			IEventListener listener = new IEventListener() {
+				@Override
+				public void listen(Event e) {
+				}
+			};
+			backpropagation.addEventListener(IterativeLearningEvent.ITERATION, listener);
+			backpropagation.getEventDispatcher().setAsynchronous(1024);
+			Thread trainer = new Thread() {
+				@Override
+				public void run() {
+					train(50);
+				}
+			};
+			trainer.start();
+			while (trainer.isAlive())
+				for (int i = 0; i < 100; i++) {
+					IEventListener other = new IEventListener() {
+						@Override
+						public void listen(Event e) {
+						}
+					};
+					backpropagation.addEventListener(IterativeLearningEvent.ITERATION, other);
+					backpropagation.removeEventListener(IterativeLearningEvent.ITERATION, other);
+				}
+			backpropagation.getEventDispatcher().close();
+			assertTrue(backpropagation.hasEventListener(IterativeLearningEvent.ITERATION));
+			backpropagation.removeEventListener(IterativeLearningEvent.ITERATION, listener);
+			assertFalse(backpropagation.hasEventListener(IterativeLearningEvent.ITERATION));
+		} finally {
+			Thread.setDefaultUncaughtExceptionHandler(handler);
+		}
+		assertEquals(0, failures.size());
+	}
+
+	@Test
+	public void summaryCountsAsIterationListener() {
+		assertFalse(backpropagation.hasEventListener(IterativeLearningEvent.ITERATION));
+		backpropagation.addEventListener(IterativeLearningEvent.ITERATION_SUMMARY, new IEventListener() {
+			@Override
+			public void listen(Event e) {
+			}
+		});
+		assertFalse(backpropagation.hasEventListener(IterativeLearningEvent.ITERATION));
+		backpropagation.getEventDispatcher().setCoalescing(true);
+		assertTrue(backpropagation.hasEventListener(IterativeLearningEvent.ITERATION));
+		assertFalse(backpropagation.hasEventListener(LearningEvent.INIT_LEARNING));
+	}
+
+	private static boolean waitForDrainers() throws InterruptedException {
+		for (int i = 0; i < 100; i++) {
+			boolean alive = false;
+			for (Thread thread : Thread.getAllStackTraces().keySet())
+				alive |= "SANNMF-event-dispatcher".equals(thread.getName());
+			if (!alive)
+				return true;
+			Thread.sleep(10);
+		}
+		return false;
+	}
+
+	private void train(int epochs) {
+		List<IStopCondition> stopConditions = new ArrayList<IStopCondition>();
+		stopConditions.add(new MaximumEpoch(backpropagation, epochs));
+		backpropagation.learn(set, stopConditions);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.unit.kernel;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import br.com.wfcreations.sannmf.SANNMF;
+import br.com.wfcreations.sannmf.kernel.IKernel;
+import br.com.wfcreations.sannmf.kernel.ScalarKernel;
+import br.com.wfcreations.sannmf.kernel.UnrolledKernel;
+
+public class KernelTest {
+
+	IKernel scalar = new ScalarKernel();
+
+	IKernel unrolled = new UnrolledKernel();
+
+	Random random = new Random(3);
+
+	@Test
+	public void dot() {
+		for (int length = 0; length < 20; length++) {
+			double[] x = new double[length + 3];
+			double[] y = new double[length + 1];
+			float[] floatX = new float[x.length];
+			float[] floatY = new float[y.length];
+			byte[] byteX = new byte[x.length];
+			byte[] byteY = new byte[y.length];
+			for (int i = 0; i < x.length; i++)
+				byteX[i] = (byte) (floatX[i] = (float) (x[i] = random.nextInt(255) - 127));
+			for (int i = 0; i < y.length; i++)
+				byteY[i] = (byte) (floatY[i] = (float) (y[i] = random.nextInt(255) - 127));
+
+			assertEquals(scalar.dot(x, 3, y, 1, length), unrolled.dot(x, 3, y, 1, length), 1e-9);
+			assertEquals(scalar.dot(floatX, 3, y, 1, length), unrolled.dot(floatX, 3, y, 1, length), 1e-9);
+			assertEquals(scalar.dot(floatX, 3, floatY, 1, length), unrolled.dot(floatX, 3, floatY, 1, length), 1e-9);
+			assertEquals(scalar.dot(byteX, 3, byteY, 1, length), unrolled.dot(byteX, 3, byteY, 1, length));
+		}
+	}
+
+	@Test
+	public void axpy() {
+		double[] x = { 1, 2, 3, 4, 5, 6, 7 };
+		double[] y = new double[8];
+		unrolled.axpy(0.5, x, 1, y, 0, 6);
+		assertArrayEquals(new double[] { 1, 1.5, 2, 2.5, 3, 3.5, 0, 0 }, y, 0);
+
+		double[] mixedY = new double[6];
+		unrolled.axpy(0.5, new float[] { 1, 2, 3, 4, 5 }, 0, mixedY, 1, 5);
+		scalar.axpy(0.5, new float[] { 1 }, 0, mixedY, 0, 1);
+		assertArrayEquals(new double[] { 0.5, 0.5, 1, 1.5, 2, 2.5 }, mixedY, 0);
+
+		float[] floatY = new float[3];
+		unrolled.axpy(2f, new float[] { 1, 2, 3 }, 0, floatY, 0, 3);
+		assertEquals(6f, floatY[2], 0);
+	}
+
+	@Test
+	public void kernelSelection() {
+		IKernel kernel = SANNMF.getKernel();
+		try {
+			SANNMF.setKernel(scalar);
+			assertEquals(ScalarKernel.NAME, SANNMF.getKernelName());
+		} finally {
+			SANNMF.setKernel(kernel);
+		}
+	}
+
+	@Test
+	public void createKernel() {
+		assertEquals(ScalarKernel.NAME, SANNMF.createKernel(ScalarKernel.NAME).getName());
+		assertEquals(UnrolledKernel.NAME, SANNMF.createKernel(UnrolledKernel.NAME).getName());
+		assertEquals(ScalarKernel.NAME, SANNMF.createKernel(ScalarKernel.class.getName()).getName());
+		assertNotNull(SANNMF.createKernel(null));
+	}
+
+	@Test
+	public void invalidKernelPropertyFallsBack() {
+		String property = System.getProperty(SANNMF.KERNEL_PROPERTY);
+		System.setProperty(SANNMF.KERNEL_PROPERTY, "br.com.wfcreations.sannmf.kernel.MissingKernel");
+		try {
+			assertEquals(SANNMF.createKernel(null).getName(), KernelSettings.configured().getName());
+			System.setProperty(SANNMF.KERNEL_PROPERTY, ScalarKernel.NAME);
+			assertEquals(ScalarKernel.NAME, KernelSettings.configured().getName());
+		} finally {
+			if (property == null)
+				System.clearProperty(SANNMF.KERNEL_PROPERTY);
+			else
+				System.setProperty(SANNMF.KERNEL_PROPERTY, property);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void unknownKernel() {
+		SANNMF.createKernel("br.com.wfcreations.sannmf.kernel.MissingKernel");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void notAKernel() {
+		SANNMF.createKernel(String.class.getName());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void unsupportedKernel() {
+		SANNMF.setKernel(new ScalarKernel() {
+			@Override
+			public boolean isSupported() {
+				return false;
+			}
+		});
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void incorrectKernel() {
+		SANNMF.setKernel(new ScalarKernel() {
+			@Override
+			public double dot(double[] x, int xOffset, double[] y, int yOffset, int length) {
+				return 0;
+			}
+		});
+	}
+
+	static class KernelSettings extends SANNMF {
+
+		static IKernel configured() {
+			return configuredKernel();
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.unit.learning;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import br.com.wfcreations.sannmf.data.SupervisedSet;
+import br.com.wfcreations.sannmf.function.activation.Sigmoid;
+import br.com.wfcreations.sannmf.learning.algorithms.Backpropagation;
+import br.com.wfcreations.sannmf.learning.stopcondition.IStopCondition;
+import br.com.wfcreations.sannmf.learning.stopcondition.MaximumEpoch;
+import br.com.wfcreations.sannmf.neuralnetwork.MLP;
+import br.com.wfcreations.sannmf.structure.ISynapse;
+import br.com.wfcreations.sannmf.structure.feedforward.ErrorNeuron;
+import br.com.wfcreations.sannmf.structure.feedforward.ProcessorNeuron;
+
+public class BackpropagationTest {
+
+	MLP network;
+
+	SupervisedSet set;
+
+	ISynapse hiddenSynapse, outputSynapse;
+
+	@Before
+	public void setUp() {
+		network = new MLP(1, new int[] { 1 }, 1, false, new Sigmoid());
+		hiddenSynapse = ((ProcessorNeuron) network.getLayerAt(1).getNeuronAt(0)).getInputConnections().get(0);
+		outputSynapse = ((ProcessorNeuron) network.getLayerAt(2).getNeuronAt(0)).getInputConnections().get(0);
+		hiddenSynapse.setWeight(0.5);
+		outputSynapse.setWeight(-0.3);
+		set = new SupervisedSet(1, 1);
+		set.addPattern(new double[] { 1 }, new double[] { 1 });
+	}
+
+	@Test
+	public void hiddenErrorSumsEveryOutputConnection() {
+		MLP network = new MLP(1, new int[] { 1 }, 2, false, new Sigmoid());
+		ProcessorNeuron hidden = (ProcessorNeuron) network.getLayerAt(1).getNeuronAt(0);
+		hidden.getInputConnections().get(0).setWeight(0.5);
+		((ProcessorNeuron) network.getLayerAt(2).getNeuronAt(0)).getInputConnections().get(0).setWeight(-0.3);
+		((ProcessorNeuron) network.getLayerAt(2).getNeuronAt(1)).getInputConnections().get(0).setWeight(0.8);
+		SupervisedSet set = new SupervisedSet(1, 2);
+		set.addPattern(new double[] { 1 }, new double[] { 1, 0 });
+		Backpropagation backpropagation = new Backpropagation(network, 0.5, false);
+		List<IStopCondition> stopConditions = new ArrayList<IStopCondition>();
+		stopConditions.add(new MaximumEpoch(backpropagation, 1));
+		backpropagation.learn(set, stopConditions);
+		double deltaSum = 0;
+		for (ISynapse synapse : hidden.getOutputConnections())
+			deltaSum += ((ErrorNeuron) synapse.getPostsynaptic()).getError() * synapse.getWeight();
+		// the sum used to start at the second output connection, so the first output neuron's error was lost
+		assertEquals(new Sigmoid().derivative(hidden.getInducedLocalField()) * deltaSum, ((ErrorNeuron) hidden).getError(), 1e-12);
+	}
+
+	@Test
+	public void outputDerivativeAppliedOnce() {
+		double hidden = 1 / (1 + Math.exp(-0.5));
+		double output = 1 / (1 + Math.exp(0.3 * hidden));
+		Backpropagation backpropagation = new Backpropagation(network, 0.5, false);
+		learn(backpropagation, 1);
+		// the derivative used to be applied again on top of the error, giving a step of 0.5 * (1 - y) * (y * (1 - y))^2 * h
+		assertEquals(-0.3 + 0.5 * (1 - output) * output * (1 - output) * hidden, outputSynapse.getWeight(), 1e-12);
+	}
+
+	@Test
+	public void stopEndsLearning() {
+		CountingBackpropagation backpropagation = new CountingBackpropagation(network, 3);
+		learn(backpropagation, 10);
+		// stop() used to clear the flag, so learning ran on until the stop condition
+		assertEquals(3, backpropagation.epochs);
+		assertEquals(3, backpropagation.getCurrentEpoch());
+	}
+
+	@Test
+	public void startRunsOnStart() {
+		CountingBackpropagation backpropagation = new CountingBackpropagation(network, 0);
+		learn(backpropagation, 2);
+		learn(backpropagation, 4);
+		// start() used to skip onStart(), so learning rules never reset their state
+		assertEquals(2, backpropagation.starts);
+	}
+
+	private void learn(Backpropagation learning, int epochs) {
+		List<IStopCondition> stopConditions = new ArrayList<IStopCondition>();
+		stopConditions.add(new MaximumEpoch(learning, epochs));
+		learning.learn(set, stopConditions);
+	}
+
+	static class CountingBackpropagation extends Backpropagation {
+
+		private static final long serialVersionUID = 1L;
+
+		int stopAt, starts, epochs;
+
+		CountingBackpropagation(MLP network, int stopAt) {
+			super(network, 0.5, false);
+			this.stopAt = stopAt;
+		}
+
+		@Override
+		protected void onStart() {
+			super.onStart();
+			this.starts++;
+		}
+
+		@Override
+		protected void onAfterEpoch() {
+			super.onAfterEpoch();
+			if (++this.epochs == this.stopAt)
+				this.stop();
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.unit.learning;
+
+import static org.junit.Assert.*;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import br.com.wfcreations.observer.dispatcher.Event;
+import br.com.wfcreations.observer.dispatcher.IEventListener;
+import br.com.wfcreations.sannmf.data.SupervisedSet;
+import br.com.wfcreations.sannmf.event.IterativeLearningEvent;
+import br.com.wfcreations.sannmf.function.activation.Sigmoid;
+import br.com.wfcreations.sannmf.learning.ErrorCorrectionLearning;
+import br.com.wfcreations.sannmf.learning.algorithms.Backpropagation;
+import br.com.wfcreations.sannmf.learning.algorithms.LBFGS;
+import br.com.wfcreations.sannmf.learning.algorithms.LevenbergMarquardt;
+import br.com.wfcreations.sannmf.learning.stopcondition.IStopCondition;
+import br.com.wfcreations.sannmf.learning.stopcondition.MaximumEpoch;
+import br.com.wfcreations.sannmf.neuralnetwork.MLP;
+
+public class ErrorCorrectionLearningTest {
+
+	SupervisedSet set;
+
+	@Before
+	public void setUp() {
+		Random random = new Random(3);
+		set = new SupervisedSet(2, 1);
+		for (int i = 0; i < 1000; i++)
+			set.addPattern(new double[] { random.nextDouble(), random.nextDouble() }, new double[] { random.nextDouble() });
+	}
+
+	@Test
+	public void onlineLearningDoesNotAllocatePerPattern() {
+		assertSteadyStateAllocation(new Backpropagation(new MLP(2, new int[] { 8 }, 1, true, new Sigmoid()), 0.1, false));
+	}
+
+	@Test
+	public void miniBatchLearningDoesNotAllocatePerPattern() {
+		Backpropagation backpropagation = new Backpropagation(new MLP(2, new int[] { 8 }, 1, true, new Sigmoid()), 0.1, true);
+		backpropagation.setBatchSize(10);
+		assertSteadyStateAllocation(backpropagation);
+	}
+
+	@Test
+	public void fullBatchLearningDoesNotAllocatePerPattern() {
+		assertSteadyStateAllocation(new LBFGS(new MLP(2, new int[] { 8 }, 1, true, new Sigmoid())));
+		assertSteadyStateAllocation(new LevenbergMarquardt(new MLP(2, new int[] { 8 }, 1, true, new Sigmoid())));
+	}
+
+	@Test
+	public void iterationEventsAreDispatchedToListeners() {
+		Backpropagation backpropagation = new Backpropagation(new MLP(2, new int[] { 8 }, 1, true, new Sigmoid()), 0.1, false);
+		final int[] iterations = new int[1];
+		backpropagation.addEventListener(IterativeLearningEvent.ITERATION, new IEventListener() {
+			@Override
+			public void listen(Event e) {
+				iterations[0]++;
+			}
+		});
+		train(backpropagation, 3);
+		assertEquals(3 * set.lenght(), iterations[0]);
+	}
+
+	private void assertSteadyStateAllocation(ErrorCorrectionLearning learning) {
+		ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+		if (!(threadMXBean instanceof com.sun.management.ThreadMXBean) || !((com.sun.management.ThreadMXBean) threadMXBean).isThreadAllocatedMemoryEnabled())
+			return;
+		com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threadMXBean;
+		long thread = Thread.currentThread().getId();
+		train(learning, 200);
+		long allocated = allocations.getThreadAllocatedBytes(thread);
+		train(learning, 50);
+		allocated = allocations.getThreadAllocatedBytes(thread) - allocated;
+		assertTrue("Allocated " + allocated + " bytes", allocated < 8L * 50 * set.lenght());
+	}
+
+	private void train(ErrorCorrectionLearning learning, int epochs) {
+		List<IStopCondition> stopConditions = new ArrayList<IStopCondition>();
+		stopConditions.add(new MaximumEpoch(learning, learning.getCurrentEpoch() + epochs));
+		learning.learn(set, stopConditions);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.unit.learning;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import br.com.wfcreations.sannmf.data.SupervisedSet;
+import br.com.wfcreations.sannmf.function.activation.Sigmoid;
+import br.com.wfcreations.sannmf.learning.ErrorCorrectionLearning;
+import br.com.wfcreations.sannmf.learning.algorithms.Backpropagation;
+import br.com.wfcreations.sannmf.learning.algorithms.LBFGS;
+import br.com.wfcreations.sannmf.learning.algorithms.ScaledConjugateGradient;
+import br.com.wfcreations.sannmf.learning.stopcondition.IStopCondition;
+import br.com.wfcreations.sannmf.learning.stopcondition.MaximumEpoch;
+import br.com.wfcreations.sannmf.learning.stopcondition.MaximumError;
+import br.com.wfcreations.sannmf.neuralnetwork.MLP;
+import br.com.wfcreations.sannmf.structure.ISynapse;
+import br.com.wfcreations.sannmf.structure.feedforward.ProcessorNeuron;
+
+public class FullBatchLearningTest {
+
+	MLP network, reference;
+
+	SupervisedSet set;
+
+	@Before
+	public void setUp() {
+		network = new MLP(1, new int[] { 6 }, 1, true, new Sigmoid());
+		reference = new MLP(1, new int[] { 6 }, 1, true, new Sigmoid());
+		Random random = new Random(11);
+		for (int l = 1; l < network.getLayersNum(); l++)
+			for (int n = 0; n < network.getLayerAt(l).getNeuronsNum(); n++)
+				if (network.getLayerAt(l).getNeuronAt(n) instanceof ProcessorNeuron) {
+					List<ISynapse> synapses = ((ProcessorNeuron) network.getLayerAt(l).getNeuronAt(n)).getInputConnections();
+					List<ISynapse> copies = ((ProcessorNeuron) reference.getLayerAt(l).getNeuronAt(n)).getInputConnections();
+					for (int i = 0; i < synapses.size(); i++) {
+						synapses.get(i).setWeight(random.nextDouble() * 2 - 1);
+						copies.get(i).setWeight(synapses.get(i).getWeight());
+					}
+				}
+		set = new SupervisedSet(1, 1);
+		for (int p = 0; p < 40; p++) {
+			double x = p / 40d;
+			set.addPattern(new double[] { x }, new double[] { 0.5 + 0.4 * Math.sin(2 * Math.PI * x) });
+		}
+	}
+
+	@Test
+	public void lbfgs() {
+		LBFGS lbfgs = new LBFGS(network, 5);
+		Backpropagation backpropagation = new Backpropagation(reference, 0.5, true);
+		train(lbfgs, 100);
+		train(backpropagation, 100);
+		assertTrue(lbfgs.evaluateError(set) <= lbfgs.getTotalNetworkError() + 1e-12);
+		assertTrue(lbfgs.evaluateError(set) < 1e-3);
+		assertTrue(lbfgs.evaluateError(set) < backpropagation.evaluateError(set));
+	}
+
+	@Test
+	public void scaledConjugateGradient() {
+		ScaledConjugateGradient scaledConjugateGradient = new ScaledConjugateGradient(network);
+		Backpropagation backpropagation = new Backpropagation(reference, 0.5, true);
+		train(scaledConjugateGradient, 100);
+		train(backpropagation, 100);
+		assertTrue(scaledConjugateGradient.evaluateError(set) <= scaledConjugateGradient.getTotalNetworkError() + 1e-12);
+		assertTrue(scaledConjugateGradient.evaluateError(set) < 1e-3);
+		assertTrue(scaledConjugateGradient.evaluateError(set) < backpropagation.evaluateError(set));
+	}
+
+	@Test
+	public void reportsErrorBeforeUpdate() {
+		LBFGS lbfgs = new LBFGS(network);
+		double initialError = lbfgs.evaluateError(set);
+		train(lbfgs, 1);
+		assertEquals(initialError, lbfgs.getTotalNetworkError(), 1e-12);
+		ScaledConjugateGradient scaledConjugateGradient = new ScaledConjugateGradient(reference);
+		train(scaledConjugateGradient, 1);
+		assertEquals(initialError, scaledConjugateGradient.getTotalNetworkError(), 1e-12);
+	}
+
+	@Test
+	public void emptySet() {
+		LBFGS lbfgs = new LBFGS(network);
+		List<IStopCondition> stopConditions = new ArrayList<IStopCondition>();
+		stopConditions.add(new MaximumEpoch(lbfgs, 10));
+		lbfgs.learn(new SupervisedSet(1, 1), stopConditions);
+		assertEquals(0, lbfgs.getTotalNetworkError(), 0);
+		assertEquals(1, lbfgs.getCurrentEpoch());
+	}
+
+	@Test
+	public void negativeCurvatureRaisesLambda() {
+		ScaledCurvature scaledConjugateGradient = new ScaledCurvature(network);
+		assertEquals(5, scaledConjugateGradient.scale(-5, 1, 2), 1e-12);
+		assertEquals(5, scaledConjugateGradient.lambda(), 1e-12);
+		assertEquals(-5 + 5 * 2, scaledConjugateGradient.scale(-5, 5, 2), 1e-12);
+		assertEquals(5, scaledConjugateGradient.lambda(), 1e-12);
+	}
+
+	@Test
+	public void stopsAtMaximumError() {
+		LBFGS lbfgs = new LBFGS(network);
+		List<IStopCondition> stopConditions = new ArrayList<IStopCondition>();
+		stopConditions.add(new MaximumError(lbfgs, 5e-3));
+		stopConditions.add(new MaximumEpoch(lbfgs, 1000));
+		lbfgs.learn(set, stopConditions);
+		assertTrue(lbfgs.getCurrentEpoch() < 1000);
+		assertTrue(lbfgs.getTotalNetworkError() <= 5e-3);
+	}
+
+	@Test
+	public void threadsDoNotChangeResult() {
+		train(new LBFGS(network).setThreadsNum(3), 10);
+		train(new LBFGS(reference).setThreadsNum(1), 10);
+		for (int p = 0; p < set.lenght(); p++)
+			assertArrayEquals(reference.setInput(set.getPatternAt(p).getInputs()).activate().getOutput().clone(), network.setInput(set.getPatternAt(p).getInputs()).activate().getOutput(), 1e-9);
+	}
+
+	private void train(ErrorCorrectionLearning learning, int epochs) {
+		List<IStopCondition> stopConditions = new ArrayList<IStopCondition>();
+		stopConditions.add(new MaximumEpoch(learning, epochs));
+		learning.learn(set, stopConditions);
+	}
+
+	static class ScaledCurvature extends ScaledConjugateGradient {
+
+		private static final long serialVersionUID = 1L;
+
+		ScaledCurvature(MLP network) {
+			super(network);
+		}
+
+		double scale(double theta, double lambda, double kappa) {
+			this.theta = theta;
+			this.lambda = lambda;
+			this.kappa = kappa;
+			return this.scaledCurvature();
+		}
+
+		double lambda() {
+			return this.lambda;
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.unit.learning;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import br.com.wfcreations.sannmf.data.SupervisedSet;
+import br.com.wfcreations.sannmf.function.activation.Sigmoid;
+import br.com.wfcreations.sannmf.function.error.IErrorFunction;
+import br.com.wfcreations.sannmf.function.weightinitialization.UniformDistribution;
+import br.com.wfcreations.sannmf.learning.algorithms.Backpropagation;
+import br.com.wfcreations.sannmf.learning.algorithms.CompiledBackpropagation;
+import br.com.wfcreations.sannmf.learning.algorithms.HogwildBackpropagation;
+import br.com.wfcreations.sannmf.learning.optimizer.Adam;
+import br.com.wfcreations.sannmf.learning.stopcondition.IStopCondition;
+import br.com.wfcreations.sannmf.learning.stopcondition.MaximumEpoch;
+import br.com.wfcreations.sannmf.neuralnetwork.MLP;
+import br.com.wfcreations.sannmf.structure.ISynapse;
+import br.com.wfcreations.sannmf.structure.feedforward.ProcessorNeuron;
+
+public class HogwildBackpropagationTest {
+
+	MLP network, reference;
+
+	SupervisedSet set;
+
+	@Before
+	public void setUp() {
+		network = new MLP(3, new int[] { 5 }, 2, true, new Sigmoid());
+		network.initializeWeights(new UniformDistribution(-1, 1));
+		reference = new MLP(3, new int[] { 5 }, 2, true, new Sigmoid());
+		for (int l = 1; l < network.getLayersNum(); l++)
+			for (int n = 0; n < network.getLayerAt(l).getNeuronsNum(); n++)
+				if (network.getLayerAt(l).getNeuronAt(n) instanceof ProcessorNeuron) {
+					List<ISynapse> synapses = ((ProcessorNeuron) network.getLayerAt(l).getNeuronAt(n)).getInputConnections();
+					List<ISynapse> copies = ((ProcessorNeuron) reference.getLayerAt(l).getNeuronAt(n)).getInputConnections();
+					for (int i = 0; i < synapses.size(); i++)
+						copies.get(i).setWeight(synapses.get(i).getWeight());
+				}
+		Random random = new Random(5);
+		set = new SupervisedSet(3, 2);
+		for (int p = 0; p < 13; p++)
+			set.addPattern(new double[] { random.nextDouble(), random.nextDouble(), random.nextDouble() }, new double[] { random.nextDouble(), random.nextDouble() });
+	}
+
+	@Test
+	public void reducesError() {
+		HogwildBackpropagation hogwild = new HogwildBackpropagation(network, 0.5, 4);
+		double initialError = hogwild.evaluateError(set);
+		train(hogwild);
+		assertFalse(Double.isNaN(hogwild.getTotalNetworkError()));
+		assertTrue(hogwild.evaluateError(set) < initialError);
+	}
+
+	@Test
+	public void singleThreadIsDeterministic() {
+		train(new HogwildBackpropagation(network, 0.5, 1));
+		train(new HogwildBackpropagation(reference, 0.5, 1));
+		for (int p = 0; p < set.lenght(); p++)
+			assertArrayEquals(reference.setInput(set.getPatternAt(p).getInputs()).activate().getOutput().clone(), network.setInput(set.getPatternAt(p).getInputs()).activate().getOutput(), 0);
+	}
+
+	@Test
+	public void singleThreadAdamMatchesCompiledOnline() {
+		HogwildBackpropagation hogwild = new HogwildBackpropagation(network, 0.05, 1);
+		hogwild.setOptimizer(new Adam());
+		CompiledBackpropagation online = new CompiledBackpropagation(reference, 0.05, false);
+		online.setOptimizer(new Adam());
+		train(hogwild);
+		train(online);
+		for (int p = 0; p < set.lenght(); p++)
+			assertArrayEquals(reference.setInput(set.getPatternAt(p).getInputs()).activate().getOutput().clone(), network.setInput(set.getPatternAt(p).getInputs()).activate().getOutput(), 1e-12);
+	}
+
+	@Test
+	public void adamWithSeveralThreads() {
+		HogwildBackpropagation hogwild = new HogwildBackpropagation(network, 0.05, 4);
+		hogwild.setOptimizer(new Adam());
+		double initialError = hogwild.evaluateError(set);
+		train(hogwild);
+		assertFalse(Double.isNaN(hogwild.getTotalNetworkError()));
+		assertTrue(hogwild.evaluateError(set) < initialError);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void batchMode() {
+		new HogwildBackpropagation(network, 0.5, 2).setBatchMode(true);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void unmergeableErrorFunction() {
+		new HogwildBackpropagation(network, 0.5, 2).setErrorFunction(new IErrorFunction() {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public double getTotalError() {
+				return 0;
+			}
+
+			@Override
+			public void addOutputsError(double[] outputError) {
+			}
+
+			@Override
+			public double getOutputError(double[] outputError) {
+				return 0;
+			}
+
+			@Override
+			public void reset() {
+			}
+		});
+	}
+
+	private void train(Backpropagation learning) {
+		List<IStopCondition> stopConditions = new ArrayList<IStopCondition>();
+		stopConditions.add(new MaximumEpoch(learning, 20));
+		learning.learn(set, stopConditions);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.unit.learning;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import br.com.wfcreations.sannmf.data.SupervisedSet;
+import br.com.wfcreations.sannmf.function.activation.Sigmoid;
+import br.com.wfcreations.sannmf.function.weightinitialization.UniformDistribution;
+import br.com.wfcreations.sannmf.learning.algorithms.Backpropagation;
+import br.com.wfcreations.sannmf.learning.schedule.BoldDriver;
+import br.com.wfcreations.sannmf.learning.schedule.CosineAnnealing;
+import br.com.wfcreations.sannmf.learning.schedule.ExponentialDecay;
+import br.com.wfcreations.sannmf.learning.schedule.OneCycle;
+import br.com.wfcreations.sannmf.learning.schedule.ReduceOnPlateau;
+import br.com.wfcreations.sannmf.learning.schedule.StepDecay;
+import br.com.wfcreations.sannmf.learning.schedule.WarmRestarts;
+import br.com.wfcreations.sannmf.learning.stopcondition.IStopCondition;
+import br.com.wfcreations.sannmf.learning.stopcondition.MaximumEpoch;
+import br.com.wfcreations.sannmf.neuralnetwork.MLP;
+import br.com.wfcreations.sannmf.structure.ISynapse;
+import br.com.wfcreations.sannmf.structure.feedforward.ProcessorNeuron;
+
+public class LearningRateScheduleTest {
+
+	MLP network, reference;
+
+	SupervisedSet set;
+
+	@Before
+	public void setUp() {
+		network = new MLP(3, new int[] { 5 }, 2, true, new Sigmoid());
+		network.initializeWeights(new UniformDistribution(-1, 1));
+		reference = new MLP(3, new int[] { 5 }, 2, true, new Sigmoid());
+		for (int l = 1; l < network.getLayersNum(); l++)
+			for (int n = 0; n < network.getLayerAt(l).getNeuronsNum(); n++)
+				if (network.getLayerAt(l).getNeuronAt(n) instanceof ProcessorNeuron) {
+					List<ISynapse> synapses = ((ProcessorNeuron) network.getLayerAt(l).getNeuronAt(n)).getInputConnections();
+					List<ISynapse> copies = ((ProcessorNeuron) reference.getLayerAt(l).getNeuronAt(n)).getInputConnections();
+					for (int i = 0; i < synapses.size(); i++)
+						copies.get(i).setWeight(synapses.get(i).getWeight());
+				}
+		Random random = new Random(5);
+		set = new SupervisedSet(3, 2);
+		for (int p = 0; p < 13; p++)
+			set.addPattern(new double[] { random.nextDouble(), random.nextDouble(), random.nextDouble() }, new double[] { random.nextDouble(), random.nextDouble() });
+	}
+
+	@Test
+	public void schedules() {
+		assertEquals(0.25, new StepDecay(0.5, 2).getLearningRate(1, 4.5), 1e-15);
+		assertEquals(Math.exp(-0.2), new ExponentialDecay(0.1).getLearningRate(1, 2), 1e-15);
+		assertEquals(0.5, new CosineAnnealing(10).getLearningRate(1, 5), 1e-15);
+		assertEquals(0, new CosineAnnealing(10).getLearningRate(1, 12), 1e-15);
+		assertEquals(1, new WarmRestarts(4, 2, 0).getLearningRate(1, 4), 1e-15);
+		assertEquals(0.5, new WarmRestarts(4, 2, 0).getLearningRate(1, 8), 1e-15);
+		OneCycle oneCycle = new OneCycle(1, 10, 0.2, 0);
+		assertEquals(0.1, oneCycle.getLearningRate(0.1, 0), 1e-15);
+		assertEquals(1, oneCycle.getLearningRate(0.1, 2), 1e-15);
+		assertEquals(0.5, oneCycle.getLearningRate(0.1, 6), 1e-15);
+	}
+
+	@Test
+	public void consultedEachEpoch() {
+		Backpropagation backpropagation = new Backpropagation(network, 0.4, false);
+		backpropagation.setLearningRateSchedule(new StepDecay(0.5, 1));
+		train(backpropagation, 3);
+		assertEquals(0.1, backpropagation.getLearningRate(), 1e-15);
+		assertEquals(0.4, backpropagation.getInitialLearningRate(), 0);
+		train(backpropagation, 1);
+		assertEquals(0.4, backpropagation.getLearningRate(), 1e-15);
+	}
+
+	@Test
+	public void consultedEachMiniBatch() {
+		Backpropagation backpropagation = new Backpropagation(network, 0.4, true);
+		backpropagation.setBatchSize(set.lenght() / 2 + 1);
+		backpropagation.setLearningRateSchedule(new CosineAnnealing(1));
+		train(backpropagation, 1);
+		assertTrue(backpropagation.getLearningRate() < 0.4);
+	}
+
+	@Test
+	public void boldDriver() {
+		Backpropagation backpropagation = new Backpropagation(network, 0.1, false);
+		BoldDriver boldDriver = new BoldDriver(1.5, 0.5, 0);
+		backpropagation.setLearningRateSchedule(boldDriver);
+		train(backpropagation, 3);
+		assertEquals(1.5, boldDriver.getFactor(), 1e-15);
+		assertEquals(0.15, backpropagation.getLearningRate(), 1e-15);
+	}
+
+	@Test
+	public void reduceOnPlateau() {
+		Backpropagation backpropagation = new Backpropagation(network, 0.1, false);
+		ReduceOnPlateau plateau = new ReduceOnPlateau(0.5, 1, 1, 0);
+		backpropagation.setLearningRateSchedule(plateau);
+		train(backpropagation, 3);
+		assertEquals(0.5, plateau.getFactor(), 1e-15);
+	}
+
+	private void train(Backpropagation learning, int epochs) {
+		List<IStopCondition> stopConditions = new ArrayList<IStopCondition>();
+		stopConditions.add(new MaximumEpoch(learning, epochs));
+		learning.learn(set, stopConditions);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.unit.learning;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import br.com.wfcreations.sannmf.data.SupervisedSet;
+import br.com.wfcreations.sannmf.function.activation.Sigmoid;
+import br.com.wfcreations.sannmf.learning.ErrorCorrectionLearning;
+import br.com.wfcreations.sannmf.learning.algorithms.Backpropagation;
+import br.com.wfcreations.sannmf.learning.algorithms.LevenbergMarquardt;
+import br.com.wfcreations.sannmf.learning.stopcondition.IStopCondition;
+import br.com.wfcreations.sannmf.learning.stopcondition.MaximumEpoch;
+import br.com.wfcreations.sannmf.neuralnetwork.MLP;
+import br.com.wfcreations.sannmf.structure.ISynapse;
+import br.com.wfcreations.sannmf.structure.feedforward.ProcessorNeuron;
+import br.com.wfcreations.sannmf.utils.MatrixUtils;
+
+public class LevenbergMarquardtTest {
+
+	MLP network, reference;
+
+	SupervisedSet set;
+
+	@Before
+	public void setUp() {
+		network = new MLP(1, new int[] { 6 }, 1, true, new Sigmoid());
+		reference = new MLP(1, new int[] { 6 }, 1, true, new Sigmoid());
+		Random random = new Random(11);
+		for (int l = 1; l < network.getLayersNum(); l++)
+			for (int n = 0; n < network.getLayerAt(l).getNeuronsNum(); n++)
+				if (network.getLayerAt(l).getNeuronAt(n) instanceof ProcessorNeuron) {
+					List<ISynapse> synapses = ((ProcessorNeuron) network.getLayerAt(l).getNeuronAt(n)).getInputConnections();
+					List<ISynapse> copies = ((ProcessorNeuron) reference.getLayerAt(l).getNeuronAt(n)).getInputConnections();
+					for (int i = 0; i < synapses.size(); i++) {
+						synapses.get(i).setWeight(random.nextDouble() * 2 - 1);
+						copies.get(i).setWeight(synapses.get(i).getWeight());
+					}
+				}
+		set = new SupervisedSet(1, 1);
+		for (int p = 0; p < 40; p++) {
+			double x = p / 40d;
+			set.addPattern(new double[] { x }, new double[] { 0.5 + 0.4 * Math.sin(2 * Math.PI * x) });
+		}
+	}
+
+	@Test
+	public void choleskySolve() {
+		double[] a = { 4, 0, 0, 12, 37, 0, -16, -43, 98 };
+		double[] b = { 1, 2, 3 };
+		assertTrue(MatrixUtils.choleskyDecompose(a, 3));
+		MatrixUtils.choleskySolve(a, 3, b);
+		double[][] matrix = { { 4, 12, -16 }, { 12, 37, -43 }, { -16, -43, 98 } };
+		for (int i = 0; i < 3; i++)
+			assertEquals(i + 1, matrix[i][0] * b[0] + matrix[i][1] * b[1] + matrix[i][2] * b[2], 1e-9);
+		assertFalse(MatrixUtils.choleskyDecompose(new double[] { 1, 0, 2, 1 }, 2));
+	}
+
+	@Test
+	public void approximatesFunction() {
+		LevenbergMarquardt levenbergMarquardt = new LevenbergMarquardt(network);
+		Backpropagation backpropagation = new Backpropagation(reference, 0.5, true);
+		train(levenbergMarquardt, 30);
+		train(backpropagation, 30);
+		assertTrue(levenbergMarquardt.evaluateError(set) < 1e-3);
+		assertTrue(levenbergMarquardt.evaluateError(set) < backpropagation.evaluateError(set));
+	}
+
+	@Test
+	public void blockSizeDoesNotChangeResult() {
+		train(new LevenbergMarquardt(network).setBlockSize(7), 5);
+		train(new LevenbergMarquardt(reference), 5);
+		for (int p = 0; p < set.lenght(); p++)
+			assertArrayEquals(reference.setInput(set.getPatternAt(p).getInputs()).activate().getOutput().clone(), network.setInput(set.getPatternAt(p).getInputs()).activate().getOutput(), 1e-9);
+	}
+
+	@Test
+	public void dampingStaysAboveMinimum() {
+		LevenbergMarquardt levenbergMarquardt = new LevenbergMarquardt(network).setDampingFactor(1e100);
+		train(levenbergMarquardt, 50);
+		assertEquals(50, levenbergMarquardt.getCurrentEpoch());
+		assertTrue(levenbergMarquardt.getCurrentDamping() >= LevenbergMarquardt.MINIMUM_DAMPING);
+		assertFalse(Double.isNaN(levenbergMarquardt.getTotalNetworkError()));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void onlineMode() {
+		new LevenbergMarquardt(network).setBatchMode(false);
+	}
+
+	private void train(ErrorCorrectionLearning learning, int epochs) {
+		List<IStopCondition> stopConditions = new ArrayList<IStopCondition>();
+		stopConditions.add(new MaximumEpoch(learning, epochs));
+		learning.learn(set, stopConditions);
+	}
+}
\ No newline at end of file
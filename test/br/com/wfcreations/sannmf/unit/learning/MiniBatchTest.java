@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.unit.learning;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import br.com.wfcreations.sannmf.data.SupervisedSet;
+import br.com.wfcreations.sannmf.function.activation.Sigmoid;
+import br.com.wfcreations.sannmf.function.weightinitialization.UniformDistribution;
+import br.com.wfcreations.sannmf.learning.algorithms.Backpropagation;
+import br.com.wfcreations.sannmf.learning.stopcondition.IStopCondition;
+import br.com.wfcreations.sannmf.learning.stopcondition.MaximumEpoch;
+import br.com.wfcreations.sannmf.neuralnetwork.MLP;
+import br.com.wfcreations.sannmf.structure.ISynapse;
+import br.com.wfcreations.sannmf.structure.feedforward.ProcessorNeuron;
+
+public class MiniBatchTest {
+
+	MLP network, reference;
+
+	SupervisedSet set;
+
+	@Before
+	public void setUp() {
+		network = new MLP(3, new int[] { 5 }, 2, true, new Sigmoid());
+		network.initializeWeights(new UniformDistribution(-1, 1));
+		reference = new MLP(3, new int[] { 5 }, 2, true, new Sigmoid());
+		for (int l = 1; l < network.getLayersNum(); l++)
+			for (int n = 0; n < network.getLayerAt(l).getNeuronsNum(); n++)
+				if (network.getLayerAt(l).getNeuronAt(n) instanceof ProcessorNeuron) {
+					List<ISynapse> synapses = ((ProcessorNeuron) network.getLayerAt(l).getNeuronAt(n)).getInputConnections();
+					List<ISynapse> copies = ((ProcessorNeuron) reference.getLayerAt(l).getNeuronAt(n)).getInputConnections();
+					for (int i = 0; i < synapses.size(); i++)
+						copies.get(i).setWeight(synapses.get(i).getWeight());
+				}
+		Random random = new Random(3);
+		set = new SupervisedSet(3, 2);
+		for (int p = 0; p < 12; p++)
+			set.addPattern(new double[] { random.nextDouble(), random.nextDouble(), random.nextDouble() }, new double[] { random.nextDouble(), random.nextDouble() });
+	}
+
+	@Test
+	public void updatesWithinEpoch() {
+		Backpropagation miniBatch = new Backpropagation(network, 0.5, true);
+		miniBatch.setBatchSize(4);
+		assertTrue(miniBatch.isMiniBatchMode());
+		Backpropagation batch = new Backpropagation(reference, 0.5, true);
+		assertFalse(batch.isMiniBatchMode());
+		double initialError = batch.evaluateError(set);
+		train(miniBatch);
+		train(batch);
+		assertTrue(miniBatch.evaluateError(set) < initialError);
+		assertTrue(batch.evaluateError(set) < initialError);
+		double[] inputs = set.getPatternAt(0).getInputs();
+		assertNotEquals(reference.setInput(inputs).activate().getOutput()[0], network.setInput(inputs).activate().getOutput()[0], 1e-9);
+	}
+
+	@Test
+	public void wholeSetBatchMatchesBatch() {
+		Backpropagation miniBatch = new Backpropagation(network, 0.5, true);
+		miniBatch.setBatchSize(set.lenght());
+		train(miniBatch);
+		train(new Backpropagation(reference, 0.5, true));
+		assertSameOutputs();
+	}
+
+	@Test
+	public void partialLastBatch() {
+		Backpropagation miniBatch = new Backpropagation(network, 0.5, true);
+		miniBatch.setBatchSize(5);
+		train(miniBatch);
+		assertEquals(10, miniBatch.getCurrentEpoch());
+		assertFalse(Double.isNaN(miniBatch.getTotalNetworkError()));
+		for (int l = 1; l < network.getLayersNum(); l++)
+			for (int n = 0; n < network.getLayerAt(l).getNeuronsNum(); n++)
+				if (network.getLayerAt(l).getNeuronAt(n) instanceof ProcessorNeuron)
+					for (ISynapse synapse : ((ProcessorNeuron) network.getLayerAt(l).getNeuronAt(n)).getInputConnections())
+						assertEquals(0, synapse.getWeightChange(), 0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void negativeBatchSize() {
+		new Backpropagation(network, 0.5, true).setBatchSize(-1);
+	}
+
+	private void assertSameOutputs() {
+		for (int p = 0; p < set.lenght(); p++)
+			assertArrayEquals(reference.setInput(set.getPatternAt(p).getInputs()).activate().getOutput().clone(), network.setInput(set.getPatternAt(p).getInputs()).activate().getOutput(), 1e-12);
+	}
+
+	private void train(Backpropagation backpropagation) {
+		List<IStopCondition> stopConditions = new ArrayList<IStopCondition>();
+		stopConditions.add(new MaximumEpoch(backpropagation, 10));
+		backpropagation.learn(set, stopConditions);
+	}
+}
\ No newline at end of file
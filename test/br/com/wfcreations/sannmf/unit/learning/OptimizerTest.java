@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.unit.learning;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import br.com.wfcreations.sannmf.data.SupervisedSet;
+import br.com.wfcreations.sannmf.function.activation.Sigmoid;
+import br.com.wfcreations.sannmf.function.weightinitialization.UniformDistribution;
+import br.com.wfcreations.sannmf.learning.algorithms.Backpropagation;
+import br.com.wfcreations.sannmf.learning.algorithms.CompiledBackpropagation;
+import br.com.wfcreations.sannmf.learning.optimizer.Adam;
+import br.com.wfcreations.sannmf.learning.optimizer.IOptimizer;
+import br.com.wfcreations.sannmf.learning.optimizer.Momentum;
+import br.com.wfcreations.sannmf.learning.optimizer.Nesterov;
+import br.com.wfcreations.sannmf.learning.optimizer.RMSProp;
+import br.com.wfcreations.sannmf.learning.optimizer.SGD;
+import br.com.wfcreations.sannmf.learning.stopcondition.IStopCondition;
+import br.com.wfcreations.sannmf.learning.stopcondition.MaximumEpoch;
+import br.com.wfcreations.sannmf.neuralnetwork.MLP;
+import br.com.wfcreations.sannmf.structure.ISynapse;
+import br.com.wfcreations.sannmf.structure.feedforward.ProcessorNeuron;
+
+public class OptimizerTest {
+
+	MLP network, reference;
+
+	SupervisedSet set;
+
+	@Before
+	public void setUp() {
+		network = new MLP(3, new int[] { 5 }, 2, true, new Sigmoid());
+		network.initializeWeights(new UniformDistribution(-1, 1));
+		reference = new MLP(3, new int[] { 5 }, 2, true, new Sigmoid());
+		for (int l = 1; l < network.getLayersNum(); l++)
+			for (int n = 0; n < network.getLayerAt(l).getNeuronsNum(); n++)
+				if (network.getLayerAt(l).getNeuronAt(n) instanceof ProcessorNeuron) {
+					List<ISynapse> synapses = ((ProcessorNeuron) network.getLayerAt(l).getNeuronAt(n)).getInputConnections();
+					List<ISynapse> copies = ((ProcessorNeuron) reference.getLayerAt(l).getNeuronAt(n)).getInputConnections();
+					for (int i = 0; i < synapses.size(); i++)
+						copies.get(i).setWeight(synapses.get(i).getWeight());
+				}
+		Random random = new Random(5);
+		set = new SupervisedSet(3, 2);
+		for (int p = 0; p < 13; p++)
+			set.addPattern(new double[] { random.nextDouble(), random.nextDouble(), random.nextDouble() }, new double[] { random.nextDouble(), random.nextDouble() });
+	}
+
+	@Test
+	public void momentum() {
+		double[][] moments = new double[1][1];
+		Momentum momentum = new Momentum(0.5);
+		assertEquals(0.1, momentum.weightChange(1, 0.1, moments, 0, 1), 1e-15);
+		assertEquals(0.15, momentum.weightChange(1, 0.1, moments, 0, 2), 1e-15);
+		assertEquals(0.175, momentum.weightChange(1, 0.1, moments, 0, 3), 1e-15);
+	}
+
+	@Test
+	public void nesterov() {
+		double[][] moments = new double[1][1];
+		Nesterov nesterov = new Nesterov(0.5);
+		assertEquals(0.15, nesterov.weightChange(1, 0.1, moments, 0, 1), 1e-15);
+		assertEquals(0.175, nesterov.weightChange(1, 0.1, moments, 0, 2), 1e-15);
+	}
+
+	@Test
+	public void adamFirstStep() {
+		double[][] moments = new double[2][2];
+		double[] gradients = { 4, -0.25 };
+		new Adam().weightChanges(gradients, 0, 0.01, moments, 0, 2, 1);
+		assertEquals(0.01, gradients[0], 1e-9);
+		assertEquals(-0.01, gradients[1], 1e-9);
+	}
+
+	@Test
+	public void stateless() {
+		assertTrue(new SGD().isStateless());
+		for (IOptimizer optimizer : new IOptimizer[] { new Momentum(), new Nesterov(), new RMSProp(), new Adam() })
+			assertFalse(optimizer.isStateless());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidMomentum() {
+		new Momentum(1);
+	}
+
+	@Test
+	public void reducesError() {
+		for (IOptimizer optimizer : new IOptimizer[] { new Momentum(), new Nesterov(), new RMSProp(), new Adam() }) {
+			setUp();
+			Backpropagation backpropagation = new Backpropagation(network, 0.01, false);
+			backpropagation.setOptimizer(optimizer);
+			double initialError = backpropagation.evaluateError(set);
+			train(backpropagation);
+			assertTrue(backpropagation.evaluateError(set) < initialError);
+		}
+	}
+
+	@Test
+	public void compiledMatchesObjectModel() {
+		CompiledBackpropagation compiled = new CompiledBackpropagation(network, 0.05, true);
+		compiled.setOptimizer(new Adam());
+		Backpropagation batch = new Backpropagation(reference, 0.05, true);
+		batch.setOptimizer(new Adam());
+		train(compiled);
+		train(batch);
+		for (int p = 0; p < set.lenght(); p++)
+			assertArrayEquals(reference.setInput(set.getPatternAt(p).getInputs()).activate().getOutput().clone(), network.setInput(set.getPatternAt(p).getInputs()).activate().getOutput(), 1e-9);
+	}
+
+	private void train(Backpropagation learning) {
+		List<IStopCondition> stopConditions = new ArrayList<IStopCondition>();
+		stopConditions.add(new MaximumEpoch(learning, 10));
+		learning.learn(set, stopConditions);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.unit.structure;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import br.com.wfcreations.sannmf.data.SupervisedSet;
+import br.com.wfcreations.sannmf.function.activation.Sigmoid;
+import br.com.wfcreations.sannmf.function.weightinitialization.UniformDistribution;
+import br.com.wfcreations.sannmf.learning.algorithms.Backpropagation;
+import br.com.wfcreations.sannmf.learning.stopcondition.IStopCondition;
+import br.com.wfcreations.sannmf.learning.stopcondition.MaximumEpoch;
+import br.com.wfcreations.sannmf.neuralnetwork.MLP;
+import br.com.wfcreations.sannmf.structure.ILayer;
+import br.com.wfcreations.sannmf.structure.INeuron;
+import br.com.wfcreations.sannmf.structure.ISynapse;
+import br.com.wfcreations.sannmf.structure.feedforward.AbstractConnection;
+import br.com.wfcreations.sannmf.structure.feedforward.DenseConnection;
+import br.com.wfcreations.sannmf.structure.feedforward.IOutputtedNeuron;
+import br.com.wfcreations.sannmf.structure.feedforward.InputNeuron;
+import br.com.wfcreations.sannmf.structure.feedforward.MatrixSynapse;
+import br.com.wfcreations.sannmf.structure.feedforward.ProcessorNeuron;
+
+public class DenseConnectionTest {
+
+	MLP mlp;
+
+	ProcessorNeuron hidden;
+
+	DenseConnection connection;
+
+	@Before
+	public void setUp() {
+		mlp = new MLP(3, new int[] { 4 }, 2, true, new Sigmoid());
+		mlp.initializeWeights(new UniformDistribution(-1, 1));
+		hidden = (ProcessorNeuron) mlp.getLayerAt(1).getNeuronAt(1);
+		connection = (DenseConnection) hidden.getInputMatrices().get(0);
+	}
+
+	@Test
+	public void views() {
+		InputNeuron input = mlp.getInputNeurons()[2];
+
+		assertTrue(hidden.getInputSynapses().isEmpty());
+		assertEquals(4, hidden.getInputsNum());
+		assertEquals(4, hidden.getInputConnections().size());
+		assertEquals(4, input.getOutputsNum());
+		assertTrue(hidden.hasConnectionFrom(input));
+		assertTrue(input.hasConnectionTo(hidden));
+
+		ISynapse synapse = hidden.getSynapseFrom(input);
+		assertTrue(synapse instanceof MatrixSynapse);
+		assertSame(input, synapse.getPresynaptic());
+		assertSame(hidden, synapse.getPostsynaptic());
+		assertEquals(synapse, input.getSynapsenTo(hidden));
+		assertEquals(synapse, hidden.getInputConnectionAt(3));
+
+		synapse.setWeight(0.75);
+		assertEquals(0.75, connection.getWeight(0, 3), 0);
+		assertEquals(1.75, synapse.incrementWeight(1), 0);
+	}
+
+	@Test
+	public void activate() {
+		double[] inputs = { 0.5, -0.25, 1 };
+		mlp.setInput(inputs).activate();
+
+		double expected = 0;
+		for (ISynapse synapse : hidden.getInputConnections())
+			expected += ((IOutputtedNeuron) synapse.getPresynaptic()).getOutput() * synapse.getWeight();
+		assertEquals(expected, hidden.getInducedLocalField(), 1e-12);
+		assertArrayEquals(mlp.compile().activate(inputs), mlp.getOutput(), 1e-12);
+	}
+
+	@Test
+	public void detach() {
+		InputNeuron input = mlp.getInputNeurons()[0];
+		double weight = hidden.getSynapseFrom(mlp.getInputNeurons()[1]).getWeight();
+
+		assertTrue(hidden.removeConnectionFrom(input));
+		assertTrue(hidden.getInputMatrices().isEmpty());
+		assertTrue(connection.isDetached(0));
+		assertEquals(3, connection.getAttachedNum());
+		assertEquals(3, hidden.getInputsNum());
+		assertFalse(hidden.hasConnectionFrom(input));
+		assertEquals(weight, hidden.getSynapseFrom(mlp.getInputNeurons()[1]).getWeight(), 0);
+		assertFalse(hidden.getSynapseFrom(mlp.getInputNeurons()[1]) instanceof MatrixSynapse);
+	}
+
+	@Test
+	public void trainingMatchesSynapses() {
+		MLP detached = new MLP(3, new int[] { 4 }, 2, true, new Sigmoid());
+		Random random = new Random(5);
+		for (int l = 1; l < mlp.getLayersNum(); l++)
+			for (int n = 0; n < mlp.getLayerAt(l).getNeuronsNum(); n++)
+				if (mlp.getLayerAt(l).getNeuronAt(n) instanceof ProcessorNeuron) {
+					List<ISynapse> synapses = ((ProcessorNeuron) mlp.getLayerAt(l).getNeuronAt(n)).getInputConnections();
+					List<ISynapse> copies = ((ProcessorNeuron) detached.getLayerAt(l).getNeuronAt(n)).getInputConnections();
+					for (int i = 0; i < synapses.size(); i++)
+						copies.get(i).setWeight(synapses.get(i).getWeight());
+				}
+		for (ILayer layer : detached.getLayers())
+			for (INeuron neuron : layer.getNeurons())
+				if (neuron instanceof ProcessorNeuron)
+					for (AbstractConnection dense : new ArrayList<AbstractConnection>(((ProcessorNeuron) neuron).getInputMatrices()))
+						dense.detach(dense.indexOfPostsynaptic(neuron));
+
+		SupervisedSet set = new SupervisedSet(3, 2);
+		for (int p = 0; p < 10; p++)
+			set.addPattern(new double[] { random.nextDouble(), random.nextDouble(), random.nextDouble() }, new double[] { random.nextDouble(), random.nextDouble() });
+
+		for (boolean batchMode : new boolean[] { false, true }) {
+			train(new Backpropagation(mlp, 0.5, batchMode), set);
+			train(new Backpropagation(detached, 0.5, batchMode), set);
+			for (int p = 0; p < set.lenght(); p++)
+				assertArrayEquals(detached.setInput(set.getPatternAt(p).getInputs()).activate().getOutput().clone(), mlp.setInput(set.getPatternAt(p).getInputs()).activate().getOutput(), 1e-12);
+		}
+	}
+
+	private void train(Backpropagation backpropagation, SupervisedSet set) {
+		List<IStopCondition> stopConditions = new ArrayList<IStopCondition>();
+		stopConditions.add(new MaximumEpoch(backpropagation, 20));
+		backpropagation.learn(set, stopConditions);
+	}
+}
\ No newline at end of file
@@ -29,6 +29,105 @@
  */
 package br.com.wfcreations.sannmf.unit.structure;
 
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import br.com.wfcreations.sannmf.data.SupervisedSet;
+import br.com.wfcreations.sannmf.function.activation.Sigmoid;
+import br.com.wfcreations.sannmf.learning.algorithms.Backpropagation;
+import br.com.wfcreations.sannmf.learning.stopcondition.IStopCondition;
+import br.com.wfcreations.sannmf.learning.stopcondition.MaximumEpoch;
+import br.com.wfcreations.sannmf.neuralnetwork.MLP;
+import br.com.wfcreations.sannmf.structure.ISynapse;
+import br.com.wfcreations.sannmf.structure.feedforward.ProcessorLayer;
+import br.com.wfcreations.sannmf.structure.feedforward.ProcessorNeuron;
+
 public class LayerTest {
 
-}
+	MLP sequential, parallel;
+
+	SupervisedSet set;
+
+	@Before
+	public void setUp() {
+		sequential = new MLP(4, new int[] { 100, 80 }, 3, true, new Sigmoid());
+		parallel = new MLP(4, new int[] { 100, 80 }, 3, true, new Sigmoid());
+		Random random = new Random(11);
+		for (int l = 1; l < sequential.getLayersNum(); l++)
+			for (int n = 0; n < sequential.getLayerAt(l).getNeuronsNum(); n++)
+				if (sequential.getLayerAt(l).getNeuronAt(n) instanceof ProcessorNeuron) {
+					List<ISynapse> synapses = ((ProcessorNeuron) sequential.getLayerAt(l).getNeuronAt(n)).getInputConnections();
+					List<ISynapse> copies = ((ProcessorNeuron) parallel.getLayerAt(l).getNeuronAt(n)).getInputConnections();
+					for (int i = 0; i < synapses.size(); i++) {
+						synapses.get(i).setWeight(random.nextDouble() - 0.5);
+						copies.get(i).setWeight(synapses.get(i).getWeight());
+					}
+				}
+		parallel.setParallel(true).setParallelThreshold(8);
+
+		set = new SupervisedSet(4, 3);
+		for (int p = 0; p < 10; p++)
+			set.addPattern(new double[] { random.nextDouble(), random.nextDouble(), random.nextDouble(), random.nextDouble() }, new double[] { random.nextDouble(), random.nextDouble(), random.nextDouble() });
+	}
+
+	@Test
+	public void parallelSettings() {
+		ProcessorLayer layer = (ProcessorLayer) parallel.getLayerAt(1);
+		assertTrue(layer.isParallel());
+		assertTrue(layer.isParallel(8));
+		assertFalse(layer.isParallel(7));
+		assertFalse(((ProcessorLayer) sequential.getLayerAt(1)).isParallel(1000));
+		assertEquals(100, layer.getProcessorNeurons().length);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidParallelThreshold() {
+		new ProcessorLayer().setParallelThreshold(0);
+	}
+
+	@Test
+	public void parallelActivate() {
+		for (int p = 0; p < set.lenght(); p++)
+			assertArrayEquals(sequential.setInput(set.getPatternAt(p).getInputs()).activate().getOutput().clone(), parallel.setInput(set.getPatternAt(p).getInputs()).activate().getOutput(), 0);
+	}
+
+	@Test
+	public void parallelTraining() {
+		for (boolean batchMode : new boolean[] { false, true }) {
+			train(new Backpropagation(sequential, 0.3, batchMode));
+			train(new Backpropagation(parallel, 0.3, batchMode));
+			parallelActivate();
+		}
+	}
+
+	@Test
+	public void freeze() {
+		parallel.freeze();
+		assertTrue(parallel.isFrozen());
+		assertTrue(((ProcessorLayer) parallel.getLayerAt(1)).isFrozen());
+		assertTrue(((ProcessorNeuron) parallel.getLayerAt(2).getNeuronAt(1)).isFrozen());
+		parallelTraining();
+		try {
+			parallel.getLayerAt(1).addNeuron(new ProcessorNeuron());
+			fail();
+		} catch (IllegalStateException e) {
+		}
+		try {
+			((ProcessorNeuron) parallel.getLayerAt(2).getNeuronAt(1)).removeAllInputConnections();
+			fail();
+		} catch (IllegalStateException e) {
+		}
+	}
+
+	private void train(Backpropagation backpropagation) {
+		List<IStopCondition> stopConditions = new ArrayList<IStopCondition>();
+		stopConditions.add(new MaximumEpoch(backpropagation, 5));
+		backpropagation.learn(set, stopConditions);
+	}
+}
\ No newline at end of file
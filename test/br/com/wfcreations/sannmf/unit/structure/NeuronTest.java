@@ -260,6 +260,57 @@ public class NeuronTest {
 		assertNull(n3.getSynapsenTo(n1));
 	}
 
+	@Test
+	public void duplicateSynapse() {
+		Synapse duplicate = new Synapse(n1, n3, 1);
+		assertFalse(n1.addOutputSynapse(duplicate));
+		assertFalse(n3.addInputSynapse(duplicate));
+		assertFalse(n3.removeInputConnection(duplicate));
+		assertEquals(s13, n3.getSynapseFrom(n1));
+
+		assertTrue(n3.removeInputConnection(s13));
+		assertNull(n3.getSynapseFrom(n1));
+		assertTrue(n3.addInputSynapse(duplicate));
+		assertEquals(duplicate, n3.getSynapseFrom(n1));
+		assertEquals(2, n3.getInputsNum());
+	}
+
+	@Test
+	public void removeOutputFillsGap() {
+		ProcessorNeuron n6 = new ProcessorNeuron();
+		Synapse s56 = new Synapse(n5, n6, 0.7);
+		n5.addOutputSynapse(s56);
+		Synapse s16 = new Synapse(n1, n6, 0.8);
+		n1.addOutputSynapse(s16);
+		assertTrue(n1.removeOutputConnection(s13));
+		assertEquals(2, n1.getOutputsNum());
+		assertEquals(s16, n1.getOutputConnectionAt(0));
+		assertEquals(s14, n1.getOutputConnectionAt(1));
+		assertFalse(n1.hasConnectionTo(n3));
+		assertEquals(s16, n1.getSynapsenTo(n6));
+		assertEquals(s14, n1.getSynapsenTo(n4));
+		assertTrue(n1.removeConnectionTo(n6));
+		assertFalse(n1.removeConnectionTo(n6));
+		assertEquals(s14, n1.getSynapsenTo(n4));
+		assertEquals(1, n1.getOutputsNum());
+	}
+
+	@Test
+	public void indexFollowsListEdits() {
+		ProcessorNeuron n6 = new ProcessorNeuron();
+		Synapse s16 = new Synapse(n1, n6, 0.8);
+		assertTrue(n1.hasConnectionTo(n3));
+		n1.getOutputSynapses().set(0, s16);
+		assertFalse(n1.hasConnectionTo(n3));
+		assertEquals(s16, n1.getSynapsenTo(n6));
+
+		Synapse s63 = new Synapse(n6, n3, 0.9);
+		assertTrue(n3.hasConnectionFrom(n1));
+		n3.getInputSynapses().set(0, s63);
+		assertFalse(n3.hasConnectionFrom(n1));
+		assertEquals(s63, n3.getSynapseFrom(n6));
+	}
+
 	@Test
 	public void layerTest() {
 		ProcessorLayer layer = new ProcessorLayer();
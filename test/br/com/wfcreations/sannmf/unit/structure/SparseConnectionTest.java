@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.unit.structure;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import br.com.wfcreations.sannmf.data.SupervisedSet;
+import br.com.wfcreations.sannmf.function.activation.Sigmoid;
+import br.com.wfcreations.sannmf.function.weightinitialization.UniformDistribution;
+import br.com.wfcreations.sannmf.learning.algorithms.Backpropagation;
+import br.com.wfcreations.sannmf.learning.stopcondition.IStopCondition;
+import br.com.wfcreations.sannmf.learning.stopcondition.MaximumEpoch;
+import br.com.wfcreations.sannmf.neuralnetwork.MLP;
+import br.com.wfcreations.sannmf.structure.ISynapse;
+import br.com.wfcreations.sannmf.structure.feedforward.AbstractConnection;
+import br.com.wfcreations.sannmf.structure.feedforward.DenseConnection;
+import br.com.wfcreations.sannmf.structure.feedforward.InputNeuron;
+import br.com.wfcreations.sannmf.structure.feedforward.MatrixSynapse;
+import br.com.wfcreations.sannmf.structure.feedforward.ProcessorLayer;
+import br.com.wfcreations.sannmf.structure.feedforward.ProcessorNeuron;
+import br.com.wfcreations.sannmf.structure.feedforward.SparseConnection;
+import br.com.wfcreations.sannmf.utils.SynapseUtils;
+
+public class SparseConnectionTest {
+
+	MLP mlp;
+
+	ProcessorNeuron hidden;
+
+	@Before
+	public void setUp() {
+		mlp = new MLP(3, new int[] { 4 }, 2, true, new Sigmoid());
+		mlp.initializeWeights(new UniformDistribution(-1, 1));
+		hidden = (ProcessorNeuron) mlp.getLayerAt(1).getNeuronAt(1);
+	}
+
+	@Test
+	public void pruneAndCompact() {
+		InputNeuron input = mlp.getInputNeurons()[1];
+		double[] inputs = { 0.5, -0.25, 1 };
+		ISynapse pruned = hidden.getSynapseFrom(input);
+		double weight = pruned.getWeight();
+		pruned.setWeight(0);
+		double[] expected = mlp.setInput(inputs).activate().getOutput().clone();
+		pruned.setWeight(weight);
+		SynapseUtils.disconnectSynapse(pruned);
+		assertFalse(hidden.hasConnectionFrom(input));
+		assertEquals(3, hidden.getInputsNum());
+
+		AbstractConnection connection = ((ProcessorLayer) mlp.getLayerAt(1)).compact();
+		assertTrue(connection instanceof SparseConnection);
+		assertTrue(hidden.getInputSynapses().isEmpty());
+		assertSame(connection, hidden.getInputMatrices().get(0));
+		assertEquals(15, connection.getWeightsNum());
+		assertEquals(3, hidden.getInputsNum());
+		assertEquals(3, input.getOutputsNum());
+		assertFalse(hidden.hasConnectionFrom(input));
+		assertFalse(input.hasConnectionTo(hidden));
+		assertTrue(hidden.getSynapseFrom(mlp.getInputNeurons()[0]) instanceof MatrixSynapse);
+
+		assertArrayEquals(expected, mlp.setInput(inputs).activate().getOutput(), 1e-12);
+		assertArrayEquals(expected, mlp.compile().activate(inputs), 1e-12);
+	}
+
+	@Test
+	public void compactDense() {
+		mlp.compact();
+		assertTrue(hidden.getInputMatrices().get(0) instanceof DenseConnection);
+		assertEquals(1, hidden.getInputMatrices().size());
+		assertEquals(4, hidden.getInputsNum());
+	}
+
+	@Test
+	public void sparseConnect() {
+		List<ProcessorNeuron> postsynaptics = new ArrayList<ProcessorNeuron>();
+		postsynaptics.add(new ProcessorNeuron());
+		postsynaptics.add(new ProcessorNeuron());
+		List<InputNeuron> presynaptics = Arrays.asList(new InputNeuron(), new InputNeuron(), new InputNeuron());
+		SparseConnection connection = SynapseUtils.sparseConnect(presynaptics, postsynaptics, new int[] { 0, 2, 3 }, new int[] { 0, 2, 1 });
+		connection.setWeight(0, 0, 2).setWeight(0, 2, -1).setWeight(1, 1, 3);
+		presynaptics.get(0).setInput(1);
+		presynaptics.get(1).setInput(2);
+		presynaptics.get(2).setInput(4);
+
+		assertEquals(-2, postsynaptics.get(0).activate().getOutput(), 0);
+		assertEquals(6, postsynaptics.get(1).activate().getOutput(), 0);
+		assertEquals(1, presynaptics.get(1).getOutputsNum());
+		assertTrue(postsynaptics.get(1).hasConnectionFrom(presynaptics.get(1)));
+		assertFalse(postsynaptics.get(1).hasConnectionFrom(presynaptics.get(0)));
+		assertEquals(-1, postsynaptics.get(0).getInputConnectionAt(1).getWeight(), 0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void unsortedColumns() {
+		List<ProcessorNeuron> postsynaptics = Arrays.asList(new ProcessorNeuron());
+		List<InputNeuron> presynaptics = Arrays.asList(new InputNeuron(), new InputNeuron());
+		SynapseUtils.sparseConnect(presynaptics, postsynaptics, new int[] { 0, 2 }, new int[] { 1, 0 });
+	}
+
+	@Test
+	public void trainingMatchesSynapses() {
+		MLP explicit = new MLP(3, new int[] { 4 }, 2, true, new Sigmoid());
+		Random random = new Random(7);
+		for (int l = 1; l < mlp.getLayersNum(); l++)
+			for (int n = 0; n < mlp.getLayerAt(l).getNeuronsNum(); n++)
+				if (mlp.getLayerAt(l).getNeuronAt(n) instanceof ProcessorNeuron) {
+					List<ISynapse> synapses = ((ProcessorNeuron) mlp.getLayerAt(l).getNeuronAt(n)).getInputConnections();
+					List<ISynapse> copies = ((ProcessorNeuron) explicit.getLayerAt(l).getNeuronAt(n)).getInputConnections();
+					for (int i = 0; i < synapses.size(); i++)
+						copies.get(i).setWeight(synapses.get(i).getWeight());
+				}
+		for (MLP network : new MLP[] { mlp, explicit }) {
+			SynapseUtils.disconnectSynapse(((ProcessorNeuron) network.getLayerAt(1).getNeuronAt(2)).getSynapseFrom(network.getInputNeurons()[0]));
+			SynapseUtils.disconnectSynapse(((ProcessorNeuron) network.getLayerAt(2).getNeuronAt(0)).getSynapseFrom(network.getLayerAt(1).getNeuronAt(3)));
+		}
+		mlp.compact();
+		assertTrue(hidden.getInputMatrices().get(0) instanceof SparseConnection);
+
+		SupervisedSet set = new SupervisedSet(3, 2);
+		for (int p = 0; p < 10; p++)
+			set.addPattern(new double[] { random.nextDouble(), random.nextDouble(), random.nextDouble() }, new double[] { random.nextDouble(), random.nextDouble() });
+
+		for (boolean batchMode : new boolean[] { false, true }) {
+			train(new Backpropagation(mlp, 0.5, batchMode), set);
+			train(new Backpropagation(explicit, 0.5, batchMode), set);
+			for (int p = 0; p < set.lenght(); p++)
+				assertArrayEquals(explicit.setInput(set.getPatternAt(p).getInputs()).activate().getOutput().clone(), mlp.setInput(set.getPatternAt(p).getInputs()).activate().getOutput(), 1e-12);
+		}
+	}
+
+	private void train(Backpropagation backpropagation, SupervisedSet set) {
+		List<IStopCondition> stopConditions = new ArrayList<IStopCondition>();
+		stopConditions.add(new MaximumEpoch(backpropagation, 20));
+		backpropagation.learn(set, stopConditions);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) Welsiton Ferreira (wfcreations@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *  list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice, this
+ *  list of conditions and the following disclaimer in the documentation and/or
+ *  other materials provided with the distribution.
+ *
+ *  Neither the name of the WFCreation nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package br.com.wfcreations.sannmf.unit.utils;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Vector;
+
+import org.junit.Test;
+
+import br.com.wfcreations.sannmf.data.SupervisedSet;
+import br.com.wfcreations.sannmf.function.activation.Sigmoid;
+import br.com.wfcreations.sannmf.neuralnetwork.MLP;
+import br.com.wfcreations.sannmf.utils.FreezableList;
+
+public class FreezableListTest {
+
+	@Test
+	public void snapshotFollowsMutations() {
+		FreezableList<String> list = new FreezableList<String>();
+		list.add("a");
+		Object[] first = list.snapshot();
+		assertSame(first, list.snapshot());
+		list.add("b");
+		assertArrayEquals(new Object[] { "a", "b" }, list.snapshot());
+		Object[] second = list.snapshot();
+		list.set(0, "c");
+		assertArrayEquals(new Object[] { "c", "b" }, list.snapshot());
+		assertArrayEquals(new Object[] { "a", "b" }, second);
+		list.remove(1);
+		assertArrayEquals(new Object[] { "c" }, list.snapshot());
+		assertArrayEquals(new Object[] { "a" }, first);
+		list.freeze();
+		assertSame(list.snapshot(), list.snapshot());
+		assertArrayEquals(new Object[] { "c" }, list.snapshot());
+		list.snapshot()[0] = "d";
+		assertEquals("c", list.get(0));
+	}
+
+	@Test
+	public void unpublishedSnapshotsOnceFrozen() {
+		FreezableList<String> list = new FreezableList<String>(0, true);
+		list.add("a");
+		list.add("b");
+		try {
+			list.snapshot();
+			fail();
+		} catch (IllegalStateException e) {
+		}
+		list.freeze();
+		assertArrayEquals(new Object[] { "a", "b" }, list.snapshot());
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void negativeIndex() {
+		FreezableList<String> list = new FreezableList<String>();
+		list.add("a");
+		list.get(-1);
+	}
+
+	@Test
+	public void valueOf() {
+		Vector<String> vector = new Vector<String>();
+		vector.add("a");
+		vector.add("b");
+		FreezableList<String> list = FreezableList.valueOf(vector);
+		assertEquals(vector, list);
+		assertSame(list, FreezableList.valueOf(list));
+		assertTrue(FreezableList.valueOf(null).isEmpty());
+	}
+
+	@Test
+	public void serializeNetworkAndSet() throws IOException, ClassNotFoundException {
+		MLP network = new MLP(2, new int[] { 3 }, 1, true, new Sigmoid());
+		network.freeze();
+		SupervisedSet set = new SupervisedSet(2, 1);
+		set.addPattern(new double[] { 0, 1 }, new double[] { 1 });
+		MLP networkCopy = (MLP) roundTrip(network);
+		SupervisedSet setCopy = (SupervisedSet) roundTrip(set);
+		assertArrayEquals(network.setInput(0.25, 0.5).activate().getOutput(), networkCopy.setInput(0.25, 0.5).activate().getOutput(), 0);
+		assertEquals(1, setCopy.lenght());
+		assertArrayEquals(new double[] { 0, 1 }, setCopy.getPatternAt(0).getInputs(), 0);
+	}
+
+	private static Object roundTrip(Object object) throws IOException, ClassNotFoundException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(object);
+		}
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			return in.readObject();
+		}
+	}
+}
\ No newline at end of file